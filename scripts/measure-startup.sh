@@ -0,0 +1,62 @@
+#!/usr/bin/env bash
+#
+# Measures time from JVM launch to the first successful GET /users.
+#
+# Build first with: mvn -Pfast-startup -DskipTests package
+#
+# Usage: scripts/measure-startup.sh [baseline|fast] [runs]
+#   baseline  fat jar, no AOT, no CDS
+#   fast      thin jar with AOT and the AppCDS archive (default)
+# Set LAZY=true to also enable lazy initialization of non-hot beans.
+set -euo pipefail
+
+MODE="${1:-fast}"
+RUNS="${2:-5}"
+PORT="${PORT:-18080}"
+TARGET_DIR="$(cd "$(dirname "$0")/.." && pwd)/target"
+JAR="$TARGET_DIR/test-0.0.1-SNAPSHOT.jar"
+URL="http://localhost:$PORT/api/v1/users?from=01-01-1900&to=$(date +%d-%m-%Y)"
+
+case "$MODE" in
+  baseline)
+    JAVA_ARGS=(-jar "$TARGET_DIR/test-0.0.1-SNAPSHOT-exec.jar")
+    ;;
+  fast)
+    JAVA_ARGS=(-XX:SharedArchiveFile="$TARGET_DIR/application.jsa" -Xlog:cds=off
+      -Dspring.aot.enabled=true -jar "$JAR")
+    ;;
+  *)
+    echo "Unknown mode: $MODE (expected baseline or fast)" >&2
+    exit 1
+    ;;
+esac
+
+if [[ "${LAZY:-false}" == "true" ]]; then
+  JAVA_ARGS=(-Dspring.main.lazy-initialization=true "${JAVA_ARGS[@]}")
+fi
+
+now_ms() {
+  date +%s%3N
+}
+
+results=()
+for ((run = 1; run <= RUNS; run++)); do
+  start=$(now_ms)
+  java -Dserver.port="$PORT" "${JAVA_ARGS[@]}" > /dev/null 2>&1 &
+  pid=$!
+  until curl -sf -o /dev/null "$URL"; do
+    if ! kill -0 "$pid" 2> /dev/null; then
+      echo "Application exited before serving requests" >&2
+      exit 1
+    fi
+    sleep 0.02
+  done
+  elapsed=$(($(now_ms) - start))
+  kill "$pid"
+  wait "$pid" 2> /dev/null || true
+  results+=("$elapsed")
+  echo "run $run: ${elapsed} ms"
+done
+
+median=$(printf '%s\n' "${results[@]}" | sort -n | awk '{ a[NR] = $1 } END { print a[int((NR + 1) / 2)] }')
+echo "mode=$MODE lazy=${LAZY:-false} runs=$RUNS median=${median} ms"
@@ -0,0 +1,78 @@
+package com.example.test.exception;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Cost of one 4xx error before and after making domain exceptions stackless and serving constant
+ * error bodies pre-serialized. Exceptions are thrown {@code depth} frames down, about as deep as a
+ * service call sits below Tomcat, the filter chain and Spring MVC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ErrorPathBenchmark {
+
+  private static final String MESSAGE = "DateFrom can't be after to dateTo";
+
+  @Param({"0", "120"})
+  public int depth;
+
+  private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+  private final ErrorBodyCache cache = new ErrorBodyCache(objectMapper, 400);
+
+  /** Previous error path: exception with a stack trace, body serialized per request. */
+  @Benchmark
+  public byte[] stackTraceAndSerialize() throws JsonProcessingException {
+    try {
+      throwAt(depth, true);
+      throw new AssertionError();
+    } catch (RuntimeException e) {
+      return objectMapper.writeValueAsBytes(new ErrorDTO(400, e.getMessage()));
+    }
+  }
+
+  @Benchmark
+  public byte[] stacklessAndSerialize() throws JsonProcessingException {
+    try {
+      throwAt(depth, false);
+      throw new AssertionError();
+    } catch (RuntimeException e) {
+      return objectMapper.writeValueAsBytes(new ErrorDTO(400, e.getMessage()));
+    }
+  }
+
+  /** Current error path for constant messages. */
+  @Benchmark
+  public byte[] stacklessAndCachedBody() {
+    try {
+      throwAt(depth, false);
+      throw new AssertionError();
+    } catch (RuntimeException e) {
+      return cache.get(e.getMessage());
+    }
+  }
+
+  private static void throwAt(int depth, boolean stackTrace) {
+    if (depth > 0) {
+      throwAt(depth - 1, stackTrace);
+      return;
+    }
+    throw stackTrace ? new RuntimeException(MESSAGE) : new InvalidDateRangeException(MESSAGE);
+  }
+}
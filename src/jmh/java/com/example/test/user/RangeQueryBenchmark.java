@@ -0,0 +1,88 @@
+package com.example.test.user;
+
+import com.example.test.TestApplication;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Birth-date range query through the Spring Data JPA repository against {@link JdbcRangeQuery},
+ * both in a read-only transaction as {@link UserService} runs them. The application starts with
+ * the {@code synthetic-data} profile, so the range sizes follow the generator's age distribution.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class RangeQueryBenchmark {
+
+  @Param("200000")
+  public int users;
+
+  /** Width of the queried range; 1 year holds about 1.5% of the users, 30 years about half. */
+  @Param({"1", "30"})
+  public int years;
+
+  private ConfigurableApplicationContext context;
+  private UserRepository userRepository;
+  private JdbcRangeQuery jdbcRangeQuery;
+  private TransactionTemplate readOnlyTransaction;
+  private LocalDate from;
+  private LocalDate to;
+
+  @Setup(Level.Trial)
+  public void start() {
+    context =
+        new SpringApplicationBuilder(TestApplication.class)
+            .web(WebApplicationType.NONE)
+            .run(
+                "--logging.level.root=WARN",
+                "--spring.profiles.active=synthetic-data",
+                "--application.dataset.users=" + users,
+                "--application.range-query.jdbc.enabled=true",
+                "--application.jdbc.slow-query-threshold=1m");
+    userRepository = context.getBean(UserRepository.class);
+    jdbcRangeQuery = context.getBean(JdbcRangeQuery.class);
+    readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    readOnlyTransaction.setReadOnly(true);
+    from = LocalDate.of(1960, 1, 1);
+    to = from.plusYears(years).minusDays(1);
+  }
+
+  @TearDown(Level.Trial)
+  public void stop() {
+    context.close();
+  }
+
+  @Benchmark
+  public List<UserDTO> jpa() {
+    return readOnlyTransaction.execute(
+        status -> userRepository.findAllByBirthDateBetween(from, to));
+  }
+
+  @Benchmark
+  public List<UserDTO> jdbc() {
+    return readOnlyTransaction.execute(
+        status -> jdbcRangeQuery.findAllByBirthDateBetween(from, to, 0));
+  }
+}
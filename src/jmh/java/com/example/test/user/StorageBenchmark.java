@@ -0,0 +1,169 @@
+package com.example.test.user;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Range-query and insert throughput of the {@code persistent} profile's H2 file database across
+ * storage settings. The schema comes from the Flyway migrations and the data from {@link
+ * SyntheticUserGenerator}; with the default 500k users the table is larger than the smaller
+ * caches, so those runs read pages from the file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class StorageBenchmark {
+
+  private static final LocalDate REFERENCE_DATE = LocalDate.of(2025, 1, 1);
+  private static final int OLDEST_YEAR = 1935;
+  private static final int YOUNGEST_YEAR = 2006;
+
+  @Param({"4096", "65536"})
+  public int cacheSizeKb;
+
+  @Param({"0", "500"})
+  public int writeDelayMs;
+
+  @Param("500000")
+  public int users;
+
+  private Path directory;
+  private String url;
+  private Connection keepOpen;
+  private final AtomicLong nextIndex = new AtomicLong();
+
+  @Setup(Level.Trial)
+  public void createDatabase() throws Exception {
+    directory = Files.createTempDirectory("storage-benchmark");
+    url =
+        "jdbc:h2:file:%s;CACHE_SIZE=%d;WRITE_DELAY=%d"
+            .formatted(directory.resolve("users"), cacheSizeKb, writeDelayMs);
+    Flyway.configure().dataSource(url, "sa", "sa").load().migrate();
+    keepOpen = DriverManager.getConnection(url, "sa", "sa");
+    var generator = new SyntheticUserGenerator(42, REFERENCE_DATE);
+    keepOpen.setAutoCommit(false);
+    try (PreparedStatement insert = keepOpen.prepareStatement(Queries.INSERT)) {
+      for (int i = 0; i < users; i++) {
+        bind(insert, generator.generate(i));
+        insert.addBatch();
+        if (i % 1000 == 999) {
+          insert.executeBatch();
+          keepOpen.commit();
+        }
+      }
+      insert.executeBatch();
+      keepOpen.commit();
+    }
+    keepOpen.setAutoCommit(true);
+    nextIndex.set(users);
+  }
+
+  @TearDown(Level.Trial)
+  public void dropDatabase() throws SQLException, IOException {
+    keepOpen.close();
+    try (Stream<Path> files = Files.walk(directory)) {
+      for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Session {
+
+    Connection connection;
+    PreparedStatement range;
+    PreparedStatement insert;
+    SyntheticUserGenerator generator;
+
+    @Setup(Level.Trial)
+    public void open(StorageBenchmark benchmark) throws SQLException {
+      connection = DriverManager.getConnection(benchmark.url, "sa", "sa");
+      range = connection.prepareStatement(Queries.RANGE);
+      insert = connection.prepareStatement(Queries.INSERT);
+      generator = new SyntheticUserGenerator(7, REFERENCE_DATE);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+      connection.close();
+    }
+  }
+
+  /** All users born in a random one-year window, read through the birth-date index. */
+  @Benchmark
+  public void rangeQuery(Session session, Blackhole blackhole) throws SQLException {
+    int year = ThreadLocalRandom.current().nextInt(OLDEST_YEAR, YOUNGEST_YEAR);
+    session.range.setDate(1, Date.valueOf(LocalDate.of(year, 1, 1)));
+    session.range.setDate(2, Date.valueOf(LocalDate.of(year, 12, 31)));
+    try (ResultSet rs = session.range.executeQuery()) {
+      while (rs.next()) {
+        blackhole.consume(rs.getInt(1));
+        blackhole.consume(rs.getString(2));
+        blackhole.consume(rs.getDate(5));
+      }
+    }
+  }
+
+  /** One auto-committed insert, as the create endpoint issues it. */
+  @Benchmark
+  public int insert(Session session) throws SQLException {
+    bind(session.insert, session.generator.generate(nextIndex.getAndIncrement()));
+    return session.insert.executeUpdate();
+  }
+
+  private static void bind(PreparedStatement statement, SyntheticUserGenerator.SyntheticUser user)
+      throws SQLException {
+    statement.setString(1, user.email());
+    statement.setString(2, user.firstName());
+    statement.setString(3, user.lastName());
+    statement.setDate(4, Date.valueOf(user.birthDate()));
+    statement.setString(5, user.address());
+    statement.setString(6, user.phoneNumber());
+  }
+
+  private static final class Queries {
+
+    static final String RANGE =
+        """
+          SELECT id, email, first_name, last_name, birth_date, address, phone_number
+          FROM users
+          WHERE birth_date BETWEEN ? AND ?
+        """;
+
+    static final String INSERT =
+        "INSERT INTO users(email, first_name, last_name, birth_date, address, phone_number)"
+            + " VALUES (?, ?, ?, ?, ?, ?)";
+  }
+}
@@ -0,0 +1,85 @@
+package com.example.test.user;
+
+import com.example.test.user.grpc.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Encoding a range query result as the HTTP API does (Jackson, one JSON array) against the gRPC
+ * stream (one length-delimited protobuf message per user, DTO conversion included). Payload sizes
+ * are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserEncodingBenchmark {
+
+  @Param({"1000"})
+  public int users;
+
+  private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+  private List<UserDTO> page;
+
+  @Setup(Level.Trial)
+  public void generate() {
+    var generator = new SyntheticUserGenerator(42, LocalDate.of(2025, 1, 1));
+    page = new ArrayList<>(users);
+    for (int i = 0; i < users; i++) {
+      var user = generator.generate(i);
+      page.add(
+          new UserDTO(
+              i + 1,
+              user.email(),
+              user.firstName(),
+              user.lastName(),
+              user.birthDate(),
+              user.address(),
+              user.phoneNumber()));
+    }
+    try {
+      System.out.printf(
+          "%nPayload for %d users: jackson %d bytes, protobuf %d bytes%n",
+          users, jackson().length, protobuf().length);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Benchmark
+  public byte[] jackson() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(page);
+  }
+
+  @Benchmark
+  public byte[] protobuf() throws IOException {
+    var out = new ByteArrayOutputStream(64 * users);
+    for (UserDTO user : page) {
+      User message = UserProtos.toProto(user);
+      message.writeDelimitedTo(out);
+    }
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,67 @@
+package com.example.test.load;
+
+import com.example.test.TestApplication;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * End-to-end load test. Starts the application on a random port with the {@code synthetic-data}
+ * profile, drives a mixed open-model workload against {@code /users} and writes latency reports.
+ *
+ * <p>Run with: {@code mvn -Pload-test test-compile exec:java -Dload.rate=500 -Dload.users=1000000}
+ * and see {@link LoadTestSettings} for the other knobs. Any other system property (for example
+ * {@code -Dapplication.create-batching.enabled=true}) is passed on to the application.
+ */
+public class LoadTest {
+
+  public static void main(String[] args) {
+    LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+    try (ConfigurableApplicationContext context =
+        new SpringApplicationBuilder(TestApplication.class).run(applicationArgs(settings, args))) {
+      int[] ids = idRange(context);
+      int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+      String contextPath = context.getEnvironment().getProperty("server.servlet.context-path", "");
+      URI users = URI.create("http://localhost:%d%s/users".formatted(port, contextPath));
+
+      HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+      var workload = new Workload(users, settings, ids[0], ids[1]);
+      var generator = new OpenModelLoadGenerator(client, workload, settings.rate());
+      System.out.printf("Warming up for %s at %d/s%n", settings.warmup(), settings.rate());
+      generator.run(settings.warmup());
+      System.out.printf("Measuring for %s at %d/s%n", settings.duration(), settings.rate());
+      var report = new LoadTestReport(settings, generator.run(settings.duration()));
+      report.print(System.out);
+      Path directory = report.write();
+      System.out.printf("%nReports written to %s%n", directory.toAbsolutePath());
+    }
+  }
+
+  private static String[] applicationArgs(LoadTestSettings settings, String[] args) {
+    List<String> applicationArgs =
+        new ArrayList<>(
+            List.of(
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                "--logging.level.com.example.test.user.SyntheticUserLoader=INFO",
+                "--spring.profiles.active=synthetic-data",
+                "--application.dataset.users=" + settings.users()));
+    applicationArgs.addAll(List.of(args));
+    return applicationArgs.toArray(String[]::new);
+  }
+
+  private static int[] idRange(ConfigurableApplicationContext context) {
+    return context
+        .getBean(JdbcTemplate.class)
+        .queryForObject(
+            "SELECT MIN(id), MAX(id) FROM users",
+            (rs, rowNum) -> new int[] {rs.getInt(1), rs.getInt(2)});
+  }
+}
@@ -0,0 +1,89 @@
+package com.example.test.load;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.TreeMap;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Writes a summary with throughput and p50/p99/p99.9 per operation, plus one HdrHistogram
+ * percentile distribution ({@code .hgrm}) file per operation for plotting.
+ */
+class LoadTestReport {
+
+  private static final double MICROS_PER_MILLI = 1000.0;
+
+  private final LoadTestSettings settings;
+  private final OpenModelLoadGenerator.Result result;
+
+  LoadTestReport(LoadTestSettings settings, OpenModelLoadGenerator.Result result) {
+    this.settings = settings;
+    this.result = result;
+  }
+
+  /** Writes the report files and returns the directory they were written to. */
+  Path write() {
+    Path directory =
+        settings
+            .output()
+            .resolve(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+    try {
+      Files.createDirectories(directory);
+      try (var summary = new PrintStream(Files.newOutputStream(directory.resolve("summary.txt")))) {
+        print(summary);
+      }
+      for (Map.Entry<Operation, Histogram> entry : result.latencies().entrySet()) {
+        if (entry.getValue().getTotalCount() > 0) {
+          Path file = directory.resolve(entry.getKey().key() + ".hgrm");
+          try (var out = new PrintStream(Files.newOutputStream(file))) {
+            entry.getValue().outputPercentileDistribution(out, MICROS_PER_MILLI);
+          }
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return directory;
+  }
+
+  void print(PrintStream out) {
+    double seconds = result.elapsed().toNanos() / 1e9;
+    out.printf(
+        "Target rate %d/s, %d users, %s measured, %d requests sent%n",
+        settings.rate(), settings.users(), settings.duration(), result.sent());
+    out.printf("Achieved throughput %.1f/s%n%n", result.sent() / seconds);
+    out.printf(
+        "%-8s %10s %8s %10s %10s %10s %10s %10s%n",
+        "op", "count", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+    for (Map.Entry<Operation, Histogram> entry : result.latencies().entrySet()) {
+      Histogram histogram = entry.getValue();
+      if (histogram.getTotalCount() == 0) {
+        continue;
+      }
+      out.printf(
+          "%-8s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+          entry.getKey().key(),
+          histogram.getTotalCount(),
+          result.errors().get(entry.getKey()).sum(),
+          histogram.getTotalCount() / seconds,
+          millis(histogram.getValueAtPercentile(50)),
+          millis(histogram.getValueAtPercentile(99)),
+          millis(histogram.getValueAtPercentile(99.9)),
+          millis(histogram.getMaxValue()));
+    }
+    out.println();
+    out.println("Responses by status:");
+    new TreeMap<>(result.statuses())
+        .forEach((status, count) -> out.printf("  %-24s %d%n", status, count.sum()));
+  }
+
+  private static double millis(long micros) {
+    return micros / MICROS_PER_MILLI;
+  }
+}
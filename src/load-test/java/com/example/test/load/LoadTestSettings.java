@@ -0,0 +1,57 @@
+package com.example.test.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Load test knobs, read from {@code -Dload.*} system properties.
+ *
+ * @param rate target request rate per second, independent of response times
+ * @param warmup time spent at the target rate before latencies are recorded
+ * @param duration time spent at the target rate while latencies are recorded
+ * @param users number of synthetic users seeded before the run
+ * @param rangeDays width of each range read window
+ * @param timeout per request timeout; timed out requests count as errors
+ * @param mix relative weight of each operation
+ * @param output directory the reports are written to
+ */
+record LoadTestSettings(
+    int rate,
+    Duration warmup,
+    Duration duration,
+    int users,
+    int rangeDays,
+    Duration timeout,
+    Map<Operation, Integer> mix,
+    Path output) {
+
+  static LoadTestSettings fromSystemProperties() {
+    return new LoadTestSettings(
+        Integer.getInteger("load.rate", 200),
+        Duration.parse(System.getProperty("load.warmup", "PT10S")),
+        Duration.parse(System.getProperty("load.duration", "PT30S")),
+        Integer.getInteger("load.users", 100_000),
+        Integer.getInteger("load.range-days", 365),
+        Duration.parse(System.getProperty("load.timeout", "PT10S")),
+        parseMix(System.getProperty("load.mix", "read=80,create=10,patch=5,put=3,delete=2")),
+        Path.of(System.getProperty("load.output", "target/load-test")));
+  }
+
+  /** Parses {@code read=80,create=10,...} into operation weights. */
+  static Map<Operation, Integer> parseMix(String mix) {
+    Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+    for (String entry : mix.split(",")) {
+      String[] parts = entry.trim().split("=");
+      if (parts.length != 2) {
+        throw new IllegalArgumentException("Invalid load.mix entry <%s>".formatted(entry));
+      }
+      weights.put(Operation.fromKey(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+    }
+    if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+      throw new IllegalArgumentException("load.mix must have a positive total weight");
+    }
+    return weights;
+  }
+}
@@ -0,0 +1,88 @@
+package com.example.test.load;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Sends requests at a constant arrival rate regardless of how fast the server answers. Latency is
+ * measured from the moment a request was scheduled to be sent, not from when it actually went
+ * out, so a stalled server shows up in the percentiles instead of silently lowering the offered
+ * load (coordinated omission).
+ */
+class OpenModelLoadGenerator {
+
+  private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+  private final HttpClient client;
+  private final Workload workload;
+  private final int rate;
+
+  OpenModelLoadGenerator(HttpClient client, Workload workload, int rate) {
+    this.client = client;
+    this.workload = workload;
+    this.rate = rate;
+  }
+
+  /** Drives load for the given duration and returns once every request has completed. */
+  Result run(Duration duration) {
+    Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    for (Operation operation : Operation.values()) {
+      latencies.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+      errors.put(operation, new LongAdder());
+    }
+    Map<String, LongAdder> statuses = new ConcurrentHashMap<>();
+    AtomicInteger inFlight = new AtomicInteger();
+    long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+    long start = System.nanoTime();
+    long end = start + duration.toNanos();
+    long sent = 0;
+    for (long intended = start; intended < end; intended = start + ++sent * intervalNanos) {
+      long delay = intended - System.nanoTime();
+      if (delay > 0) {
+        LockSupport.parkNanos(delay);
+      }
+      long scheduledAt = intended;
+      Operation operation = workload.next();
+      inFlight.incrementAndGet();
+      client
+          .sendAsync(workload.request(operation), BodyHandlers.ofString())
+          .whenComplete(
+              (response, failure) -> {
+                long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduledAt);
+                latencies.get(operation).recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+                String status = failure != null ? failure.getClass().getSimpleName()
+                    : String.valueOf(response.statusCode());
+                statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+                if (failure != null || response.statusCode() >= 300) {
+                  errors.get(operation).increment();
+                } else if (operation == Operation.CREATE) {
+                  workload.created(response.headers().firstValue("Location").orElse(null));
+                }
+                inFlight.decrementAndGet();
+              });
+    }
+    while (inFlight.get() > 0) {
+      LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+    }
+    return new Result(
+        Duration.ofNanos(System.nanoTime() - start), sent, latencies, errors, statuses);
+  }
+
+  record Result(
+      Duration elapsed,
+      long sent,
+      Map<Operation, Histogram> latencies,
+      Map<Operation, LongAdder> errors,
+      Map<String, LongAdder> statuses) {}
+}
@@ -0,0 +1,29 @@
+package com.example.test.load;
+
+import java.util.Arrays;
+
+/** Request types the load generator drives against {@code UserController}. */
+enum Operation {
+  READ("read"),
+  CREATE("create"),
+  PATCH("patch"),
+  PUT("put"),
+  DELETE("delete");
+
+  private final String key;
+
+  Operation(String key) {
+    this.key = key;
+  }
+
+  String key() {
+    return key;
+  }
+
+  static Operation fromKey(String key) {
+    return Arrays.stream(values())
+        .filter(operation -> operation.key.equals(key))
+        .findFirst()
+        .orElseThrow(() -> new IllegalArgumentException("Unknown operation <%s>".formatted(key)));
+  }
+}
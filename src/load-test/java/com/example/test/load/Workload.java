@@ -0,0 +1,125 @@
+package com.example.test.load;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Picks the next operation by weight and builds its request. Updates target the lower half of
+ * the seeded ids while deletes consume ids created during the run first and then seeded ids from
+ * the top down, so the two rarely collide.
+ */
+class Workload {
+
+  private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+  private static final LocalDate MIN_BIRTH_DATE = LocalDate.of(1950, 1, 1);
+  private static final int BIRTH_DATE_SPAN_DAYS = 55 * 365;
+
+  private final URI users;
+  private final Duration timeout;
+  private final int rangeDays;
+  private final Operation[] operations;
+  private final int[] cumulativeWeights;
+  private final int minId;
+  private final int updatableIds;
+  private final AtomicInteger nextSeededDelete;
+  private final ConcurrentLinkedQueue<Integer> createdIds = new ConcurrentLinkedQueue<>();
+  private final AtomicLong emailSequence = new AtomicLong();
+  private final long runId = System.currentTimeMillis();
+
+  Workload(URI users, LoadTestSettings settings, int minId, int maxId) {
+    this.users = users;
+    this.timeout = settings.timeout();
+    this.rangeDays = settings.rangeDays();
+    Map<Operation, Integer> mix = settings.mix();
+    this.operations = mix.keySet().toArray(Operation[]::new);
+    this.cumulativeWeights = new int[operations.length];
+    int total = 0;
+    for (int i = 0; i < operations.length; i++) {
+      total += mix.get(operations[i]);
+      cumulativeWeights[i] = total;
+    }
+    this.minId = minId;
+    this.updatableIds = Math.max(1, (maxId - minId + 1) / 2);
+    this.nextSeededDelete = new AtomicInteger(maxId);
+  }
+
+  Operation next() {
+    int pick = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+    for (int i = 0; i < cumulativeWeights.length; i++) {
+      if (pick < cumulativeWeights[i]) {
+        return operations[i];
+      }
+    }
+    throw new IllegalStateException("Unreachable");
+  }
+
+  HttpRequest request(Operation operation) {
+    return switch (operation) {
+      case READ -> {
+        LocalDate from = randomBirthDate();
+        yield builder(
+                "?from=%s&to=%s"
+                    .formatted(DATE_FORMAT.format(from), DATE_FORMAT.format(from.plusDays(rangeDays))))
+            .GET()
+            .build();
+      }
+      case CREATE -> json(builder("")).POST(BodyPublishers.ofString(user())).build();
+      case PUT ->
+          json(builder("/" + randomUpdatableId())).PUT(BodyPublishers.ofString(user())).build();
+      case PATCH ->
+          json(builder("/" + randomUpdatableId()))
+              .method(
+                  "PATCH",
+                  BodyPublishers.ofString(
+                      "{\"firstName\":\"Patched\",\"birthDate\":\"%s\"}"
+                          .formatted(DATE_FORMAT.format(randomBirthDate()))))
+              .build();
+      case DELETE -> builder("/" + nextDeletableId()).DELETE().build();
+    };
+  }
+
+  /** Remembers ids returned by creates so deletes can remove them again. */
+  void created(String location) {
+    if (location != null) {
+      createdIds.add(Integer.valueOf(location.substring(location.lastIndexOf('/') + 1)));
+    }
+  }
+
+  private HttpRequest.Builder builder(String suffix) {
+    return HttpRequest.newBuilder(URI.create(users + suffix)).timeout(timeout);
+  }
+
+  private static HttpRequest.Builder json(HttpRequest.Builder builder) {
+    return builder.header("Content-Type", "application/json");
+  }
+
+  private String user() {
+    long sequence = emailSequence.incrementAndGet();
+    return """
+        {"email":"load.%d.%d@example.com","firstName":"Load","lastName":"Test",\
+        "birthDate":"%s","address":"%d Load street","phoneNumber":"+380%09d"}"""
+        .formatted(runId, sequence, DATE_FORMAT.format(randomBirthDate()), sequence, sequence);
+  }
+
+  private int randomUpdatableId() {
+    return minId + ThreadLocalRandom.current().nextInt(updatableIds);
+  }
+
+  private int nextDeletableId() {
+    Integer created = createdIds.poll();
+    return created != null ? created : nextSeededDelete.getAndDecrement();
+  }
+
+  private static LocalDate randomBirthDate() {
+    return MIN_BIRTH_DATE.plusDays(ThreadLocalRandom.current().nextInt(BIRTH_DATE_SPAN_DAYS));
+  }
+}
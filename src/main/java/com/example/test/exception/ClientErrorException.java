@@ -0,0 +1,12 @@
+package com.example.test.exception;
+
+/**
+ * An error in the request rather than in the service. These are thrown per bad request and only
+ * ever reported as a status and a message, so they skip capturing a stack trace.
+ */
+public abstract class ClientErrorException extends RuntimeException {
+
+  protected ClientErrorException(String message) {
+    super(message, null, false, false);
+  }
+}
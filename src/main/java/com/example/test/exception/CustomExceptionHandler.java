@@ -2,35 +2,56 @@ package com.example.test.exception;
 
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.NonNull;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 @RestControllerAdvice
 public class CustomExceptionHandler extends ResponseEntityExceptionHandler {
 
+  private static final String DEADLINE_EXCEEDED = "Request exceeded its deadline";
+  private static final String BUSY = "Too many requests of this kind in progress, retry later";
+  private static final String RETRY_AFTER_SECONDS = "1";
+
+  // Date range and age errors carry constant messages, so their bodies are served pre-serialized
+  private final ErrorBodyCache badRequestBodies;
+
+  public CustomExceptionHandler(ObjectMapper objectMapper) {
+    this.badRequestBodies = new ErrorBodyCache(objectMapper, BAD_REQUEST.value());
+  }
+
   @Override
   protected ResponseEntity<Object> handleMethodArgumentNotValid(
       @NonNull MethodArgumentNotValidException e,
       @NonNull HttpHeaders headers,
       @NonNull HttpStatusCode status,
       @NonNull WebRequest request) {
-    var validationErrors =
-        e.getBindingResult().getFieldErrors().stream()
-            .map(error -> new ValidationErrorDTO(error.getField(), error.getDefaultMessage()))
-            .toList();
+    List<FieldError> fieldErrors = e.getBindingResult().getFieldErrors();
+    var validationErrors = new ArrayList<ValidationErrorDTO>(fieldErrors.size());
+    for (FieldError error : fieldErrors) {
+      validationErrors.add(new ValidationErrorDTO(error.getField(), error.getDefaultMessage()));
+    }
     var errorDTO = new ErrorDTO(status.value(), "Validation failed");
     errorDTO.setValidationErrors(validationErrors);
     return ResponseEntity.status(status).contentType(APPLICATION_JSON).body(errorDTO);
@@ -38,22 +59,32 @@ public class CustomExceptionHandler extends ResponseEntityExceptionHandler {
 
   @ExceptionHandler(ConstraintViolationException.class)
   public ResponseEntity<?> handleConstraintViolationException(ConstraintViolationException e) {
-    var constraintViolations =
-        e.getConstraintViolations().stream().map(ConstraintViolation::getMessage).toList();
+    var violations = e.getConstraintViolations();
+    var constraintViolations = new ArrayList<String>(violations.size());
+    for (ConstraintViolation<?> violation : violations) {
+      constraintViolations.add(violation.getMessage());
+    }
     return ResponseEntity.status(BAD_REQUEST)
         .contentType(APPLICATION_JSON)
         .body(Map.of("errors", constraintViolations));
   }
 
   @ExceptionHandler(InvalidDateRangeException.class)
-  public ResponseEntity<ErrorDTO> handleInvalidDateRangeException(InvalidDateRangeException e) {
+  public ResponseEntity<byte[]> handleInvalidDateRangeException(InvalidDateRangeException e) {
     return ResponseEntity.status(BAD_REQUEST)
-            .contentType(APPLICATION_JSON)
-            .body(new ErrorDTO(BAD_REQUEST.value(), e.getMessage()));
+        .contentType(APPLICATION_JSON)
+        .body(badRequestBodies.get(e.getMessage()));
   }
 
   @ExceptionHandler(InvalidUserAgeException.class)
-  public ResponseEntity<ErrorDTO> handleInvalidUserAgeException(InvalidUserAgeException e) {
+  public ResponseEntity<byte[]> handleInvalidUserAgeException(InvalidUserAgeException e) {
+    return ResponseEntity.status(BAD_REQUEST)
+        .contentType(APPLICATION_JSON)
+        .body(badRequestBodies.get(e.getMessage()));
+  }
+
+  @ExceptionHandler(ResultTooLargeException.class)
+  public ResponseEntity<ErrorDTO> handleResultTooLargeException(ResultTooLargeException e) {
     return ResponseEntity.status(BAD_REQUEST)
         .contentType(APPLICATION_JSON)
         .body(new ErrorDTO(BAD_REQUEST.value(), e.getMessage()));
@@ -65,4 +96,30 @@ public class CustomExceptionHandler extends ResponseEntityExceptionHandler {
         .contentType(APPLICATION_JSON)
         .body(new ErrorDTO(NOT_FOUND.value(), e.getMessage()));
   }
+
+  @ExceptionHandler({QueryTimeoutException.class, TransactionTimedOutException.class})
+  public ResponseEntity<ErrorDTO> handleDeadlineExceeded(RuntimeException e) {
+    return ResponseEntity.status(SERVICE_UNAVAILABLE)
+        .contentType(APPLICATION_JSON)
+        .body(new ErrorDTO(SERVICE_UNAVAILABLE.value(), DEADLINE_EXCEEDED));
+  }
+
+  @ExceptionHandler(TaskRejectedException.class)
+  public ResponseEntity<ErrorDTO> handleTaskRejectedException(TaskRejectedException e) {
+    return ResponseEntity.status(SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+        .contentType(APPLICATION_JSON)
+        .body(new ErrorDTO(SERVICE_UNAVAILABLE.value(), BUSY));
+  }
+
+  @Override
+  protected ResponseEntity<Object> handleAsyncRequestTimeoutException(
+      @NonNull AsyncRequestTimeoutException e,
+      @NonNull HttpHeaders headers,
+      @NonNull HttpStatusCode status,
+      @NonNull WebRequest request) {
+    return ResponseEntity.status(SERVICE_UNAVAILABLE)
+        .contentType(APPLICATION_JSON)
+        .body(new ErrorDTO(SERVICE_UNAVAILABLE.value(), DEADLINE_EXCEEDED));
+  }
 }
@@ -0,0 +1,59 @@
+package com.example.test.exception;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Serialized {@link ErrorDTO} bodies of one status code for errors whose message is a constant.
+ * The timestamp has second resolution, so each body is rendered at most once per second and
+ * served as the same bytes in between.
+ */
+class ErrorBodyCache {
+
+  private static final int MAX_ENTRIES = 256;
+
+  private final ObjectMapper objectMapper;
+  private final int statusCode;
+  private final Clock clock;
+  private final ConcurrentMap<String, Body> bodies = new ConcurrentHashMap<>();
+
+  ErrorBodyCache(ObjectMapper objectMapper, int statusCode) {
+    this(objectMapper, statusCode, Clock.systemDefaultZone());
+  }
+
+  ErrorBodyCache(ObjectMapper objectMapper, int statusCode, Clock clock) {
+    this.objectMapper = objectMapper;
+    this.statusCode = statusCode;
+    this.clock = clock;
+  }
+
+  byte[] get(String message) {
+    long second = clock.millis() / 1000;
+    Body body = bodies.get(message);
+    if (body != null && body.second() == second) {
+      return body.json();
+    }
+    byte[] json = render(message, LocalDateTime.now(clock));
+    if (body != null || bodies.size() < MAX_ENTRIES) {
+      bodies.put(message, new Body(second, json));
+    }
+    return json;
+  }
+
+  private byte[] render(String message, LocalDateTime timestamp) {
+    var errorDTO = new ErrorDTO(statusCode, message);
+    errorDTO.setTimestamp(timestamp);
+    try {
+      return objectMapper.writeValueAsBytes(errorDTO);
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private record Body(long second, byte[] json) {}
+}
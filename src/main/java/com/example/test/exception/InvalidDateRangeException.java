@@ -1,6 +1,7 @@
 package com.example.test.exception;
 
-public class InvalidDateRangeException extends RuntimeException {
+/** A date or age range whose lower bound lies above its upper one. */
+public class InvalidDateRangeException extends ClientErrorException {
 
   public InvalidDateRangeException(String message) {
     super(message);
@@ -1,6 +1,7 @@
 package com.example.test.exception;
 
-public class InvalidUserAgeException extends RuntimeException {
+/** A birth date that puts the user outside the allowed age. */
+public class InvalidUserAgeException extends ClientErrorException {
 
   public InvalidUserAgeException(String message) {
     super(message);
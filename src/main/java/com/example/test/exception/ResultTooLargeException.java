@@ -0,0 +1,9 @@
+package com.example.test.exception;
+
+/** A query expected to match more users than one response may carry. */
+public class ResultTooLargeException extends ClientErrorException {
+
+  public ResultTooLargeException(String message) {
+    super(message);
+  }
+}
@@ -1,6 +1,7 @@
 package com.example.test.exception;
 
-public class UserNotFoundException extends RuntimeException {
+/** No user exists with the requested id. */
+public class UserNotFoundException extends ClientErrorException {
 
   public UserNotFoundException(String message) {
     super(message);
@@ -0,0 +1,75 @@
+package com.example.test.jdbc;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+/**
+ * Follows asynchronously processed requests onto the thread that runs their {@link Callable}: the
+ * statement recordings open on the request thread keep counting there, and the statements it
+ * executes are cancelled when the request times out or fails, e.g. because the client
+ * disconnected.
+ */
+class AsyncStatementInterceptor implements CallableProcessingInterceptor {
+
+  private static final String RECORDINGS =
+      AsyncStatementInterceptor.class.getName() + ".recordings";
+  private static final String RUNNING = AsyncStatementInterceptor.class.getName() + ".running";
+  private static final String ATTACHED = AsyncStatementInterceptor.class.getName() + ".attached";
+
+  @Override
+  public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+    request.setAttribute(
+        RECORDINGS, SqlStatementRecorder.active(), RequestAttributes.SCOPE_REQUEST);
+    request.setAttribute(RUNNING, new RunningStatements(), RequestAttributes.SCOPE_REQUEST);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+    var recordings =
+        (List<SqlStatementRecorder.Recording>)
+            request.getAttribute(RECORDINGS, RequestAttributes.SCOPE_REQUEST);
+    if (recordings != null) {
+      request.setAttribute(
+          ATTACHED, SqlStatementRecorder.attach(recordings), RequestAttributes.SCOPE_REQUEST);
+    }
+    if (request.getAttribute(RUNNING, RequestAttributes.SCOPE_REQUEST)
+        instanceof RunningStatements running) {
+      running.bind();
+    }
+  }
+
+  @Override
+  public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+    if (request.getAttribute(RUNNING, RequestAttributes.SCOPE_REQUEST)
+        instanceof RunningStatements running) {
+      running.unbind();
+    }
+    if (request.getAttribute(ATTACHED, RequestAttributes.SCOPE_REQUEST)
+        instanceof SqlStatementRecorder.Attachment attachment) {
+      attachment.close();
+    }
+  }
+
+  @Override
+  public <T> Object handleTimeout(NativeWebRequest request, Callable<T> task) {
+    cancel(request);
+    return RESULT_NONE;
+  }
+
+  @Override
+  public <T> Object handleError(NativeWebRequest request, Callable<T> task, Throwable t) {
+    cancel(request);
+    return RESULT_NONE;
+  }
+
+  private static void cancel(NativeWebRequest request) {
+    if (request.getAttribute(RUNNING, RequestAttributes.SCOPE_REQUEST)
+        instanceof RunningStatements running) {
+      running.cancel();
+    }
+  }
+}
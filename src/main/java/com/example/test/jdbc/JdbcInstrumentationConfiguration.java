@@ -0,0 +1,69 @@
+package com.example.test.jdbc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import javax.sql.DataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Wraps the application datasource with datasource-proxy so every JDBC statement is counted, timed,
+ * attributed to the HTTP request and service method that issued it, visible in flight recordings,
+ * and can be cancelled when an asynchronously processed request is abandoned.
+ */
+@Configuration(proxyBeanMethods = false)
+class JdbcInstrumentationConfiguration {
+
+  @Bean
+  static BeanPostProcessor sqlStatementDataSourceProxy(
+      ObjectProvider<MeterRegistry> meterRegistry,
+      @Value("${application.jdbc.slow-query-threshold:200ms}") Duration slowQueryThreshold) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+          return ProxyDataSourceBuilder.create(dataSource)
+              .name(beanName)
+              .listener(new SqlStatementListener(meterRegistry, slowQueryThreshold))
+              .listener(new StatementCancellationListener())
+              .listener(new SqlStatementEventListener())
+              .build();
+        }
+        return bean;
+      }
+    };
+  }
+
+  @Bean
+  FilterRegistrationBean<SqlStatementMetricsFilter> sqlStatementMetricsFilter(
+      MeterRegistry meterRegistry) {
+    var registration =
+        new FilterRegistrationBean<>(new SqlStatementMetricsFilter(meterRegistry));
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+    return registration;
+  }
+
+  @Bean
+  ServiceSqlStatementAspect serviceSqlStatementAspect(MeterRegistry meterRegistry) {
+    return new ServiceSqlStatementAspect(meterRegistry);
+  }
+
+  @Bean
+  WebMvcConfigurer asyncStatementConfigurer() {
+    return new WebMvcConfigurer() {
+      @Override
+      public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new AsyncStatementInterceptor());
+      }
+    };
+  }
+}
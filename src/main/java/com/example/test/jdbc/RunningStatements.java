@@ -0,0 +1,97 @@
+package com.example.test.jdbc;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Statements executing on the thread that processes one request. When the request is abandoned
+ * (client disconnected, deadline passed) another thread cancels them, so the database stops working
+ * on a result nobody will read and the pooled connection is released right away.
+ *
+ * <p>Cancelling before {@link #bind()} or between statements is allowed. A statement starting after
+ * the cancellation is refused with a {@link CancellationException} instead of being sent to the
+ * database. Drivers also ignore a cancel that reaches a statement tracked but not yet executing, so
+ * the cancel is repeated every {@value #RECANCEL_INTERVAL_MILLIS} ms until no statement is left.
+ */
+@Slf4j
+final class RunningStatements {
+
+  private static final ThreadLocal<RunningStatements> CURRENT = new ThreadLocal<>();
+  private static final long RECANCEL_INTERVAL_MILLIS = 50;
+  private static final ScheduledExecutorService RECANCELLER =
+      Executors.newSingleThreadScheduledExecutor(
+          task -> {
+            Thread thread = new Thread(task, "statement-recanceller");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private final Set<Statement> statements = ConcurrentHashMap.newKeySet();
+  private volatile boolean cancelled;
+
+  /** Tracks the statements executed on the current thread until {@link #unbind()}. */
+  void bind() {
+    CURRENT.set(this);
+  }
+
+  void unbind() {
+    if (CURRENT.get() == this) {
+      CURRENT.remove();
+      statements.clear();
+    }
+  }
+
+  void cancel() {
+    cancelled = true;
+    cancelRunning();
+  }
+
+  boolean isRunning() {
+    return !statements.isEmpty();
+  }
+
+  static void started(Statement statement) {
+    RunningStatements current = CURRENT.get();
+    if (current != null) {
+      if (current.cancelled) {
+        throw new CancellationException("Request was abandoned, statement not executed");
+      }
+      current.statements.add(statement);
+      if (current.cancelled) {
+        cancel(statement);
+      }
+    }
+  }
+
+  static void finished(Statement statement) {
+    RunningStatements current = CURRENT.get();
+    if (current != null) {
+      current.statements.remove(statement);
+    }
+  }
+
+  private void cancelRunning() {
+    if (statements.isEmpty()) {
+      return;
+    }
+    for (Statement statement : statements) {
+      cancel(statement);
+    }
+    RECANCELLER.schedule(this::cancelRunning, RECANCEL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  private static void cancel(Statement statement) {
+    try {
+      statement.cancel();
+    } catch (SQLException e) {
+      log.debug("Failed to cancel statement", e);
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package com.example.test.jdbc;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import net.ttddyy.dsproxy.QueryType;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+
+/**
+ * Records the number of JDBC statements each {@code @Service} method executed. Runs outside the
+ * transaction interceptor so statements flushed on commit are attributed to the method too.
+ */
+@Aspect
+@RequiredArgsConstructor
+class ServiceSqlStatementAspect implements Ordered {
+
+  private final MeterRegistry meterRegistry;
+
+  @Override
+  public int getOrder() {
+    return Ordered.HIGHEST_PRECEDENCE;
+  }
+
+  @Around("@within(org.springframework.stereotype.Service)")
+  public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+    try (var recording = SqlStatementRecorder.start()) {
+      try {
+        return joinPoint.proceed();
+      } finally {
+        String service = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+        for (QueryType type : QueryType.values()) {
+          DistributionSummary.builder("service.jdbc.statements")
+              .description("JDBC statements executed per service method call")
+              .tag("service", service)
+              .tag("method", method)
+              .tag("type", type.name())
+              .register(meterRegistry)
+              .record(recording.count(type));
+        }
+      }
+    }
+  }
+}
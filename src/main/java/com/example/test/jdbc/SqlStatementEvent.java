@@ -0,0 +1,32 @@
+package com.example.test.jdbc;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event spanning one JDBC execution. The JDK has no JDBC events of its own, so
+ * without it a recording shows a slow statement only as a socket read or a parked thread.
+ */
+@Name("com.example.jdbc.Statement")
+@Label("JDBC Statement")
+@Description("Statement executed through the application datasource")
+@Category({"User API", "JDBC"})
+@StackTrace(false)
+class SqlStatementEvent extends Event {
+
+  @Label("Type")
+  String type;
+
+  @Label("SQL")
+  String sql;
+
+  @Label("Batch Size")
+  int batchSize;
+
+  @Label("Succeeded")
+  boolean succeeded;
+}
@@ -0,0 +1,44 @@
+package com.example.test.jdbc;
+
+import java.util.List;
+import jdk.jfr.EventType;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+
+/**
+ * Emits a {@link SqlStatementEvent} per execution while a flight recording has the event enabled.
+ * Otherwise it only checks the event type's flag.
+ */
+class SqlStatementEventListener implements QueryExecutionListener {
+
+  private static final EventType EVENT_TYPE = EventType.getEventType(SqlStatementEvent.class);
+  private static final String EVENT = SqlStatementEventListener.class.getName() + ".event";
+
+  @Override
+  public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    if (EVENT_TYPE.isEnabled()) {
+      var event = new SqlStatementEvent();
+      event.begin();
+      execInfo.addCustomValue(EVENT, event);
+    }
+  }
+
+  @Override
+  public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    var event = execInfo.getCustomValue(EVENT, SqlStatementEvent.class);
+    if (event == null) {
+      return;
+    }
+    event.end();
+    if (event.shouldCommit()) {
+      String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+      event.type = QueryUtils.getQueryType(sql).name();
+      event.sql = sql;
+      event.batchSize = execInfo.isBatch() ? execInfo.getBatchSize() : 0;
+      event.succeeded = execInfo.isSuccess();
+      event.commit();
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package com.example.test.jdbc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.StatementType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import org.springframework.beans.factory.ObjectProvider;
+
+/** Counts and times every statement, feeds the thread's recordings and logs slow statements. */
+@Slf4j
+class SqlStatementListener implements QueryExecutionListener {
+
+  private final ObjectProvider<MeterRegistry> meterRegistry;
+  private final long slowQueryThresholdMillis;
+
+  SqlStatementListener(ObjectProvider<MeterRegistry> meterRegistry, Duration slowQueryThreshold) {
+    this.meterRegistry = meterRegistry;
+    this.slowQueryThresholdMillis = slowQueryThreshold.toMillis();
+  }
+
+  @Override
+  public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {}
+
+  @Override
+  public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    long elapsedMillis = execInfo.getElapsedTime();
+    MeterRegistry registry = meterRegistry.getIfAvailable();
+    for (QueryInfo queryInfo : queryInfoList) {
+      QueryType type = QueryUtils.getQueryType(queryInfo.getQuery());
+      int statements =
+          execInfo.isBatch() && execInfo.getStatementType() != StatementType.STATEMENT
+              ? Math.max(1, queryInfo.getParametersList().size())
+              : 1;
+      SqlStatementRecorder.record(type, statements, elapsedMillis);
+      if (registry != null) {
+        Timer.builder("jdbc.statements")
+            .description("Executed JDBC statements")
+            .tag("type", type.name())
+            .register(registry)
+            .record(elapsedMillis, TimeUnit.MILLISECONDS);
+      }
+    }
+    if (elapsedMillis >= slowQueryThresholdMillis) {
+      log.warn(
+          "Slow SQL statement took {} ms: {}",
+          elapsedMillis,
+          queryInfoList.stream().map(QueryInfo::getQuery).toList());
+    }
+  }
+}
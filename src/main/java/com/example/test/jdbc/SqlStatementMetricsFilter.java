@@ -0,0 +1,76 @@
+package com.example.test.jdbc;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import lombok.RequiredArgsConstructor;
+import net.ttddyy.dsproxy.QueryType;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Records the number of JDBC statements each HTTP request executed, per statement type. For
+ * asynchronously processed requests the statements are counted on the worker thread too (see
+ * {@link AsyncStatementInterceptor}) and recorded once the request completes.
+ */
+@RequiredArgsConstructor
+class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+  private final MeterRegistry meterRegistry;
+
+  @Override
+  protected void doFilterInternal(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull FilterChain filterChain)
+      throws ServletException, IOException {
+    SqlStatementRecorder.Recording recording;
+    try (var active = SqlStatementRecorder.start()) {
+      recording = active;
+      filterChain.doFilter(request, response);
+    }
+    if (isAsyncStarted(request)) {
+      request
+          .getAsyncContext()
+          .addListener(
+              new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent event) {
+                  record(request, recording);
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) {}
+
+                @Override
+                public void onError(AsyncEvent event) {}
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {}
+              });
+    } else {
+      record(request, recording);
+    }
+  }
+
+  private void record(HttpServletRequest request, SqlStatementRecorder.Recording recording) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+    for (QueryType type : QueryType.values()) {
+      DistributionSummary.builder("http.server.requests.jdbc.statements")
+          .description("JDBC statements executed per HTTP request")
+          .tag("method", request.getMethod())
+          .tag("uri", uri)
+          .tag("type", type.name())
+          .register(meterRegistry)
+          .record(recording.count(type));
+    }
+  }
+}
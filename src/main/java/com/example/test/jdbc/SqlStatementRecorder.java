@@ -0,0 +1,107 @@
+package com.example.test.jdbc;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import net.ttddyy.dsproxy.QueryType;
+
+/**
+ * Thread-bound recordings of executed JDBC statements. Recordings nest, so an HTTP request and the
+ * service method it calls each see the statements executed on the current thread while they are
+ * open. Statements run on other threads (e.g. parallel sub-queries) are not attributed, unless
+ * the recordings are explicitly {@link #attach attached} to that thread.
+ */
+final class SqlStatementRecorder {
+
+  private static final ThreadLocal<Deque<Recording>> ACTIVE = new ThreadLocal<>();
+
+  private SqlStatementRecorder() {}
+
+  static Recording start() {
+    Deque<Recording> active = ACTIVE.get();
+    if (active == null) {
+      active = new ArrayDeque<>();
+      ACTIVE.set(active);
+    }
+    var recording = new Recording();
+    active.push(recording);
+    return recording;
+  }
+
+  /** Recordings open on the current thread. */
+  static List<Recording> active() {
+    Deque<Recording> active = ACTIVE.get();
+    return active != null ? List.copyOf(active) : List.of();
+  }
+
+  /**
+   * Continues recordings of another thread on the current one until the attachment is closed. The
+   * other thread must not execute statements meanwhile, recordings are not thread-safe.
+   */
+  static Attachment attach(List<Recording> recordings) {
+    Deque<Recording> active = ACTIVE.get();
+    if (active == null) {
+      active = new ArrayDeque<>();
+      ACTIVE.set(active);
+    }
+    recordings.forEach(active::addLast);
+    return new Attachment(recordings);
+  }
+
+  static void record(QueryType type, int statements, long elapsedMillis) {
+    Deque<Recording> active = ACTIVE.get();
+    if (active != null) {
+      for (Recording recording : active) {
+        recording.counts[type.ordinal()] += statements;
+        recording.elapsedMillis += elapsedMillis;
+      }
+    }
+  }
+
+  static final class Attachment implements AutoCloseable {
+
+    private final List<Recording> recordings;
+
+    private Attachment(List<Recording> recordings) {
+      this.recordings = recordings;
+    }
+
+    @Override
+    public void close() {
+      recordings.forEach(Recording::close);
+    }
+  }
+
+  static final class Recording implements AutoCloseable {
+
+    private final long[] counts = new long[QueryType.values().length];
+    private long elapsedMillis;
+
+    long count(QueryType type) {
+      return counts[type.ordinal()];
+    }
+
+    long total() {
+      long total = 0;
+      for (long count : counts) {
+        total += count;
+      }
+      return total;
+    }
+
+    long elapsedMillis() {
+      return elapsedMillis;
+    }
+
+    @Override
+    public void close() {
+      Deque<Recording> active = ACTIVE.get();
+      if (active != null) {
+        active.remove(this);
+        if (active.isEmpty()) {
+          ACTIVE.remove();
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package com.example.test.jdbc;
+
+import java.util.List;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/** Registers every executing statement with the thread's {@link RunningStatements}. */
+class StatementCancellationListener implements QueryExecutionListener {
+
+  @Override
+  public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    RunningStatements.started(execInfo.getStatement());
+  }
+
+  @Override
+  public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    RunningStatements.finished(execInfo.getStatement());
+  }
+}
@@ -0,0 +1,85 @@
+package com.example.test.jfr;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps a flight recording with the bundled {@code jfr/user-service.jfc} settings running for the
+ * life of the application, holding the last {@code max-age} of events, and writes it to {@code
+ * destination} on shutdown. A recording can be dumped earlier with {@code jcmd <pid> JFR.dump}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.jfr.enabled", havingValue = "true")
+class ContinuousFlightRecording implements SmartLifecycle {
+
+  static final String SETTINGS = "jfr/user-service.jfc";
+
+  private final Recording recording;
+  private volatile boolean running;
+
+  public ContinuousFlightRecording(
+      @Value("${application.jfr.destination:data/user-service.jfr}") Path destination,
+      @Value("${application.jfr.max-age:1h}") Duration maxAge) {
+    this.recording = new Recording(settings());
+    this.recording.setName("user-service");
+    this.recording.setToDisk(true);
+    this.recording.setMaxAge(maxAge);
+    try {
+      Path parent = destination.toAbsolutePath().getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      this.recording.setDestination(destination);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to set flight recording destination", e);
+    }
+  }
+
+  @Override
+  public void start() {
+    recording.start();
+    running = true;
+    log.info("Flight recording started, dumped to {} on shutdown", recording.getDestination());
+  }
+
+  @Override
+  public void stop() {
+    // Stopping writes the recording to its destination
+    recording.stop();
+    recording.close();
+    running = false;
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  static Configuration settings() {
+    try (Reader reader =
+        new InputStreamReader(
+            new ClassPathResource(SETTINGS).getInputStream(), StandardCharsets.UTF_8)) {
+      return Configuration.create(reader);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read " + SETTINGS, e);
+    } catch (ParseException e) {
+      throw new IllegalStateException("Invalid " + SETTINGS, e);
+    }
+  }
+}
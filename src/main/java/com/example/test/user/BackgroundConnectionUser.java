@@ -0,0 +1,11 @@
+package com.example.test.user;
+
+/**
+ * A component taking connections of the Hikari pool on threads of its own, outside of any request.
+ * {@link UserBulkheads} keeps these connections out of the share it gives to requests.
+ */
+interface BackgroundConnectionUser {
+
+  /** The most pooled connections the component holds at once. */
+  int maxConnections();
+}
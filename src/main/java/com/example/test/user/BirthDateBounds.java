@@ -0,0 +1,93 @@
+package com.example.test.user;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Translates ages into exact birth-date bounds, so age filters become plain {@code birth_date}
+ * range predicates. Someone is {@code age} years old today if born between {@link
+ * #earliestBirthDate(int)} and {@link #latestBirthDate(int)} inclusive, matching {@link
+ * java.time.Period#between} (people born on 29 February turn a year older on 1 March in non-leap
+ * years).
+ *
+ * <p>The bounds for every supported age are computed once per day and swapped in on the first
+ * call after midnight.
+ */
+@Component
+class BirthDateBounds {
+
+  static final int MAX_AGE = 150;
+
+  private final Clock clock;
+  private volatile Day day;
+
+  @Autowired
+  BirthDateBounds() {
+    this(Clock.systemDefaultZone());
+  }
+
+  BirthDateBounds(Clock clock) {
+    this.clock = clock;
+  }
+
+  /** Inclusive birth-date range of everyone between {@code minAge} and {@code maxAge} today. */
+  DateRange forAges(int minAge, int maxAge) {
+    Day current = currentDay();
+    return new DateRange(current.earliestBirthDate(maxAge), current.latestBirthDate(minAge));
+  }
+
+  /** Latest birth date of someone who is at least {@code age} years old today. */
+  LocalDate latestBirthDate(int age) {
+    return currentDay().latestBirthDate(age);
+  }
+
+  /** Earliest birth date of someone who is at most {@code age} years old today. */
+  LocalDate earliestBirthDate(int age) {
+    return currentDay().earliestBirthDate(age);
+  }
+
+  LocalDate today() {
+    return LocalDate.now(clock);
+  }
+
+  private Day currentDay() {
+    Day current = day;
+    long now = clock.millis();
+    if (current == null || now >= current.expiresAtMillis()) {
+      current = Day.of(LocalDate.now(clock), clock);
+      day = current;
+    }
+    return current;
+  }
+
+  private record Day(LocalDate[] latest, long expiresAtMillis) {
+
+    static Day of(LocalDate today, Clock clock) {
+      // latest[age] is the day someone turns age today, latest[age + 1] + 1 day the earliest
+      var latest = new LocalDate[MAX_AGE + 2];
+      for (int age = 0; age < latest.length; age++) {
+        latest[age] = today.minusYears(age);
+      }
+      long midnight =
+          today.plusDays(1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+      return new Day(latest, midnight);
+    }
+
+    LocalDate latestBirthDate(int age) {
+      return latest[checkAge(age)];
+    }
+
+    LocalDate earliestBirthDate(int age) {
+      return latest[checkAge(age) + 1].plusDays(1);
+    }
+
+    private static int checkAge(int age) {
+      if (age < 0 || age > MAX_AGE) {
+        throw new IllegalArgumentException("Age must be between 0 and " + MAX_AGE);
+      }
+      return age;
+    }
+  }
+}
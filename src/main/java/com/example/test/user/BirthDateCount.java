@@ -0,0 +1,5 @@
+package com.example.test.user;
+
+import java.time.LocalDate;
+
+record BirthDateCount(LocalDate birthDate, Long count) {}
@@ -0,0 +1,214 @@
+package com.example.test.user;
+
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Row-count estimates for birth-date ranges, so a query can be planned and sized before it runs.
+ * Birth dates are kept in an equi-depth histogram: buckets of consecutive days holding roughly the
+ * same number of users, so dense decades get narrow buckets and sparse ones wide buckets. Within a
+ * bucket users are assumed to be spread evenly over its days.
+ *
+ * <p>The histogram is built from per-day counts on startup. Change events, including those of
+ * other nodes when invalidation is enabled, adjust bucket counts as they commit; once the changes
+ * reach {@code rebuild-fraction} of the users it was built from, the histogram is rebuilt in the
+ * background so bucket depths even out again.
+ */
+@Slf4j
+@Component
+class BirthDateStatistics implements BackgroundConnectionUser {
+
+  private final UserRepository userRepository;
+  private final int buckets;
+  private final double rebuildFraction;
+
+  private final ExecutorService rebuilder =
+      Executors.newSingleThreadExecutor(new CustomizableThreadFactory("user-statistics-"));
+  private final AtomicBoolean rebuilding = new AtomicBoolean();
+  private volatile Histogram histogram = Histogram.empty();
+
+  public BirthDateStatistics(
+      UserRepository userRepository,
+      @Value("${application.range-query.planner.histogram-buckets:64}") int buckets,
+      @Value("${application.range-query.planner.rebuild-fraction:0.2}") double rebuildFraction) {
+    this.userRepository = userRepository;
+    this.buckets = buckets;
+    this.rebuildFraction = rebuildFraction;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  void load() {
+    histogram = Histogram.build(userRepository.countByBirthDate(), buckets);
+  }
+
+  @PreDestroy
+  void close() {
+    rebuilder.shutdownNow();
+  }
+
+  /** The rebuilder reads the per-day counts on one connection. */
+  @Override
+  public int maxConnections() {
+    return 1;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  void onUserChanged(UserChangedEvent event) {
+    Histogram current = histogram;
+    if (event.previousBirthDate() != null) {
+      current.add(event.previousBirthDate(), -1);
+    }
+    if (event.birthDate() != null) {
+      current.add(event.birthDate(), 1);
+    }
+    if (current.changes.sum() >= Math.max(rebuildFraction * current.builtFrom, buckets)
+        && rebuilding.compareAndSet(false, true)) {
+      rebuilder.execute(this::rebuild);
+    }
+  }
+
+  /** Estimated number of users born between {@code from} and {@code to} inclusive. */
+  long estimateBetween(LocalDate from, LocalDate to) {
+    if (from.isAfter(to)) {
+      return 0;
+    }
+    return histogram.estimate(from.toEpochDay(), to.toEpochDay());
+  }
+
+  /** Estimated number of users with a birth date. */
+  long estimateTotal() {
+    return histogram.total();
+  }
+
+  private void rebuild() {
+    try {
+      load();
+    } catch (RuntimeException e) {
+      log.warn("Failed to rebuild birth-date histogram", e);
+    } finally {
+      rebuilding.set(false);
+    }
+  }
+
+  /**
+   * Bucket {@code i} covers the days from {@code firstDays[i]} up to the day before the next
+   * bucket; the first and last bucket stretch to the earliest and latest birth date seen.
+   */
+  private static final class Histogram {
+
+    final long[] firstDays;
+    final LongAdder[] counts;
+    final long builtFrom;
+    final AtomicInteger earliestDay;
+    final AtomicInteger latestDay;
+    final LongAdder changes = new LongAdder();
+
+    private Histogram(
+        long[] firstDays, LongAdder[] counts, long builtFrom, int earliestDay, int latestDay) {
+      this.firstDays = firstDays;
+      this.counts = counts;
+      this.builtFrom = builtFrom;
+      this.earliestDay = new AtomicInteger(earliestDay);
+      this.latestDay = new AtomicInteger(latestDay);
+    }
+
+    static Histogram empty() {
+      return new Histogram(new long[0], new LongAdder[0], 0, 0, 0);
+    }
+
+    static Histogram build(List<BirthDateCount> days, int buckets) {
+      long total = 0;
+      for (BirthDateCount day : days) {
+        total += day.count();
+      }
+      if (total == 0) {
+        return empty();
+      }
+      long depth = Math.max(1, (total + buckets - 1) / buckets);
+      var firstDays = new long[buckets];
+      var counts = new LongAdder[buckets];
+      int used = 0;
+      long inBucket = 0;
+      for (BirthDateCount day : days) {
+        if (inBucket == 0) {
+          firstDays[used] = day.birthDate().toEpochDay();
+        }
+        inBucket += day.count();
+        // Days are never split, so a crowded day may overfill its bucket
+        if (inBucket >= depth && used < buckets - 1) {
+          counts[used++] = adder(inBucket);
+          inBucket = 0;
+        }
+      }
+      if (inBucket > 0) {
+        counts[used++] = adder(inBucket);
+      }
+      return new Histogram(
+          Arrays.copyOf(firstDays, used),
+          Arrays.copyOf(counts, used),
+          total,
+          (int) days.get(0).birthDate().toEpochDay(),
+          (int) days.get(days.size() - 1).birthDate().toEpochDay());
+    }
+
+    void add(LocalDate birthDate, int delta) {
+      changes.increment();
+      if (counts.length == 0) {
+        return;
+      }
+      int day = (int) birthDate.toEpochDay();
+      if (delta > 0) {
+        earliestDay.accumulateAndGet(day, Math::min);
+        latestDay.accumulateAndGet(day, Math::max);
+      }
+      counts[bucketOf(day)].add(delta);
+    }
+
+    long estimate(long from, long to) {
+      double rows = 0;
+      for (int i = 0; i < counts.length; i++) {
+        long first = i == 0 ? Math.min(firstDays[0], earliestDay.get()) : firstDays[i];
+        long last = i == counts.length - 1 ? latestDay.get() : firstDays[i + 1] - 1;
+        if (last < from || first > to) {
+          continue;
+        }
+        long overlap = Math.min(last, to) - Math.max(first, from) + 1;
+        rows += (double) Math.max(0, counts[i].sum()) * overlap / (last - first + 1);
+      }
+      return Math.round(rows);
+    }
+
+    long total() {
+      long total = 0;
+      for (LongAdder count : counts) {
+        total += Math.max(0, count.sum());
+      }
+      return total;
+    }
+
+    private static LongAdder adder(long count) {
+      var adder = new LongAdder();
+      adder.add(count);
+      return adder;
+    }
+
+    private int bucketOf(long day) {
+      int index = Arrays.binarySearch(firstDays, day);
+      return index >= 0 ? index : Math.max(0, -index - 2);
+    }
+  }
+}
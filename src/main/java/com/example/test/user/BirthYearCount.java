@@ -0,0 +1,3 @@
+package com.example.test.user;
+
+record BirthYearCount(Integer year, Long count) {}
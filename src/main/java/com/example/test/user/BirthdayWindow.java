@@ -0,0 +1,75 @@
+package com.example.test.user;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.util.List;
+
+/**
+ * The days from {@code first} to {@code last} inclusive, matched against the {@code
+ * birth_month_day} column ({@code month * 100 + day of month}, e.g. 1231 for 31 December). The key
+ * orders like the calendar, so the window is one key range, or two when it wraps past 31 December.
+ *
+ * <p>As in {@link BirthDateBounds}, people born on 29 February have their birthday on 1 March in
+ * non-leap years.
+ */
+record BirthdayWindow(LocalDate first, LocalDate last) {
+
+  static final int MAX_DAYS = 366;
+
+  private static final int FIRST_KEY = 101;
+  private static final int LAST_KEY = 1231;
+  private static final int LEAP_DAY_KEY = 229;
+  private static final int FIRST_OF_MARCH_KEY = 301;
+
+  /** {@code days} days starting with {@code today}, so 1 is today only and 7 is the coming week. */
+  static BirthdayWindow starting(LocalDate today, int days) {
+    if (days < 1 || days > MAX_DAYS) {
+      throw new IllegalArgumentException("Days must be between 1 and " + MAX_DAYS);
+    }
+    return new BirthdayWindow(today, today.plusDays(days - 1));
+  }
+
+  static int key(LocalDate date) {
+    return date.getMonthValue() * 100 + date.getDayOfMonth();
+  }
+
+  /** Inclusive {@code birth_month_day} ranges covering every birthday in the window. */
+  List<KeyRange> keyRanges() {
+    if (!last.isBefore(first.plusYears(1).minusDays(1))) {
+      return List.of(new KeyRange(FIRST_KEY, LAST_KEY));
+    }
+    int from = key(first);
+    // In a non-leap year 1 March is also the birthday of everyone born on 29 February
+    if (from == FIRST_OF_MARCH_KEY && !first.isLeapYear()) {
+      from = LEAP_DAY_KEY;
+    }
+    int to = key(last);
+    if (first.getYear() == last.getYear()) {
+      return List.of(new KeyRange(from, to));
+    }
+    return List.of(new KeyRange(from, LAST_KEY), new KeyRange(FIRST_KEY, to));
+  }
+
+  /** The birthday of someone born on {@code birthDate} inside the window, or null if none is. */
+  LocalDate birthdayOf(LocalDate birthDate) {
+    for (int year = first.getYear(); year <= last.getYear(); year++) {
+      LocalDate birthday = birthdayIn(birthDate, year);
+      if (!birthday.isBefore(first) && !birthday.isAfter(last) && birthday.isAfter(birthDate)) {
+        return birthday;
+      }
+    }
+    return null;
+  }
+
+  private static LocalDate birthdayIn(LocalDate birthDate, int year) {
+    if (birthDate.getMonth() == Month.FEBRUARY
+        && birthDate.getDayOfMonth() == 29
+        && !Year.isLeap(year)) {
+      return LocalDate.of(year, Month.MARCH, 1);
+    }
+    return birthDate.withYear(year);
+  }
+
+  record KeyRange(int from, int to) {}
+}
@@ -0,0 +1,224 @@
+package com.example.test.user;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Heap-resident user rows keyed by id, held several times smaller than {@link UserDTO}s. Names,
+ * email domains and the comma-separated fragments of addresses repeat across users, so they are
+ * stored once in {@link StringDictionary dictionaries} and rows keep int codes; email local parts
+ * and phone numbers are mostly unique and kept as UTF-8 bytes, and the birth date as an epoch day.
+ * Rows sit in pages indexed by id rather than in a map, as ids are assigned sequentially.
+ *
+ * <p>Reads return {@link UserDTO} views that decode a row each time it is read, so a response is
+ * decoded while it is being serialized instead of being materialized first. Rows are replaced
+ * whole, so a reader sees either the old or the new version of a user.
+ */
+final class CompactUserRows {
+
+  private static final int PAGE_BITS = 12;
+  private static final int PAGE_SIZE = 1 << PAGE_BITS;
+  private static final int NO_BIRTH_DATE = Integer.MIN_VALUE;
+  private static final String ADDRESS_SEPARATOR = ", ";
+
+  private final StringDictionary names;
+  private final StringDictionary domains;
+  private final StringDictionary addressFragments;
+
+  @SuppressWarnings("unchecked")
+  private volatile AtomicReferenceArray<Row>[] pages = new AtomicReferenceArray[0];
+
+  CompactUserRows(int maxDictionarySize) {
+    this.names = new StringDictionary(maxDictionarySize);
+    this.domains = new StringDictionary(maxDictionarySize);
+    this.addressFragments = new StringDictionary(maxDictionarySize);
+  }
+
+  /**
+   * Stores {@code user} in place of any earlier version. Returns {@code false}, leaving no version
+   * stored, if one of its values no longer fits in a full dictionary.
+   */
+  boolean put(UserDTO user) {
+    int id = user.getId();
+    Row row = encode(user);
+    if (row == null) {
+      remove(id);
+      return false;
+    }
+    page(id, true).set(id & (PAGE_SIZE - 1), row);
+    return true;
+  }
+
+  void remove(int id) {
+    AtomicReferenceArray<Row> page = page(id, false);
+    if (page != null) {
+      page.set(id & (PAGE_SIZE - 1), null);
+    }
+  }
+
+  UserDTO get(int id) {
+    Row row = row(id);
+    return row != null ? decode(id, row) : null;
+  }
+
+  /**
+   * Stored users among {@code ids}, in the order of {@code ids}, decoded as they are read. Ids not
+   * stored are appended to {@code missingIds}.
+   */
+  List<UserDTO> findAllById(List<Integer> ids, List<Integer> missingIds) {
+    var found = new int[ids.size()];
+    var rows = new Row[ids.size()];
+    int size = 0;
+    for (Integer id : ids) {
+      Row row = row(id);
+      if (row != null) {
+        found[size] = id;
+        rows[size++] = row;
+      } else {
+        missingIds.add(id);
+      }
+    }
+    return new Users(Arrays.copyOf(found, size), Arrays.copyOf(rows, size));
+  }
+
+  /** Distinct values held by the dictionaries, none of which are dropped until a rebuild. */
+  int dictionarySize() {
+    return names.size() + domains.size() + addressFragments.size();
+  }
+
+  private Row encode(UserDTO user) {
+    int firstName = names.encode(user.getFirstName());
+    int lastName = names.encode(user.getLastName());
+    String email = user.getEmail();
+    byte[] localPart = null;
+    int domain = StringDictionary.NULL;
+    if (email != null) {
+      int at = email.lastIndexOf('@');
+      localPart = (at < 0 ? email : email.substring(0, at)).getBytes(UTF_8);
+      domain = at < 0 ? StringDictionary.NULL : domains.encode(email.substring(at + 1));
+    }
+    int[] address = null;
+    if (user.getAddress() != null) {
+      String[] fragments = user.getAddress().split(ADDRESS_SEPARATOR, -1);
+      address = new int[fragments.length];
+      for (int i = 0; i < fragments.length; i++) {
+        address[i] = addressFragments.encode(fragments[i]);
+        if (address[i] == StringDictionary.FULL) {
+          return null;
+        }
+      }
+    }
+    if (firstName == StringDictionary.FULL
+        || lastName == StringDictionary.FULL
+        || domain == StringDictionary.FULL) {
+      return null;
+    }
+    LocalDate birthDate = user.getBirthDate();
+    return new Row(
+        birthDate != null ? (int) birthDate.toEpochDay() : NO_BIRTH_DATE,
+        firstName,
+        lastName,
+        localPart,
+        domain,
+        address,
+        user.getPhoneNumber() != null ? user.getPhoneNumber().getBytes(UTF_8) : null);
+  }
+
+  private UserDTO decode(int id, Row row) {
+    String email = null;
+    if (row.emailLocalPart() != null) {
+      String localPart = new String(row.emailLocalPart(), UTF_8);
+      email =
+          row.emailDomain() == StringDictionary.NULL
+              ? localPart
+              : localPart + '@' + domains.decode(row.emailDomain());
+    }
+    String address = null;
+    if (row.address() != null) {
+      var joined = new StringBuilder();
+      for (int i = 0; i < row.address().length; i++) {
+        if (i > 0) {
+          joined.append(ADDRESS_SEPARATOR);
+        }
+        joined.append(addressFragments.decode(row.address()[i]));
+      }
+      address = joined.toString();
+    }
+    return new UserDTO(
+        id,
+        email,
+        names.decode(row.firstName()),
+        names.decode(row.lastName()),
+        row.birthDay() != NO_BIRTH_DATE ? LocalDate.ofEpochDay(row.birthDay()) : null,
+        address,
+        row.phoneNumber() != null ? new String(row.phoneNumber(), UTF_8) : null);
+  }
+
+  private Row row(int id) {
+    AtomicReferenceArray<Row> page = page(id, false);
+    return page != null ? page.get(id & (PAGE_SIZE - 1)) : null;
+  }
+
+  private AtomicReferenceArray<Row> page(int id, boolean create) {
+    if (id < 0) {
+      throw new IllegalArgumentException("User id must not be negative: " + id);
+    }
+    int index = id >>> PAGE_BITS;
+    AtomicReferenceArray<Row>[] current = pages;
+    if (index < current.length && current[index] != null) {
+      return current[index];
+    }
+    return create ? newPage(index) : null;
+  }
+
+  private synchronized AtomicReferenceArray<Row> newPage(int index) {
+    AtomicReferenceArray<Row>[] current = pages;
+    if (index >= current.length) {
+      current = Arrays.copyOf(current, Math.max(index + 1, current.length * 2));
+    } else if (current[index] != null) {
+      return current[index];
+    } else {
+      current = current.clone();
+    }
+    current[index] = new AtomicReferenceArray<>(PAGE_SIZE);
+    pages = current;
+    return current[index];
+  }
+
+  /** Codes are {@link StringDictionary#NULL} for null, the birth day is {@link #NO_BIRTH_DATE}. */
+  private record Row(
+      int birthDay,
+      int firstName,
+      int lastName,
+      byte[] emailLocalPart,
+      int emailDomain,
+      int[] address,
+      byte[] phoneNumber) {}
+
+  private final class Users extends AbstractList<UserDTO> implements RandomAccess {
+
+    private final int[] ids;
+    private final Row[] rows;
+
+    private Users(int[] ids, Row[] rows) {
+      this.ids = ids;
+      this.rows = rows;
+    }
+
+    @Override
+    public UserDTO get(int index) {
+      return decode(ids[index], rows[index]);
+    }
+
+    @Override
+    public int size() {
+      return ids.length;
+    }
+  }
+}
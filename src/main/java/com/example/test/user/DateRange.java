@@ -0,0 +1,29 @@
+package com.example.test.user;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/** Inclusive birth-date range. */
+record DateRange(LocalDate from, LocalDate to) {
+
+  /** Sorts ranges and merges overlapping or adjacent ones into disjoint ascending segments. */
+  static List<DateRange> mergeOverlapping(List<DateRange> ranges) {
+    List<DateRange> sorted = new ArrayList<>(ranges);
+    sorted.sort(Comparator.comparing(DateRange::from));
+    List<DateRange> merged = new ArrayList<>(sorted.size());
+    for (DateRange range : sorted) {
+      int last = merged.size() - 1;
+      if (last >= 0 && !range.from().isAfter(merged.get(last).to().plusDays(1))) {
+        DateRange previous = merged.get(last);
+        if (range.to().isAfter(previous.to())) {
+          merged.set(last, new DateRange(previous.from(), range.to()));
+        }
+      } else {
+        merged.add(range);
+      }
+    }
+    return merged;
+  }
+}
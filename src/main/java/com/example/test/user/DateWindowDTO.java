@@ -0,0 +1,22 @@
+package com.example.test.user;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PastOrPresent;
+import java.time.LocalDate;
+
+/** One {@code [from, to]} birth-date window of a multi-window query. */
+record DateWindowDTO(
+    @NotNull(message = "DateFrom is required")
+        @PastOrPresent(message = "DateFrom can't be in future")
+        @JsonFormat(pattern = "dd-MM-yyyy")
+        LocalDate from,
+    @NotNull(message = "DateTo is required")
+        @PastOrPresent(message = "DateTo can't be in future")
+        @JsonFormat(pattern = "dd-MM-yyyy")
+        LocalDate to) {
+
+  DateRange toRange() {
+    return new DateRange(from, to);
+  }
+}
@@ -0,0 +1,90 @@
+package com.example.test.user;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.RowMapperResultSetExtractor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Birth-date range query on plain JDBC, bypassing JPQL parsing, the Hibernate query plan and
+ * result transformation. Rows map straight to {@link UserDTO} by column position and never enter
+ * the persistence context. Statements run on the connection bound to the surrounding transaction.
+ *
+ * <p>SQL strings are constants so H2 reuses the parsed statement from its per-session query cache
+ * (QUERY_CACHE_SIZE) on every pooled connection.
+ */
+@Component
+@ConditionalOnProperty(name = "application.range-query.jdbc.enabled", havingValue = "true")
+class JdbcRangeQuery {
+
+  private static final String SELECT_BETWEEN =
+      """
+        SELECT id, email, first_name, last_name, birth_date, address, phone_number
+        FROM users
+        WHERE birth_date BETWEEN ? AND ?
+      """;
+
+  private static final String SELECT_BETWEEN_ORDERED = SELECT_BETWEEN + " ORDER BY birth_date, id";
+
+  private static final String SELECT_BETWEEN_ASC =
+      SELECT_BETWEEN + " ORDER BY birth_date, id LIMIT ?";
+
+  private static final String SELECT_BETWEEN_DESC =
+      SELECT_BETWEEN + " ORDER BY birth_date DESC, id DESC LIMIT ?";
+
+  private static final RowMapper<UserDTO> USER_DTO_ROW_MAPPER =
+      (rs, rowNum) ->
+          new UserDTO(
+              rs.getInt(1),
+              rs.getString(2),
+              rs.getString(3),
+              rs.getString(4),
+              rs.getObject(5, LocalDate.class),
+              rs.getString(6),
+              rs.getString(7));
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public JdbcRangeQuery(
+      DataSource dataSource,
+      @Value("${application.range-query.jdbc.fetch-size:1000}") int fetchSize) {
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.jdbcTemplate.setFetchSize(fetchSize);
+  }
+
+  /** Users in the range; {@code expectedRows} sizes the result list up front. */
+  public List<UserDTO> findAllByBirthDateBetween(LocalDate from, LocalDate to, int expectedRows) {
+    return jdbcTemplate.query(
+        SELECT_BETWEEN,
+        new RowMapperResultSetExtractor<>(USER_DTO_ROW_MAPPER, expectedRows),
+        Date.valueOf(from),
+        Date.valueOf(to));
+  }
+
+  /** Users in the range ordered by {@code (birthDate, id)}. */
+  public List<UserDTO> findAllByBirthDateBetweenOrdered(
+      LocalDate from, LocalDate to, int expectedRows) {
+    return jdbcTemplate.query(
+        SELECT_BETWEEN_ORDERED,
+        new RowMapperResultSetExtractor<>(USER_DTO_ROW_MAPPER, expectedRows),
+        Date.valueOf(from),
+        Date.valueOf(to));
+  }
+
+  /** Users in the range ordered by {@code (birthDate, id)}, at most {@code limit} of them. */
+  public List<UserDTO> findFirstByBirthDateBetween(
+      LocalDate from, LocalDate to, boolean descending, int limit, int expectedRows) {
+    return jdbcTemplate.query(
+        descending ? SELECT_BETWEEN_DESC : SELECT_BETWEEN_ASC,
+        new RowMapperResultSetExtractor<>(USER_DTO_ROW_MAPPER, expectedRows),
+        Date.valueOf(from),
+        Date.valueOf(to),
+        limit);
+  }
+}
@@ -0,0 +1,64 @@
+package com.example.test.user;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * In-JVM bus for tests and single-node runs. Buses created with {@link #join()} share a network
+ * with the bus they were created from; each delivers to its subscribers on its own thread, in the
+ * order notices were published.
+ */
+class LoopbackInvalidationBus implements UserInvalidationBus {
+
+  private final List<LoopbackInvalidationBus> network;
+  private final List<Consumer<UserInvalidation>> subscribers = new CopyOnWriteArrayList<>();
+  private final ExecutorService inbox =
+      Executors.newSingleThreadExecutor(new CustomizableThreadFactory("user-invalidation-"));
+
+  LoopbackInvalidationBus() {
+    this(new CopyOnWriteArrayList<>());
+  }
+
+  private LoopbackInvalidationBus(List<LoopbackInvalidationBus> network) {
+    this.network = network;
+    network.add(this);
+  }
+
+  /** Another node on the same network as this bus. */
+  LoopbackInvalidationBus join() {
+    return new LoopbackInvalidationBus(network);
+  }
+
+  @Override
+  public void publish(UserInvalidation invalidation) {
+    for (LoopbackInvalidationBus peer : network) {
+      if (peer != this) {
+        peer.deliver(invalidation);
+      }
+    }
+  }
+
+  @Override
+  public void subscribe(Consumer<UserInvalidation> subscriber) {
+    subscribers.add(subscriber);
+  }
+
+  @Override
+  public void close() {
+    network.remove(this);
+    inbox.shutdownNow();
+  }
+
+  private void deliver(UserInvalidation invalidation) {
+    try {
+      inbox.execute(() -> subscribers.forEach(subscriber -> subscriber.accept(invalidation)));
+    } catch (RejectedExecutionException e) {
+      // The peer closed concurrently, like a node going away
+    }
+  }
+}
@@ -0,0 +1,148 @@
+package com.example.test.user;
+
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Splits wide birth-date ranges into sub-ranges of roughly equal row counts (based on a per-year
+ * count) and runs them concurrently, each in its own read-only transaction and pooled connection.
+ * Sub-ranges are disjoint and ascending, so concatenating their ordered results keeps birth-date
+ * order.
+ *
+ * <p>The executor is shared by all requests. It defaults to one thread per core and never exceeds
+ * half of the Hikari pool. A caller keeps the connection of its own transaction while it waits for
+ * the workers, so at most {@code max-concurrent-splits} queries, never more than the pool minus the
+ * workers, are split at once; the workers can then always get connections to finish them. Others
+ * run unsplit on the caller's connection.
+ */
+@Component
+@ConditionalOnProperty(name = "application.range-query.parallel.enabled", havingValue = "true")
+class ParallelRangeQuery implements BackgroundConnectionUser {
+
+  private final UserRepository userRepository;
+  private final TransactionTemplate readOnlyTransaction;
+  private final int parallelism;
+  private final long minRowsToSplit;
+  private final Semaphore splitPermits;
+  private final ThreadPoolExecutor executor;
+
+  public ParallelRangeQuery(
+      UserRepository userRepository,
+      PlatformTransactionManager transactionManager,
+      @Value("${application.range-query.parallel.max-parallelism:0}") int maxParallelism,
+      @Value("${application.range-query.parallel.min-rows-to-split:50000}") long minRowsToSplit,
+      @Value("${application.range-query.parallel.queue-capacity:256}") int queueCapacity,
+      @Value("${application.range-query.parallel.max-concurrent-splits:0}") int maxConcurrentSplits,
+      @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize) {
+    this.userRepository = userRepository;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    int requested =
+        maxParallelism > 0 ? maxParallelism : Runtime.getRuntime().availableProcessors();
+    this.parallelism = Math.max(1, Math.min(requested, maximumPoolSize / 2));
+    this.minRowsToSplit = minRowsToSplit;
+    this.splitPermits =
+        new Semaphore(concurrentSplits(maxConcurrentSplits, parallelism, maximumPoolSize));
+    this.executor =
+        new ThreadPoolExecutor(
+            parallelism,
+            parallelism,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new CustomizableThreadFactory("user-range-query-"),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+  }
+
+  @PreDestroy
+  void close() {
+    executor.shutdownNow();
+  }
+
+  /** Each worker holds one connection while it reads a sub-range. */
+  @Override
+  public int maxConnections() {
+    return parallelism;
+  }
+
+  public List<UserDTO> findAllByBirthDateBetween(LocalDate from, LocalDate to) {
+    List<BirthYearCount> yearCounts = userRepository.countByBirthYearBetween(from, to);
+    List<DateRange> subRanges = split(from, to, yearCounts, parallelism, minRowsToSplit);
+    if (subRanges.size() <= 1 || !splitPermits.tryAcquire()) {
+      return userRepository.findAllByBirthDateBetweenOrdered(from, to);
+    }
+    try {
+      return findAll(subRanges);
+    } finally {
+      splitPermits.release();
+    }
+  }
+
+  private List<UserDTO> findAll(List<DateRange> subRanges) {
+    List<CompletableFuture<List<UserDTO>>> parts =
+        subRanges.stream()
+            .map(
+                range ->
+                    CompletableFuture.supplyAsync(
+                        () ->
+                            readOnlyTransaction.execute(
+                                status ->
+                                    userRepository.findAllByBirthDateBetweenOrdered(
+                                        range.from(), range.to())),
+                        executor))
+            .toList();
+    List<List<UserDTO>> results = parts.stream().map(CompletableFuture::join).toList();
+    List<UserDTO> users = new ArrayList<>(results.stream().mapToInt(List::size).sum());
+    results.forEach(users::addAll);
+    return users;
+  }
+
+  /**
+   * How many queries may be split at once: {@code requested}, or as many as possible when not
+   * positive, but always leaving {@code parallelism} connections of the pool to the workers.
+   */
+  static int concurrentSplits(int requested, int parallelism, int maximumPoolSize) {
+    int available = Math.max(1, maximumPoolSize - parallelism);
+    return requested > 0 ? Math.min(requested, available) : available;
+  }
+
+  /**
+   * Cuts {@code [from, to]} on year boundaries into at most {@code parts} sub-ranges holding about
+   * the same number of rows. Returns the whole range when it holds fewer than {@code minRows}.
+   */
+  static List<DateRange> split(
+      LocalDate from, LocalDate to, List<BirthYearCount> yearCounts, int parts, long minRows) {
+    long total = yearCounts.stream().mapToLong(BirthYearCount::count).sum();
+    if (parts <= 1 || total < minRows || yearCounts.size() <= 1) {
+      return List.of(new DateRange(from, to));
+    }
+    long rowsPerPart = (total + parts - 1) / parts;
+    List<DateRange> ranges = new ArrayList<>(parts);
+    LocalDate start = from;
+    long accumulated = 0;
+    for (int i = 0; i < yearCounts.size() - 1; i++) {
+      accumulated += yearCounts.get(i).count();
+      if (accumulated >= rowsPerPart) {
+        LocalDate end = LocalDate.of(yearCounts.get(i).year(), 12, 31);
+        ranges.add(new DateRange(start, end));
+        start = end.plusDays(1);
+        accumulated = 0;
+      }
+    }
+    ranges.add(new DateRange(start, to));
+    return ranges;
+  }
+}
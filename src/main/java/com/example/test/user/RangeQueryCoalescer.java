@@ -0,0 +1,93 @@
+package com.example.test.user;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionTimedOutException;
+
+/**
+ * Single-flight for range queries: while a query for a range is running, callers asking for the
+ * same range wait for it and share its result instead of querying again. Nothing is kept once the
+ * query finishes, so a caller arriving afterwards runs a fresh query and never sees stale data.
+ *
+ * <p>The first caller runs the query on its own thread. {@code query} opens its own transaction,
+ * and callers must not be in one: a caller waiting inside a transaction would hold a pooled
+ * connection for nothing. A failure is rethrown to every caller that shared the query, except when
+ * the first caller's statement was cancelled or ran out of its deadline: that is about the first
+ * caller's request, e.g. its client went away, so the others run the query again, again coalesced
+ * among themselves.
+ */
+@Component
+@ConditionalOnProperty(name = "application.range-query.coalescing.enabled", havingValue = "true")
+class RangeQueryCoalescer {
+
+  private final ConcurrentMap<DateRange, CompletableFuture<List<UserDTO>>> inFlight =
+      new ConcurrentHashMap<>();
+  private final Counter coalesced;
+  private final Counter retried;
+
+  public RangeQueryCoalescer(MeterRegistry meterRegistry) {
+    this.coalesced =
+        Counter.builder("user.range-query.coalesced")
+            .description("Range queries answered by an identical query already in flight")
+            .register(meterRegistry);
+    this.retried =
+        Counter.builder("user.range-query.coalesced.retried")
+            .description("Coalesced range queries run again as the query they shared was cancelled")
+            .register(meterRegistry);
+  }
+
+  /** Result of {@code query} for {@code range}; the returned list is shared and unmodifiable. */
+  public List<UserDTO> execute(DateRange range, Supplier<List<UserDTO>> query) {
+    while (true) {
+      var future = new CompletableFuture<List<UserDTO>>();
+      CompletableFuture<List<UserDTO>> running = inFlight.putIfAbsent(range, future);
+      if (running == null) {
+        return lead(range, future, query);
+      }
+      coalesced.increment();
+      try {
+        return await(running);
+      } catch (QueryTimeoutException | TransactionTimedOutException e) {
+        retried.increment();
+      }
+    }
+  }
+
+  private List<UserDTO> lead(
+      DateRange range, CompletableFuture<List<UserDTO>> future, Supplier<List<UserDTO>> query) {
+    // Removed before it completes, so a caller woken by a cancellation retries with a new query
+    // instead of finding the failed one again
+    List<UserDTO> users;
+    try {
+      users = Collections.unmodifiableList(query.get());
+    } catch (RuntimeException | Error e) {
+      inFlight.remove(range, future);
+      future.completeExceptionally(e);
+      throw e;
+    }
+    inFlight.remove(range, future);
+    future.complete(users);
+    return users;
+  }
+
+  private static List<UserDTO> await(CompletableFuture<List<UserDTO>> running) {
+    try {
+      return running.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+}
@@ -0,0 +1,122 @@
+package com.example.test.user;
+
+import com.example.test.exception.ResultTooLargeException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Picks how a birth-date range query runs from the number of users {@link BirthDateStatistics}
+ * expects it to return, before anything is sent to the database:
+ *
+ * <ul>
+ *   <li>sharded storage and a ready snapshot always serve the range, the snapshot by slicing
+ *       memory;
+ *   <li>an unlimited range expected to hold at least {@code min-rows-to-split} users is split
+ *       across connections, smaller ones skip the per-year count the split needs;
+ *   <li>otherwise the range is read off the birth-date index, over plain JDBC when enabled.
+ * </ul>
+ *
+ * <p>A range expected to return more than {@code max-rows} users is rejected up front, and the
+ * estimate sizes result lists so they are not regrown while rows stream in.
+ */
+@Component
+class RangeQueryPlanner {
+
+  /** Caps pre-sizing, so an estimate far off the real count cannot allocate a huge array. */
+  static final int MAX_INITIAL_CAPACITY = 1 << 16;
+
+  private final BirthDateStatistics birthDateStatistics;
+  private final boolean sharded;
+  private final UserSnapshotStore userSnapshotStore;
+  private final boolean parallel;
+  private final boolean jdbc;
+  private final long minRowsToSplit;
+  private final long maxRows;
+
+  public RangeQueryPlanner(
+      BirthDateStatistics birthDateStatistics,
+      Optional<ShardedUserStore> shardedUserStore,
+      Optional<UserSnapshotStore> userSnapshotStore,
+      Optional<ParallelRangeQuery> parallelRangeQuery,
+      Optional<JdbcRangeQuery> jdbcRangeQuery,
+      @Value("${application.range-query.parallel.min-rows-to-split:50000}") long minRowsToSplit,
+      @Value("${application.range-query.planner.max-rows:0}") long maxRows) {
+    this.birthDateStatistics = birthDateStatistics;
+    this.sharded = shardedUserStore.isPresent();
+    this.userSnapshotStore = userSnapshotStore.orElse(null);
+    this.parallel = parallelRangeQuery.isPresent();
+    this.jdbc = jdbcRangeQuery.isPresent();
+    this.minRowsToSplit = minRowsToSplit;
+    this.maxRows = maxRows;
+  }
+
+  /** Plan for users born from {@code from} to {@code to}, at most {@code limit} if not null. */
+  Plan plan(LocalDate from, LocalDate to, Integer limit) {
+    long estimated = birthDateStatistics.estimateBetween(from, to);
+    long rows = checkRows(limit != null ? Math.min(estimated, limit) : estimated);
+    return new Plan(strategy(rows, limit), rows);
+  }
+
+  /** Expected users of all {@code ranges} together, rejected like a single range. */
+  long estimate(List<DateRange> ranges) {
+    long rows = 0;
+    for (DateRange range : ranges) {
+      rows += birthDateStatistics.estimateBetween(range.from(), range.to());
+    }
+    return checkRows(rows);
+  }
+
+  /** Expected users with a birthday in the coming {@code days} days. */
+  long estimateBirthdays(int days) {
+    return birthDateStatistics.estimateTotal() * days / 365;
+  }
+
+  /** Initial list capacity for about {@code rows} results. */
+  static int initialCapacity(long rows) {
+    return (int) Math.min(rows, MAX_INITIAL_CAPACITY);
+  }
+
+  private long checkRows(long rows) {
+    if (maxRows > 0 && rows > maxRows) {
+      throw new ResultTooLargeException(
+          "Range matches about "
+              + rows
+              + " users, more than "
+              + maxRows
+              + "; narrow it or page through it with sort and limit");
+    }
+    return rows;
+  }
+
+  private Strategy strategy(long rows, Integer limit) {
+    if (sharded) {
+      return Strategy.SHARDED;
+    }
+    if (userSnapshotStore != null && userSnapshotStore.isReady()) {
+      return Strategy.SNAPSHOT;
+    }
+    // A limited query reads k rows off the index, splitting it across connections won't help
+    if (parallel && limit == null && rows >= minRowsToSplit) {
+      return Strategy.PARALLEL;
+    }
+    return jdbc ? Strategy.STREAMING : Strategy.INDEXED;
+  }
+
+  enum Strategy {
+    SHARDED,
+    SNAPSHOT,
+    PARALLEL,
+    STREAMING,
+    INDEXED
+  }
+
+  record Plan(Strategy strategy, long estimatedRows) {
+
+    int initialCapacity() {
+      return RangeQueryPlanner.initialCapacity(estimatedRows);
+    }
+  }
+}
@@ -0,0 +1,208 @@
+package com.example.test.user;
+
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Stores users across birth-year shards. Writes go through the id directory on the primary
+ * datasource first, so a failing shard write rolls the directory back with the caller's
+ * transaction.
+ *
+ * <p>Shard writes commit on their own, before the caller's transaction. There is no two-phase
+ * commit; instead each shard write registers its undo, run if the caller's transaction rolls back
+ * for any reason (deadline, change log, commit failure). Until then other requests already see the
+ * shard write, and range queries, which scan shards without the directory, may serve a user whose
+ * create is about to roll back. An undo that fails, or a commit whose outcome is unknown, leaves
+ * the shard out of step with the directory and is logged as an error.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.sharding.enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+class ShardedUserStore {
+
+  private final UserShards shards;
+  private final UserShardEntryRepository userShardEntryRepository;
+  private final ExecutorService scatterExecutor;
+
+  public ShardedUserStore(
+      ShardingProperties shardingProperties, UserShardEntryRepository userShardEntryRepository) {
+    this.shards = new UserShards(shardingProperties);
+    this.userShardEntryRepository = userShardEntryRepository;
+    this.scatterExecutor = Executors.newFixedThreadPool(shards.size());
+  }
+
+  @PreDestroy
+  void close() {
+    scatterExecutor.shutdownNow();
+    shards.close();
+  }
+
+  @Transactional(propagation = Propagation.MANDATORY)
+  public User insert(User user) {
+    UserShard shard = shards.shardFor(user.getBirthDate());
+    UserShardEntry entry =
+        userShardEntryRepository.save(
+            UserShardEntry.builder().shardIndex(shard.index()).email(user.getEmail()).build());
+    user.setId(entry.getId());
+    shard.insert(user);
+    onRollback(() -> shard.delete(user.getId()));
+    return user;
+  }
+
+  public Optional<User> findById(Integer id) {
+    return userShardEntryRepository
+        .findById(id)
+        .flatMap(entry -> shards.get(entry.getShardIndex()).findById(id));
+  }
+
+  /** Finds the shard of every id in the directory, then asks those shards in parallel. */
+  public List<UserDTO> findAllById(List<Integer> ids) {
+    Map<Integer, List<Integer>> idsByShard = new HashMap<>();
+    for (UserShardEntry entry : userShardEntryRepository.findAllById(ids)) {
+      idsByShard
+          .computeIfAbsent(entry.getShardIndex(), index -> new ArrayList<>())
+          .add(entry.getId());
+    }
+    List<CompletableFuture<List<UserDTO>>> parts =
+        idsByShard.entrySet().stream()
+            .map(
+                shardIds ->
+                    CompletableFuture.supplyAsync(
+                        () -> shards.get(shardIds.getKey()).findAllById(shardIds.getValue()),
+                        scatterExecutor))
+            .toList();
+    List<UserDTO> users = new ArrayList<>(ids.size());
+    for (CompletableFuture<List<UserDTO>> part : parts) {
+      users.addAll(part.join());
+    }
+    return users;
+  }
+
+  /** Moves the row to another shard when the new birth year falls outside its current one. */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void update(User user) {
+    UserShardEntry entry = userShardEntryRepository.findById(user.getId()).orElseThrow();
+    UserShard current = shards.get(entry.getShardIndex());
+    UserShard target = shards.shardFor(user.getBirthDate());
+    entry.setShardIndex(target.index());
+    entry.setEmail(user.getEmail());
+    userShardEntryRepository.saveAndFlush(entry);
+    User previous = current.findById(user.getId()).orElseThrow();
+    if (current == target) {
+      current.update(user);
+      onRollback(() -> current.update(previous));
+    } else {
+      // Shard writes commit on their own, so a failed move must not leave the user on both
+      target.insert(user);
+      try {
+        current.delete(user.getId());
+      } catch (RuntimeException e) {
+        try {
+          target.delete(user.getId());
+        } catch (RuntimeException undo) {
+          e.addSuppressed(undo);
+        }
+        throw e;
+      }
+      onRollback(
+          () -> {
+            current.insert(previous);
+            target.delete(previous.getId());
+          });
+    }
+  }
+
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void delete(User user) {
+    UserShardEntry entry = userShardEntryRepository.findById(user.getId()).orElseThrow();
+    userShardEntryRepository.delete(entry);
+    UserShard shard = shards.get(entry.getShardIndex());
+    Optional<User> previous = shard.findById(user.getId());
+    shard.delete(user.getId());
+    previous.ifPresent(row -> onRollback(() -> shard.insert(row)));
+  }
+
+  /** Runs {@code undo} once the caller's transaction has rolled back. */
+  private static void onRollback(Runnable undo) {
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            if (status == STATUS_UNKNOWN) {
+              log.error("Outcome of a transaction with shard writes is unknown, shard not undone");
+            } else if (status == STATUS_ROLLED_BACK) {
+              try {
+                undo.run();
+              } catch (RuntimeException e) {
+                log.error("Failed to undo a shard write of a rolled back transaction", e);
+              }
+            }
+          }
+        });
+  }
+
+  /** Queries only the shards overlapping the range, in parallel, and merges their sorted rows. */
+  public List<UserDTO> findAllByBirthDateBetween(LocalDate from, LocalDate to) {
+    List<CompletableFuture<List<UserDTO>>> parts =
+        shards.shardsOverlapping(from, to).stream()
+            .map(
+                shard ->
+                    CompletableFuture.supplyAsync(
+                        () -> shard.findAllByBirthDateBetween(from, to), scatterExecutor))
+            .toList();
+    return UserOrdering.mergeSorted(parts.stream().map(CompletableFuture::join).toList());
+  }
+  /**
+   * First {@code limit} users of the range in birth-date order (or its reverse). Each shard
+   * returns at most {@code limit} rows off its {@code (birth_date, id)} index and the merge stops
+   * after {@code limit} users.
+   */
+  public List<UserDTO> findFirstByBirthDateBetween(
+      LocalDate from, LocalDate to, boolean descending, int limit) {
+    List<CompletableFuture<List<UserDTO>>> parts =
+        shards.shardsOverlapping(from, to).stream()
+            .map(
+                shard ->
+                    CompletableFuture.supplyAsync(
+                        () -> shard.findFirstByBirthDateBetween(from, to, descending, limit),
+                        scatterExecutor))
+            .toList();
+    return UserOrdering.mergeSorted(
+        parts.stream().map(CompletableFuture::join).toList(),
+        descending ? UserOrdering.BIRTH_DATE_ORDER.reversed() : UserOrdering.BIRTH_DATE_ORDER,
+        limit);
+  }
+
+  /** Birthday keys don't follow birth years, so every shard is asked, in parallel. */
+  public List<UserDTO> findAllByBirthMonthDayBetween(int from, int to) {
+    List<CompletableFuture<List<UserDTO>>> parts =
+        shards.all().stream()
+            .map(
+                shard ->
+                    CompletableFuture.supplyAsync(
+                        () -> shard.findAllByBirthMonthDayBetween(from, to), scatterExecutor))
+            .toList();
+    List<UserDTO> users = new ArrayList<>();
+    for (CompletableFuture<List<UserDTO>> part : parts) {
+      users.addAll(part.join());
+    }
+    return users;
+  }
+}
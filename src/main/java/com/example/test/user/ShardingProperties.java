@@ -0,0 +1,14 @@
+package com.example.test.user;
+
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Birth-year ranges and connection settings of the user shards. Year ranges are inclusive and must
+ * not overlap; users without a birth date live on the first shard.
+ */
+@ConfigurationProperties("application.sharding")
+record ShardingProperties(boolean enabled, List<Shard> shards) {
+
+  record Shard(String url, String username, String password, int fromYear, int toYear) {}
+}
@@ -0,0 +1,55 @@
+package com.example.test.user;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Assigns each distinct string a small int code, so a value repeated across many rows is held
+ * once. Codes are never reused; once {@code capacity} values are held, new values get {@link
+ * #FULL}. Encoding is serialized, decoding is lock-free: a code is only handed out after its value
+ * is stored, and whatever carries the code is published after that.
+ */
+final class StringDictionary {
+
+  static final int NULL = -1;
+  static final int FULL = -2;
+
+  private final int capacity;
+  private final Map<String, Integer> codes = new HashMap<>();
+  private volatile String[] values = new String[16];
+
+  StringDictionary(int capacity) {
+    this.capacity = capacity;
+  }
+
+  synchronized int encode(String value) {
+    if (value == null) {
+      return NULL;
+    }
+    Integer code = codes.get(value);
+    if (code != null) {
+      return code;
+    }
+    int size = codes.size();
+    if (size >= capacity) {
+      return FULL;
+    }
+    String[] current = values;
+    if (size == current.length) {
+      current = Arrays.copyOf(current, size * 2);
+      values = current;
+    }
+    current[size] = value;
+    codes.put(value, size);
+    return size;
+  }
+
+  String decode(int code) {
+    return code == NULL ? null : values[code];
+  }
+
+  synchronized int size() {
+    return codes.size();
+  }
+}
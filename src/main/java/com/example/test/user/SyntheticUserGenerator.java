@@ -0,0 +1,102 @@
+package com.example.test.user;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator of realistic looking users. Birth dates follow an adult age pyramid
+ * (18 to 90 years, weighted per age band) relative to a reference date, emails are unique per
+ * index and names and addresses vary in length. The same seed, reference date and index always
+ * produce the same user.
+ */
+class SyntheticUserGenerator {
+
+  private static final int[][] AGE_BANDS = {
+    {18, 25, 11}, {25, 35, 17}, {35, 45, 16}, {45, 55, 15}, {55, 65, 15}, {65, 75, 12},
+    {75, 85, 7}, {85, 91, 2}
+  };
+
+  private static final String[] FIRST_NAMES = {
+    "Al", "Ann", "Ivan", "Olha", "Mark", "Sofia", "Taras", "Kateryna", "Bohdan", "Oleksandr",
+    "Anastasiia", "Maximilian", "Yu", "Liam", "Charlotte", "Volodymyr", "Eve", "Dmytro"
+  };
+
+  private static final String[] LAST_NAMES = {
+    "Li", "Kim", "Bondar", "Shevchenko", "Smith", "Kovalenko", "Tkachenko", "Jovar", "Ng",
+    "Hrytsenko", "Montgomery-Smith", "Melnyk", "Boiko", "Kravchenko-Lysenko", "Doe", "Oliinyk"
+  };
+
+  private static final String[] STREETS = {
+    "Main St", "Khreshchatyk", "Shevchenka Ave", "Lesi Ukrainky Blvd", "Oak Rd",
+    "Independence Square", "Hrushevskoho", "Old Mill Lane", "Peremohy Ave"
+  };
+
+  private static final String[] CITIES = {
+    "Kyiv", "Lviv", "Odesa", "Kharkiv", "Dnipro", "Ivano-Frankivsk", "Uzhhorod", "Rivne"
+  };
+
+  private static final String[] DOMAINS = {"gmail.com", "ukr.net", "example.com", "mail.org"};
+
+  private static final int TOTAL_WEIGHT;
+
+  static {
+    int total = 0;
+    for (int[] band : AGE_BANDS) {
+      total += band[2];
+    }
+    TOTAL_WEIGHT = total;
+  }
+
+  private final long seed;
+  private final LocalDate referenceDate;
+
+  SyntheticUserGenerator(long seed, LocalDate referenceDate) {
+    this.seed = seed;
+    this.referenceDate = referenceDate;
+  }
+
+  SyntheticUser generate(long index) {
+    var random = new SplittableRandom(seed ^ (index * 0x9E3779B97F4A7C15L));
+    String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+    String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    String email =
+        firstName.toLowerCase()
+            + '.'
+            + lastName.toLowerCase()
+            + '.'
+            + index
+            + '@'
+            + DOMAINS[random.nextInt(DOMAINS.length)];
+    String address =
+        (1 + random.nextInt(random.nextBoolean() ? 30 : 3000))
+            + " "
+            + STREETS[random.nextInt(STREETS.length)]
+            + ", "
+            + CITIES[random.nextInt(CITIES.length)];
+    String phoneNumber = "+380" + (100_000_000 + random.nextInt(900_000_000));
+    return new SyntheticUser(
+        email, firstName, lastName, birthDate(random), address, phoneNumber);
+  }
+
+  private LocalDate birthDate(SplittableRandom random) {
+    int pick = random.nextInt(TOTAL_WEIGHT);
+    for (int[] band : AGE_BANDS) {
+      pick -= band[2];
+      if (pick < 0) {
+        LocalDate youngest = referenceDate.minusYears(band[0]);
+        LocalDate oldest = referenceDate.minusYears(band[1]).plusDays(1);
+        long days = youngest.toEpochDay() - oldest.toEpochDay();
+        return oldest.plusDays(random.nextLong(days + 1));
+      }
+    }
+    throw new IllegalStateException("Unreachable");
+  }
+
+  record SyntheticUser(
+      String email,
+      String firstName,
+      String lastName,
+      LocalDate birthDate,
+      String address,
+      String phoneNumber) {}
+}
@@ -0,0 +1,215 @@
+package com.example.test.user;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Bulk loads {@link SyntheticUserGenerator} users straight into the {@code users} table on
+ * startup, bypassing JPA and the change log. Rows are loaded in chunks, one transaction each,
+ * either through H2's {@code CSVREAD} from a temporary file ({@link Mode#CSV}, the fastest path)
+ * or through batched prepared statements ({@link Mode#BATCH}, works on any database). By default the
+ * unique email constraint is dropped for the load and rebuilt afterwards, which in H2 is about twice
+ * as fast as maintaining the index row by row.
+ *
+ * <p>Enabled by the {@code synthetic-data} profile. Runs before {@code ApplicationReadyEvent}, so
+ * the change feed and the user snapshot start from the loaded data.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.dataset.enabled", havingValue = "true")
+class SyntheticUserLoader implements ApplicationRunner {
+
+  enum Mode {
+    CSV,
+    BATCH
+  }
+
+  private static final String INSERT_COLUMNS =
+      "INSERT INTO users(email, first_name, last_name, birth_date, address, phone_number) ";
+
+  private static final int JDBC_BATCH_SIZE = 1000;
+
+  private static final String UNIQUE_EMAIL_CONSTRAINTS =
+      """
+        SELECT tc.CONSTRAINT_NAME
+        FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS tc
+        JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE kcu
+          ON kcu.CONSTRAINT_SCHEMA = tc.CONSTRAINT_SCHEMA
+         AND kcu.CONSTRAINT_NAME = tc.CONSTRAINT_NAME
+        WHERE tc.TABLE_NAME = 'USERS'
+          AND tc.CONSTRAINT_TYPE = 'UNIQUE'
+          AND kcu.COLUMN_NAME = 'EMAIL'
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final int users;
+  private final int chunkSize;
+  private final Mode mode;
+  private final boolean deferUniqueIndex;
+  private final SyntheticUserGenerator generator;
+  private long nextIndex;
+
+  public SyntheticUserLoader(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      @Value("${application.dataset.users}") int users,
+      @Value("${application.dataset.chunk-size:200000}") int chunkSize,
+      @Value("${application.dataset.mode:CSV}") Mode mode,
+      @Value("${application.dataset.seed:42}") long seed,
+      @Value("${application.dataset.defer-unique-index:true}") boolean deferUniqueIndex,
+      @Value("${application.sharding.enabled:false}") boolean shardingEnabled) {
+    if (shardingEnabled) {
+      throw new IllegalStateException("Synthetic data loading is not supported with sharding");
+    }
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.users = users;
+    this.chunkSize = chunkSize;
+    this.mode = mode;
+    this.deferUniqueIndex = deferUniqueIndex;
+    this.generator = new SyntheticUserGenerator(seed, LocalDate.now());
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    long start = System.nanoTime();
+    load(users);
+    long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    log.info(
+        "Loaded {} synthetic users in {} ms ({} rows/s) using {}",
+        users,
+        millis,
+        millis > 0 ? users * 1000L / millis : users,
+        mode);
+  }
+
+  /**
+   * Inserts {@code count} generated users. Generator indexes start at the highest user id, which no
+   * earlier load can have reached, so users loaded by a previous run never get their emails again.
+   */
+  synchronized void load(int count) {
+    nextIndex =
+        Math.max(
+            nextIndex,
+            jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM users", Long.class));
+    List<String> constraints =
+        deferUniqueIndex
+            ? jdbcTemplate.queryForList(UNIQUE_EMAIL_CONSTRAINTS, String.class)
+            : List.of();
+    constraints.forEach(name -> jdbcTemplate.execute("ALTER TABLE users DROP CONSTRAINT " + name));
+    try {
+      loadChunks(count);
+    } finally {
+      constraints.forEach(
+          name ->
+              jdbcTemplate.execute("ALTER TABLE users ADD CONSTRAINT " + name + " UNIQUE (email)"));
+    }
+  }
+
+  private void loadChunks(int count) {
+    long end = nextIndex + count;
+    for (long from = nextIndex; from < end; from += chunkSize) {
+      long to = Math.min(from + chunkSize, end);
+      switch (mode) {
+        case CSV -> loadCsvChunk(from, to);
+        case BATCH -> loadBatchChunk(from, to);
+      }
+      nextIndex = to;
+    }
+  }
+
+  private void loadCsvChunk(long from, long to) {
+    Path file = null;
+    try {
+      file = Files.createTempFile("users-", ".csv");
+      try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+        writer.write("EMAIL,FIRST_NAME,LAST_NAME,BIRTH_DATE,ADDRESS,PHONE_NUMBER\n");
+        for (long index = from; index < to; index++) {
+          var user = generator.generate(index);
+          writer.write(user.email());
+          writer.write(',');
+          writer.write(user.firstName());
+          writer.write(',');
+          writer.write(user.lastName());
+          writer.write(',');
+          writer.write(user.birthDate().toString());
+          writer.write(",\"");
+          writer.write(user.address());
+          writer.write("\",");
+          writer.write(user.phoneNumber());
+          writer.write('\n');
+        }
+      }
+      // CSVREAD needs a constant file name, bind parameters are not accepted there
+      String path = file.toAbsolutePath().toString().replace("'", "''");
+      transactionTemplate.executeWithoutResult(
+          status ->
+              jdbcTemplate.update(
+                  INSERT_COLUMNS
+                      + "SELECT EMAIL, FIRST_NAME, LAST_NAME, CAST(BIRTH_DATE AS DATE), ADDRESS,"
+                      + " PHONE_NUMBER FROM CSVREAD('"
+                      + path
+                      + "', NULL, 'charset=UTF-8')"));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      if (file != null) {
+        try {
+          Files.deleteIfExists(file);
+        } catch (IOException e) {
+          log.warn("Could not delete {}", file, e);
+        }
+      }
+    }
+  }
+
+  private void loadBatchChunk(long from, long to) {
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          for (long batchFrom = from; batchFrom < to; batchFrom += JDBC_BATCH_SIZE) {
+            long batchStart = batchFrom;
+            int size = (int) Math.min(JDBC_BATCH_SIZE, to - batchFrom);
+            jdbcTemplate.batchUpdate(
+                INSERT_COLUMNS + "VALUES (?, ?, ?, ?, ?, ?)",
+                new BatchPreparedStatementSetter() {
+                  @Override
+                  public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    var user = generator.generate(batchStart + i);
+                    ps.setString(1, user.email());
+                    ps.setString(2, user.firstName());
+                    ps.setString(3, user.lastName());
+                    ps.setDate(4, Date.valueOf(user.birthDate()));
+                    ps.setString(5, user.address());
+                    ps.setString(6, user.phoneNumber());
+                  }
+
+                  @Override
+                  public int getBatchSize() {
+                    return size;
+                  }
+                });
+          }
+        });
+  }
+}
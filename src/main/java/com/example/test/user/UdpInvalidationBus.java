@@ -0,0 +1,116 @@
+package com.example.test.user;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends each notice as one datagram to every configured peer. Datagrams are small enough never to
+ * be fragmented, and a lost one is picked up by the relay's reconciliation with the change log, so
+ * nothing is acknowledged or retried here.
+ *
+ * <p>Datagrams are only accepted from the addresses of the configured peers, so the bus should be
+ * bound to an interface only they can reach. The source port is not checked, being no harder to
+ * forge than the address.
+ */
+@Slf4j
+class UdpInvalidationBus implements UserInvalidationBus {
+
+  private final DatagramChannel channel;
+  private final List<InetSocketAddress> peers;
+  private final Set<InetAddress> peerAddresses;
+  private final List<Consumer<UserInvalidation>> subscribers = new CopyOnWriteArrayList<>();
+
+  UdpInvalidationBus(InetSocketAddress bindAddress, List<InetSocketAddress> peers) {
+    this.peers = List.copyOf(peers);
+    this.peerAddresses =
+        this.peers.stream()
+            .map(InetSocketAddress::getAddress)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toUnmodifiableSet());
+    try {
+      this.channel = DatagramChannel.open().bind(bindAddress);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to bind invalidation bus to " + bindAddress, e);
+    }
+    Thread receiver = new Thread(this::receive, "user-invalidation");
+    receiver.setDaemon(true);
+    receiver.start();
+  }
+
+  InetSocketAddress localAddress() {
+    try {
+      return (InetSocketAddress) channel.getLocalAddress();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void publish(UserInvalidation invalidation) {
+    ByteBuffer datagram = invalidation.encode();
+    for (InetSocketAddress peer : peers) {
+      try {
+        channel.send(datagram.duplicate(), peer);
+      } catch (IOException e) {
+        log.debug("Failed to send user invalidation to {}", peer, e);
+      }
+    }
+  }
+
+  @Override
+  public void subscribe(Consumer<UserInvalidation> subscriber) {
+    subscribers.add(subscriber);
+  }
+
+  @Override
+  public void close() {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      log.debug("Failed to close invalidation bus", e);
+    }
+  }
+
+  private void receive() {
+    // One byte more than a notice, so longer datagrams are not silently truncated into one
+    ByteBuffer buffer = ByteBuffer.allocate(UserInvalidation.ENCODED_SIZE + 1);
+    while (channel.isOpen()) {
+      try {
+        buffer.clear();
+        SocketAddress sender = channel.receive(buffer);
+        if (!(sender instanceof InetSocketAddress address)
+            || !peerAddresses.contains(address.getAddress())) {
+          log.debug("Ignoring datagram from {}, which is not a peer", sender);
+          continue;
+        }
+        UserInvalidation invalidation;
+        try {
+          invalidation = UserInvalidation.decode(buffer.flip());
+        } catch (IllegalArgumentException e) {
+          log.debug("Ignoring datagram from {}: {}", sender, e.getMessage());
+          continue;
+        }
+        for (Consumer<UserInvalidation> subscriber : subscribers) {
+          subscriber.accept(invalidation);
+        }
+      } catch (ClosedChannelException e) {
+        return;
+      } catch (IOException | RuntimeException e) {
+        log.warn("Failed to handle user invalidation", e);
+      }
+    }
+  }
+}
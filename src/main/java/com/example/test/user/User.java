@@ -5,6 +5,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import java.time.LocalDate;
 import lombok.AllArgsConstructor;
@@ -19,7 +20,12 @@ import lombok.Setter;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "users")
+@Table(
+    name = "users",
+    indexes = {
+      @Index(name = "idx_users_birth_date_id", columnList = "birth_date, id"),
+      @Index(name = "idx_users_birth_month_day_id", columnList = "birth_month_day, id")
+    })
 class User {
 
   @Id
@@ -38,6 +44,15 @@ class User {
   @Column(name = "birth_date")
   private LocalDate birthDate;
 
+  /** {@code month * 100 + day} of the birth date, computed by the database, see BirthdayWindow. */
+  @Column(
+      name = "birth_month_day",
+      insertable = false,
+      updatable = false,
+      columnDefinition =
+          "INTEGER GENERATED ALWAYS AS (MONTH(birth_date) * 100 + DAY_OF_MONTH(birth_date))")
+  private Integer birthMonthDay;
+
   private String address;
 
   @Column(name = "phone_number")
@@ -0,0 +1,8 @@
+package com.example.test.user;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDate;
+
+/** A user whose birthday falls in the requested window, with the date and the age they turn. */
+record UserBirthdayDTO(
+    @JsonFormat(pattern = "dd-MM-yyyy") LocalDate birthday, int age, UserDTO user) {}
@@ -0,0 +1,215 @@
+package com.example.test.user;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Separates user API traffic into {@link UserWorkload}s, each with a bounded number of requests
+ * running at once and a bounded number waiting. Reads run on a dedicated executor per workload,
+ * chosen by the number of users they are estimated to return; writes stay on the request thread
+ * and wait for one of a fixed number of permits. A request arriving while its workload is full is
+ * rejected with a {@link TaskRejectedException} rather than queued without bound, so a burst of
+ * heavy queries is turned away while interactive reads and writes keep being served.
+ *
+ * <p>The thread and permit counts are each workload's share of the Hikari pool: a running request
+ * holds one connection of its own. The pool is also used by {@link BackgroundConnectionUser}s, such
+ * as the workers a split range query waits for and the threads rebuilding statistics, caches and
+ * snapshots, so their connections are kept out of the shares. What remains must leave at least one
+ * connection to requests outside any workload, such as the change feed.
+ */
+@Component
+@ConditionalOnProperty(name = "application.bulkheads.enabled", havingValue = "true")
+class UserBulkheads {
+
+  private final BirthDateStatistics birthDateStatistics;
+  private final BirthDateBounds birthDateBounds;
+  private final long heavyRows;
+  private final ThreadPoolTaskExecutor interactive;
+  private final ThreadPoolTaskExecutor heavy;
+  private final Semaphore writePermits;
+  private final int writeQueueCapacity;
+  private final Duration writeMaxWait;
+  private final AtomicInteger waitingWrites = new AtomicInteger();
+  private final Map<UserWorkload, Counter> rejected = new EnumMap<>(UserWorkload.class);
+
+  public UserBulkheads(
+      BirthDateStatistics birthDateStatistics,
+      BirthDateBounds birthDateBounds,
+      MeterRegistry meterRegistry,
+      @Value("${application.bulkheads.heavy-rows:10000}") long heavyRows,
+      @Value("${application.bulkheads.interactive.threads:4}") int interactiveThreads,
+      @Value("${application.bulkheads.interactive.queue-capacity:200}") int interactiveQueue,
+      @Value("${application.bulkheads.write.threads:2}") int writeThreads,
+      @Value("${application.bulkheads.write.queue-capacity:100}") int writeQueueCapacity,
+      @Value("${application.bulkheads.write.max-wait:2s}") Duration writeMaxWait,
+      @Value("${application.bulkheads.heavy.threads:2}") int heavyThreads,
+      @Value("${application.bulkheads.heavy.queue-capacity:4}") int heavyQueue,
+      @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize,
+      List<BackgroundConnectionUser> backgroundConnectionUsers) {
+    int background =
+        backgroundConnectionUsers.stream().mapToInt(BackgroundConnectionUser::maxConnections).sum();
+    int reserved = interactiveThreads + writeThreads + heavyThreads + background;
+    if (reserved >= maximumPoolSize) {
+      throw new IllegalStateException(
+          "Bulkheads and background work ("
+              + background
+              + ") reserve "
+              + reserved
+              + " connections, leaving none of the "
+              + maximumPoolSize
+              + " pooled connections to other requests");
+    }
+    this.birthDateStatistics = birthDateStatistics;
+    this.birthDateBounds = birthDateBounds;
+    this.heavyRows = heavyRows;
+    for (UserWorkload workload : UserWorkload.values()) {
+      rejected.put(
+          workload,
+          Counter.builder("user.bulkhead.rejected")
+              .description("Requests turned away because their workload was full")
+              .tag("workload", workload.name().toLowerCase())
+              .register(meterRegistry));
+    }
+    this.interactive =
+        newExecutor(UserWorkload.INTERACTIVE, interactiveThreads, interactiveQueue, meterRegistry);
+    this.heavy = newExecutor(UserWorkload.HEAVY, heavyThreads, heavyQueue, meterRegistry);
+    this.writePermits = new Semaphore(writeThreads, true);
+    this.writeQueueCapacity = writeQueueCapacity;
+    this.writeMaxWait = writeMaxWait;
+    gauges(
+        UserWorkload.WRITE,
+        waitingWrites::get,
+        () -> writeThreads - writePermits.availablePermits(),
+        meterRegistry);
+  }
+
+  @PreDestroy
+  void close() {
+    interactive.shutdown();
+    heavy.shutdown();
+  }
+
+  UserWorkload classify(long estimatedRows) {
+    return estimatedRows > heavyRows ? UserWorkload.HEAVY : UserWorkload.INTERACTIVE;
+  }
+
+  AsyncTaskExecutor executor(UserWorkload workload) {
+    return switch (workload) {
+      case INTERACTIVE -> interactive;
+      case HEAVY -> heavy;
+      case WRITE -> throw new IllegalArgumentException("Writes run on the request thread");
+    };
+  }
+
+  AsyncTaskExecutor forRange(LocalDate from, LocalDate to, Integer limit) {
+    long rows = birthDateStatistics.estimateBetween(from, to);
+    return executor(classify(limit != null ? Math.min(rows, limit) : rows));
+  }
+
+  AsyncTaskExecutor forAges(int minAge, int maxAge) {
+    DateRange range = birthDateBounds.forAges(minAge, maxAge);
+    return executor(classify(birthDateStatistics.estimateBetween(range.from(), range.to())));
+  }
+
+  AsyncTaskExecutor forWindows(List<DateRange> windows) {
+    long rows = 0;
+    for (DateRange window : windows) {
+      rows += birthDateStatistics.estimateBetween(window.from(), window.to());
+    }
+    return executor(classify(rows));
+  }
+
+  AsyncTaskExecutor forBirthdays(int days) {
+    return executor(classify(birthDateStatistics.estimateTotal() * days / 365));
+  }
+
+  AsyncTaskExecutor forLookup(int ids) {
+    return executor(classify(ids));
+  }
+
+  /** Runs {@code write} once a write permit is free, waiting at most {@code write.max-wait}. */
+  <T> T write(Supplier<T> write) {
+    if (waitingWrites.incrementAndGet() > writeQueueCapacity) {
+      waitingWrites.decrementAndGet();
+      throw rejectWrite();
+    }
+    boolean acquired;
+    try {
+      acquired = writePermits.tryAcquire(writeMaxWait.toNanos(), TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw rejectWrite();
+    } finally {
+      waitingWrites.decrementAndGet();
+    }
+    if (!acquired) {
+      throw rejectWrite();
+    }
+    try {
+      return write.get();
+    } finally {
+      writePermits.release();
+    }
+  }
+
+  private TaskRejectedException rejectWrite() {
+    rejected.get(UserWorkload.WRITE).increment();
+    return new TaskRejectedException("Too many writes in progress");
+  }
+
+  private ThreadPoolTaskExecutor newExecutor(
+      UserWorkload workload, int threads, int queueCapacity, MeterRegistry meterRegistry) {
+    var executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(threads);
+    executor.setMaxPoolSize(threads);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setThreadNamePrefix("user-" + workload.name().toLowerCase() + "-");
+    Counter rejections = rejected.get(workload);
+    executor.setRejectedExecutionHandler(
+        (task, pool) -> {
+          rejections.increment();
+          throw new RejectedExecutionException("Too many " + workload + " requests in progress");
+        });
+    executor.initialize();
+    gauges(
+        workload,
+        () -> executor.getThreadPoolExecutor().getQueue().size(),
+        executor::getActiveCount,
+        meterRegistry);
+    return executor;
+  }
+
+  private static void gauges(
+      UserWorkload workload,
+      Supplier<Number> queued,
+      Supplier<Number> active,
+      MeterRegistry meterRegistry) {
+    String tag = workload.name().toLowerCase();
+    Gauge.builder("user.bulkhead.queued", queued)
+        .description("Requests waiting for their workload")
+        .tag("workload", tag)
+        .register(meterRegistry);
+    Gauge.builder("user.bulkhead.active", active)
+        .description("Requests of the workload running now")
+        .tag("workload", tag)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,55 @@
+package com.example.test.user;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Append-only change log (outbox) row. Written in the same transaction as the user write it
+ * describes, so {@code seq} gives downstream replicas a cursor to sync from.
+ */
+@Builder
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "user_changes")
+class UserChange {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long seq;
+
+  @Column(name = "user_id", nullable = false)
+  private Integer userId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "change_type", nullable = false, length = 16)
+  private Type type;
+
+  @Column(name = "previous_birth_date")
+  private LocalDate previousBirthDate;
+
+  @Column(name = "birth_date")
+  private LocalDate birthDate;
+
+  @Column(name = "changed_at", nullable = false)
+  private Instant changedAt;
+
+  enum Type {
+    CREATED,
+    UPDATED,
+    DELETED
+  }
+}
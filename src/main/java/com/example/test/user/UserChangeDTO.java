@@ -0,0 +1,13 @@
+package com.example.test.user;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.Instant;
+import java.time.LocalDate;
+
+record UserChangeDTO(
+    Long seq,
+    Integer userId,
+    UserChange.Type type,
+    @JsonFormat(pattern = "dd-MM-yyyy") LocalDate previousBirthDate,
+    @JsonFormat(pattern = "dd-MM-yyyy") LocalDate birthDate,
+    Instant changedAt) {}
@@ -0,0 +1,171 @@
+package com.example.test.user;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.async.DeferredResult;
+
+/**
+ * Serves the change log to downstream replicas. Long-polling callers park a {@link DeferredResult}
+ * instead of a servlet thread and are released once a write with a newer sequence commits.
+ *
+ * <p>Sequence values are assigned on insert, so under concurrent writes a lower sequence may
+ * commit after a higher one. A page therefore ends before the first gap in the sequence, and a
+ * consumer advancing its cursor to the last change served never skips one committed late. A gap
+ * still open after {@code gap-timeout} is taken to be a rolled back write and read past; this
+ * relies on writes having a deadline shorter than that. A long poll that only finds changes behind
+ * such a gap stays parked until the missing change commits or the gap is old enough to read past.
+ */
+@Component
+class UserChangeFeed {
+
+  private final UserChangeRepository userChangeRepository;
+  private final TaskExecutor taskExecutor;
+  private final int maxLimit;
+  private final Duration maxWait;
+  private final Duration gapTimeout;
+
+  private final AtomicLong latestSeq = new AtomicLong();
+  private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+  private final ScheduledExecutorService gapTimer =
+      Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("user-change-gap-"));
+  private final AtomicLong gapWakeAt = new AtomicLong();
+
+  public UserChangeFeed(
+      UserChangeRepository userChangeRepository,
+      @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+      @Value("${application.changes.max-limit:1000}") int maxLimit,
+      @Value("${application.changes.max-wait:30s}") Duration maxWait,
+      @Value("${application.changes.gap-timeout:30s}") Duration gapTimeout) {
+    this.userChangeRepository = userChangeRepository;
+    this.taskExecutor = taskExecutor;
+    this.maxLimit = maxLimit;
+    this.maxWait = maxWait;
+    this.gapTimeout = gapTimeout;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  void initLatestSeq() {
+    latestSeq.accumulateAndGet(userChangeRepository.findLatestSeq(), Math::max);
+  }
+
+  @PreDestroy
+  void close() {
+    gapTimer.shutdownNow();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  void onUserChanged(UserChangedEvent event) {
+    latestSeq.accumulateAndGet(event.seq(), Math::max);
+    wakeWaiters();
+  }
+
+  public DeferredResult<List<UserChangeDTO>> poll(long since, int limit, Duration wait) {
+    int pageSize = Math.min(limit, maxLimit);
+    Duration timeout = wait.compareTo(maxWait) > 0 ? maxWait : wait;
+    var result = new DeferredResult<List<UserChangeDTO>>(timeout.toMillis(), List.of());
+    if (timeout.isZero()) {
+      result.setResult(read(since, pageSize));
+      return result;
+    }
+    long latest = latestSeq.get();
+    if (latest > since) {
+      List<UserChangeDTO> changes = read(since, pageSize);
+      if (!changes.isEmpty()) {
+        result.setResult(changes);
+        return result;
+      }
+    }
+    var waiter = new Waiter(since, pageSize, result);
+    result.onCompletion(() -> waiters.remove(waiter));
+    park(waiter, latest);
+    return result;
+  }
+
+  /** Parks {@code waiter} until a change newer than {@code latest} commits or a gap settles. */
+  private void park(Waiter waiter, long latest) {
+    waiters.add(waiter);
+    if (waiter.result().isSetOrExpired()) {
+      waiters.remove(waiter);
+    } else if (latestSeq.get() > latest) {
+      // A commit may have landed between the read and the registration
+      wakeWaiters();
+    }
+  }
+
+  private void wakeWaiters() {
+    long latest = latestSeq.get();
+    for (Waiter waiter : waiters) {
+      if (waiter.since() < latest && waiters.remove(waiter)) {
+        taskExecutor.execute(
+            () -> {
+              try {
+                List<UserChangeDTO> changes = read(waiter.since(), waiter.limit());
+                if (changes.isEmpty()) {
+                  park(waiter, latest);
+                } else {
+                  waiter.result().setResult(changes);
+                }
+              } catch (RuntimeException e) {
+                waiter.result().setErrorResult(e);
+              }
+            });
+      }
+    }
+  }
+
+  /**
+   * The changes up to the first sequence missing after {@code since}, unless the change following
+   * it was made before {@code settledBefore}: the missing one has then had time to commit.
+   */
+  static List<UserChangeDTO> committedPrefix(
+      long since, List<UserChangeDTO> changes, Instant settledBefore) {
+    long expected = since + 1;
+    for (int i = 0; i < changes.size(); i++) {
+      UserChangeDTO change = changes.get(i);
+      if (change.seq() != expected && change.changedAt().isAfter(settledBefore)) {
+        return changes.subList(0, i);
+      }
+      expected = change.seq() + 1;
+    }
+    return changes;
+  }
+
+  private List<UserChangeDTO> read(long since, int limit) {
+    List<UserChangeDTO> changes =
+        userChangeRepository.findAllBySeqAfter(since, PageRequest.ofSize(limit));
+    List<UserChangeDTO> committed =
+        committedPrefix(since, changes, Instant.now().minus(gapTimeout));
+    if (committed.isEmpty() && !changes.isEmpty()) {
+      wakeWhenSettled(changes.get(0).changedAt().plus(gapTimeout));
+    }
+    return committed;
+  }
+
+  /** Wakes the waiters stuck behind a gap once it can be read past; once per gap. */
+  private void wakeWhenSettled(Instant settledAt) {
+    long at = settledAt.toEpochMilli();
+    if (gapWakeAt.getAndSet(at) != at) {
+      long delay = Math.max(0, at - System.currentTimeMillis()) + 1;
+      gapTimer.schedule(this::wakeWaiters, delay, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private record Waiter(long since, int limit, DeferredResult<List<UserChangeDTO>> result) {}
+}
@@ -0,0 +1,34 @@
+package com.example.test.user;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+@RequiredArgsConstructor
+class UserChangeLog {
+
+  private final UserChangeRepository userChangeRepository;
+  private final ApplicationEventPublisher eventPublisher;
+
+  /** Must join the caller's transaction so the change row commits or rolls back with the write. */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void append(
+      UserChange.Type type, Integer userId, LocalDate previousBirthDate, LocalDate birthDate) {
+    UserChange change =
+        userChangeRepository.save(
+            UserChange.builder()
+                .userId(userId)
+                .type(type)
+                .previousBirthDate(previousBirthDate)
+                .birthDate(birthDate)
+                .changedAt(Instant.now())
+                .build());
+    eventPublisher.publishEvent(
+        new UserChangedEvent(change.getSeq(), type, userId, previousBirthDate, birthDate));
+  }
+}
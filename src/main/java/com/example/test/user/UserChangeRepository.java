@@ -0,0 +1,27 @@
+package com.example.test.user;
+
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+interface UserChangeRepository extends JpaRepository<UserChange, Long> {
+
+  @Query(
+      """
+        SELECT new com.example.test.user.UserChangeDTO(c.seq, c.userId, c.type, c.previousBirthDate, c.birthDate, c.changedAt)
+        FROM UserChange c
+        WHERE c.seq > :since
+        ORDER BY c.seq
+      """)
+  List<UserChangeDTO> findAllBySeqAfter(@Param("since") long since, Pageable pageable);
+
+  @Query("SELECT DISTINCT c.userId FROM UserChange c WHERE c.seq > :since")
+  List<Integer> findUserIdsChangedAfter(@Param("since") long since);
+
+  @Query("SELECT COALESCE(MAX(c.seq), 0) FROM UserChange c")
+  long findLatestSeq();
+}
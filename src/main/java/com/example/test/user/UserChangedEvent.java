@@ -0,0 +1,15 @@
+package com.example.test.user;
+
+import java.time.LocalDate;
+
+/**
+ * Published within the write tx for every row appended to the change log; listeners are {@code
+ * AFTER_COMMIT}, so they only hear of committed changes. With invalidation enabled, changes
+ * committed on other nodes are published again without a tx.
+ */
+record UserChangedEvent(
+    long seq,
+    UserChange.Type type,
+    Integer userId,
+    LocalDate previousBirthDate,
+    LocalDate birthDate) {}
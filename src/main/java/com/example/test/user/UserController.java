@@ -6,10 +6,25 @@ import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PastOrPresent;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
-import lombok.RequiredArgsConstructor;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
@@ -24,17 +39,60 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
+/**
+ * Read endpoints run as {@link WebAsyncTask}s bounded by {@code application.deadline-seconds}, so
+ * the servlet container notices a request that outlives its deadline or loses its client while the
+ * query is still running, and the statements behind it get cancelled.
+ *
+ * <p>Reads run on the {@link UserReadExecutor}, or with {@code application.bulkheads.enabled} on
+ * the executor of their workload, while writes wait for a write permit, see {@link
+ * UserBulkheads}.
+ */
 @RestController
 @RequestMapping("/users")
-@RequiredArgsConstructor
 @Validated
 class UserController {
 
+  private static final int MAX_WINDOWS = 100;
+  private static final int MAX_LIMIT = 10_000;
+  private static final int MAX_LOOKUP_IDS = 1000;
+
   private final UserService userService;
+  private final UserChangeFeed userChangeFeed;
+  private final ObjectProvider<UserCreateBatcher> userCreateBatcher;
+  private final ObjectProvider<UserBulkheads> userBulkheads;
+  private final UserReadExecutor userReadExecutor;
+  private final long rangeQueryDeadlineMillis;
+  private final long ageQueryDeadlineMillis;
+  private final long windowsQueryDeadlineMillis;
+  private final long lookupDeadlineMillis;
+
+  public UserController(
+      UserService userService,
+      UserChangeFeed userChangeFeed,
+      ObjectProvider<UserCreateBatcher> userCreateBatcher,
+      ObjectProvider<UserBulkheads> userBulkheads,
+      UserReadExecutor userReadExecutor,
+      @Value("${application.deadline-seconds.range-query:10}") long rangeQueryDeadlineSeconds,
+      @Value("${application.deadline-seconds.age-query:10}") long ageQueryDeadlineSeconds,
+      @Value("${application.deadline-seconds.windows-query:15}") long windowsQueryDeadlineSeconds,
+      @Value("${application.deadline-seconds.lookup:10}") long lookupDeadlineSeconds) {
+    this.userService = userService;
+    this.userChangeFeed = userChangeFeed;
+    this.userCreateBatcher = userCreateBatcher;
+    this.userBulkheads = userBulkheads;
+    this.userReadExecutor = userReadExecutor;
+    this.rangeQueryDeadlineMillis = Duration.ofSeconds(rangeQueryDeadlineSeconds).toMillis();
+    this.ageQueryDeadlineMillis = Duration.ofSeconds(ageQueryDeadlineSeconds).toMillis();
+    this.windowsQueryDeadlineMillis = Duration.ofSeconds(windowsQueryDeadlineSeconds).toMillis();
+    this.lookupDeadlineMillis = Duration.ofSeconds(lookupDeadlineSeconds).toMillis();
+  }
 
   @GetMapping(produces = APPLICATION_JSON_VALUE)
-  public ResponseEntity<List<UserDTO>> getAllByDateBetween(
+  public WebAsyncTask<ResponseEntity<List<UserDTO>>> getAllByDateBetween(
       @PastOrPresent(message = "DateFrom can't be in future")
           @DateTimeFormat(pattern = "dd-MM-yyyy")
           @RequestParam("from")
@@ -42,16 +100,121 @@ class UserController {
       @PastOrPresent(message = "DateTo can't be in future")
           @DateTimeFormat(pattern = "dd-MM-yyyy")
           @RequestParam("to")
-          LocalDate to) {
-    return ResponseEntity.status(OK)
-        .contentType(APPLICATION_JSON)
-        .body(userService.getAllByDateBetween(from, to));
+          LocalDate to,
+      @Pattern(
+              regexp = "birthDate(,(asc|desc))?",
+              flags = Pattern.Flag.CASE_INSENSITIVE,
+              message = "Sort must be birthDate,asc or birthDate,desc")
+          @RequestParam(value = "sort", required = false)
+          String sort,
+      @Positive(message = "Limit must be positive")
+          @Max(value = MAX_LIMIT, message = "Limit can't be greater than 10000")
+          @RequestParam(value = "limit", required = false)
+          Integer limit) {
+    Sort.Direction direction = sortDirection(sort);
+    return task(
+        rangeQueryDeadlineMillis,
+        bulkheads -> bulkheads.forRange(from, to, limit),
+        () ->
+            ResponseEntity.status(OK)
+                .contentType(APPLICATION_JSON)
+                .body(userService.getAllByDateBetween(from, to, direction, limit)));
+  }
+
+  @GetMapping(
+      params = {"minAge", "maxAge"},
+      produces = APPLICATION_JSON_VALUE)
+  public WebAsyncTask<ResponseEntity<List<UserDTO>>> getAllByAgeBetween(
+      @PositiveOrZero(message = "MinAge can't be negative")
+          @Max(value = BirthDateBounds.MAX_AGE, message = "MinAge can't be greater than 150")
+          @RequestParam("minAge")
+          int minAge,
+      @PositiveOrZero(message = "MaxAge can't be negative")
+          @Max(value = BirthDateBounds.MAX_AGE, message = "MaxAge can't be greater than 150")
+          @RequestParam("maxAge")
+          int maxAge) {
+    return task(
+        ageQueryDeadlineMillis,
+        bulkheads -> bulkheads.forAges(minAge, maxAge),
+        () ->
+            ResponseEntity.status(OK)
+                .contentType(APPLICATION_JSON)
+                .body(userService.getAllByAgeBetween(minAge, maxAge)));
+  }
+
+  @PostMapping(
+      value = "/windows",
+      consumes = APPLICATION_JSON_VALUE,
+      produces = APPLICATION_JSON_VALUE)
+  public WebAsyncTask<ResponseEntity<List<UserWindowDTO>>> getAllByDateWindows(
+      @RequestBody
+          @NotEmpty(message = "Windows can't be empty")
+          @Size(max = MAX_WINDOWS, message = "No more than 100 windows are allowed")
+          List<@NotNull(message = "Window can't be null") @Valid DateWindowDTO> windows) {
+    List<DateRange> ranges = windows.stream().map(DateWindowDTO::toRange).toList();
+    return task(
+        windowsQueryDeadlineMillis,
+        bulkheads -> bulkheads.forWindows(ranges),
+        () ->
+            ResponseEntity.status(OK)
+                .contentType(APPLICATION_JSON)
+                .body(userService.getAllByDateWindows(ranges)));
+  }
+
+  /** Users by id in request order, with the ids no user has; see {@link UserService#getAllById}. */
+  @PostMapping(
+      value = "/lookup",
+      consumes = APPLICATION_JSON_VALUE,
+      produces = APPLICATION_JSON_VALUE)
+  public WebAsyncTask<ResponseEntity<UserLookupDTO>> getAllById(
+      @RequestBody
+          @NotEmpty(message = "Ids can't be empty")
+          @Size(max = MAX_LOOKUP_IDS, message = "No more than 1000 ids are allowed")
+          List<@NotNull(message = "Id can't be null") Integer> ids) {
+    return task(
+        lookupDeadlineMillis,
+        bulkheads -> bulkheads.forLookup(ids.size()),
+        () ->
+            ResponseEntity.status(OK)
+                .contentType(APPLICATION_JSON)
+                .body(userService.getAllById(ids)));
+  }
+
+  @GetMapping(value = "/birthdays", produces = APPLICATION_JSON_VALUE)
+  public WebAsyncTask<ResponseEntity<List<UserBirthdayDTO>>> getAllWithBirthdayWithin(
+      @Positive(message = "Days must be positive")
+          @Max(value = BirthdayWindow.MAX_DAYS, message = "Days can't be greater than 366")
+          @RequestParam(value = "days", defaultValue = "7")
+          int days,
+      @RequestParam(value = "applyAgeConstraint", defaultValue = "false")
+          boolean applyAgeConstraint) {
+    return task(
+        rangeQueryDeadlineMillis,
+        bulkheads -> bulkheads.forBirthdays(days),
+        () ->
+            ResponseEntity.status(OK)
+                .contentType(APPLICATION_JSON)
+                .body(userService.getAllWithBirthdayWithin(days, applyAgeConstraint)));
+  }
+
+  @GetMapping(value = "/changes", produces = APPLICATION_JSON_VALUE)
+  public DeferredResult<List<UserChangeDTO>> getChangesSince(
+      @PositiveOrZero(message = "Since can't be negative") @RequestParam("since") long since,
+      @Positive(message = "Limit must be positive")
+          @RequestParam(value = "limit", defaultValue = "100")
+          int limit,
+      @PositiveOrZero(message = "Wait can't be negative")
+          @RequestParam(value = "waitSeconds", defaultValue = "0")
+          long waitSeconds) {
+    return userChangeFeed.poll(since, limit, Duration.ofSeconds(waitSeconds));
   }
 
   @PostMapping(consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
   public ResponseEntity<String> add(
       HttpServletRequest request, @Validated(UserDTO.Create.class) @RequestBody UserDTO details) {
-    Integer userId = userService.create(details);
+    UserCreateBatcher batcher = userCreateBatcher.getIfAvailable();
+    Integer userId =
+        write(() -> batcher != null ? batcher.create(details) : userService.create(details));
     return ResponseEntity.status(CREATED)
         .header(HttpHeaders.LOCATION, String.format("%s/%d", request.getRequestURI(), userId))
         .contentType(APPLICATION_JSON)
@@ -61,7 +224,7 @@ class UserController {
   @PutMapping(value = "/{id}", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
   public ResponseEntity<String> fullUpdate(
       @PathVariable Integer id, @Validated(UserDTO.FullUpdate.class) @RequestBody UserDTO details) {
-    userService.update(id, details);
+    write(() -> userService.update(id, details));
     return ResponseEntity.status(OK).contentType(APPLICATION_JSON).build();
   }
 
@@ -71,15 +234,46 @@ class UserController {
       produces = APPLICATION_JSON_VALUE)
   public ResponseEntity<String> partialUpdate(
       @PathVariable Integer id, @Validated(UserDTO.PartialUpdate.class) @RequestBody UserDTO details) {
-    userService.update(id, details);
+    write(() -> userService.update(id, details));
     return ResponseEntity.status(OK).contentType(APPLICATION_JSON).build();
   }
 
   @DeleteMapping(value = "/{id}", produces = APPLICATION_JSON_VALUE)
   public ResponseEntity<String> delete(@PathVariable Integer id) {
-    Integer userId = userService.delete(id);
+    Integer userId = write(() -> userService.delete(id));
     return ResponseEntity.status(OK)
         .contentType(APPLICATION_JSON)
         .body(String.format("User with id <%d> was deleted", userId));
   }
+
+  private <T> WebAsyncTask<T> task(
+      long timeoutMillis,
+      Function<UserBulkheads, AsyncTaskExecutor> executor,
+      Callable<T> callable) {
+    UserBulkheads bulkheads = userBulkheads.getIfAvailable();
+    return bulkheads != null
+        ? new WebAsyncTask<>(timeoutMillis, executor.apply(bulkheads), callable)
+        : new WebAsyncTask<>(timeoutMillis, userReadExecutor.executor(), callable);
+  }
+
+  private <T> T write(Supplier<T> write) {
+    UserBulkheads bulkheads = userBulkheads.getIfAvailable();
+    return bulkheads != null ? bulkheads.write(write) : write.get();
+  }
+
+  private void write(Runnable write) {
+    write(
+        () -> {
+          write.run();
+          return null;
+        });
+  }
+
+  private static Sort.Direction sortDirection(String sort) {
+    if (sort == null) {
+      return null;
+    }
+    int comma = sort.indexOf(',');
+    return comma < 0 ? Sort.Direction.ASC : Sort.Direction.fromString(sort.substring(comma + 1));
+  }
 }
@@ -0,0 +1,195 @@
+package com.example.test.user;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionTimedOutException;
+
+/**
+ * Opt-in group commit for {@code POST /users}. Concurrent creates arriving within {@code
+ * max-delay} (or until {@code max-batch-size} is reached) are inserted by a single flusher thread
+ * in one transaction, so N signups pay for one commit instead of N.
+ *
+ * <p>Age checks run on the caller's thread, so an invalid request never joins a batch. If the batch
+ * transaction fails (e.g. one duplicate email), its entries are retried one by one so that every
+ * caller still gets exactly its own id or its own error.
+ *
+ * <p>A caller waits no longer than the create deadline. A create still queued by then is withdrawn;
+ * one already being committed may still commit, as with any transaction outliving its caller. On
+ * shutdown everything queued is committed and later creates are rejected.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.create-batching.enabled", havingValue = "true")
+class UserCreateBatcher {
+
+  private final UserService userService;
+  private final int maxBatchSize;
+  private final long maxDelayNanos;
+  private final long deadlineNanos;
+  private final DistributionSummary batchSize;
+  private final Timer queueLatency;
+
+  /** Queued by {@link #stop()} to end the flusher once everything ahead of it is committed. */
+  private static final PendingCreate STOP = new PendingCreate(null, 0, null);
+
+  private final BlockingQueue<PendingCreate> queue = new LinkedBlockingQueue<>();
+  private final Thread flusher = new Thread(this::runFlusher, "user-create-batcher");
+  private volatile boolean running = true;
+
+  public UserCreateBatcher(
+      UserService userService,
+      MeterRegistry meterRegistry,
+      @Value("${application.create-batching.max-batch-size:64}") int maxBatchSize,
+      @Value("${application.create-batching.max-delay:5ms}") Duration maxDelay,
+      @Value("${application.deadline-seconds.create:-1}") long deadlineSeconds) {
+    this.userService = userService;
+    this.maxBatchSize = maxBatchSize;
+    this.maxDelayNanos = maxDelay.toNanos();
+    this.deadlineNanos = TimeUnit.SECONDS.toNanos(deadlineSeconds);
+    this.batchSize =
+        DistributionSummary.builder("users.create.batch.size")
+            .description("Number of creates committed together")
+            .register(meterRegistry);
+    this.queueLatency =
+        Timer.builder("users.create.batch.latency")
+            .description("Time a create waits in the batch queue before its commit starts")
+            .register(meterRegistry);
+  }
+
+  @PostConstruct
+  void start() {
+    flusher.setDaemon(true);
+    flusher.start();
+  }
+
+  @PreDestroy
+  void stop() throws InterruptedException {
+    if (!running) {
+      return;
+    }
+    running = false;
+    queue.add(STOP);
+    flusher.join();
+    List<PendingCreate> remaining = new ArrayList<>();
+    queue.drainTo(remaining);
+    if (!remaining.isEmpty()) {
+      flush(remaining);
+    }
+  }
+
+  public Integer create(UserDTO details) {
+    userService.verifyAge(details.getBirthDate());
+    var pending = new PendingCreate(details, System.nanoTime(), new CompletableFuture<>());
+    queue.add(pending);
+    // The queue is drained one last time on stop; a create added after that would never commit
+    if (!running && queue.remove(pending)) {
+      throw new TaskRejectedException("User create batching has stopped");
+    }
+    return await(pending);
+  }
+
+  private Integer await(PendingCreate pending) {
+    try {
+      if (deadlineNanos <= 0) {
+        return pending.result().get();
+      }
+      long waitNanos = deadlineNanos - (System.nanoTime() - pending.enqueuedAt());
+      return pending.result().get(waitNanos, TimeUnit.NANOSECONDS);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new CompletionException(e.getCause());
+    } catch (TimeoutException e) {
+      queue.remove(pending);
+      throw new TransactionTimedOutException("User create was not committed within its deadline");
+    } catch (InterruptedException e) {
+      queue.remove(pending);
+      Thread.currentThread().interrupt();
+      throw new TaskRejectedException("Interrupted while waiting for user create");
+    }
+  }
+
+  /**
+   * Runs until it takes {@link #STOP}. An interrupt only cuts the current batch short: the thread
+   * is the only one committing queued creates, so it must not leave their callers waiting.
+   */
+  private void runFlusher() {
+    boolean stopping = false;
+    while (!stopping) {
+      List<PendingCreate> batch = new ArrayList<>(maxBatchSize);
+      try {
+        PendingCreate first = queue.take();
+        stopping = first == STOP;
+        if (!stopping) {
+          batch.add(first);
+        }
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (!stopping && batch.size() < maxBatchSize) {
+          PendingCreate next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+          if (next == null) {
+            break;
+          }
+          stopping = next == STOP;
+          if (!stopping) {
+            batch.add(next);
+          }
+        }
+      } catch (InterruptedException e) {
+        log.debug("User create batcher interrupted, flushing {} creates", batch.size());
+      }
+      try {
+        if (!batch.isEmpty()) {
+          flush(batch);
+        }
+      } catch (RuntimeException e) {
+        log.error("User create batch flush failed", e);
+        batch.forEach(pending -> pending.result().completeExceptionally(e));
+      }
+    }
+  }
+
+  private void flush(List<PendingCreate> batch) {
+    long flushStart = System.nanoTime();
+    for (PendingCreate pending : batch) {
+      queueLatency.record(flushStart - pending.enqueuedAt(), TimeUnit.NANOSECONDS);
+    }
+    batchSize.record(batch.size());
+    try {
+      List<Integer> ids = userService.createAll(batch.stream().map(PendingCreate::details).toList());
+      for (int i = 0; i < batch.size(); i++) {
+        batch.get(i).result().complete(ids.get(i));
+      }
+    } catch (RuntimeException batchFailure) {
+      log.debug("Batch of {} creates failed, retrying individually", batch.size(), batchFailure);
+      for (PendingCreate pending : batch) {
+        try {
+          pending.result().complete(userService.create(pending.details()));
+        } catch (RuntimeException e) {
+          pending.result().completeExceptionally(e);
+        }
+      }
+    }
+  }
+
+  private record PendingCreate(
+      UserDTO details, long enqueuedAt, CompletableFuture<Integer> result) {}
+}
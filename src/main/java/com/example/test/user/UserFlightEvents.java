@@ -0,0 +1,145 @@
+package com.example.test.user;
+
+import java.time.LocalDate;
+import java.util.List;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.springframework.data.domain.Sort;
+
+/**
+ * JDK Flight Recorder events of the user API, enabled by {@code jfr/user-service.jfc}. Callers
+ * allocate the event, {@code begin()} it and hand the outcome to {@code end(...)}; fields are only
+ * filled in when a recording wants the event, so with no recording running an event costs an
+ * allocation that escape analysis usually removes and a flag check. Stack traces are off: the
+ * fields say which operation ran.
+ */
+final class UserFlightEvents {
+
+  private UserFlightEvents() {}
+
+  @Name("com.example.user.RangeQuery")
+  @Label("User Range Query")
+  @Description("Birth-date range read, -1 result count when it failed")
+  @Category({"User API", "Service"})
+  @StackTrace(false)
+  static final class RangeQuery extends Event {
+
+    @Label("From")
+    String from;
+
+    @Label("To")
+    String to;
+
+    @Label("Sort")
+    String sort;
+
+    @Label("Limit")
+    int limit;
+
+    @Label("Result Count")
+    int resultCount;
+
+    void end(LocalDate from, LocalDate to, Sort.Direction direction, Integer limit, List<?> users) {
+      end();
+      if (shouldCommit()) {
+        this.from = from.toString();
+        this.to = to.toString();
+        this.sort = direction != null ? direction.name() : null;
+        this.limit = limit != null ? limit : 0;
+        this.resultCount = users != null ? users.size() : -1;
+        commit();
+      }
+    }
+  }
+
+  @Name("com.example.user.Write")
+  @Label("User Write")
+  @Description("Create, update or delete of users")
+  @Category({"User API", "Service"})
+  @StackTrace(false)
+  static final class Write extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("User Id")
+    @Description("0 for batch creates")
+    int userId;
+
+    @Label("Users")
+    int users;
+
+    @Label("Succeeded")
+    boolean succeeded;
+
+    void end(UserChange.Type operation, Integer userId, int users, boolean succeeded) {
+      end();
+      if (shouldCommit()) {
+        this.operation = operation.name();
+        this.userId = userId != null ? userId : 0;
+        this.users = users;
+        this.succeeded = succeeded;
+        commit();
+      }
+    }
+  }
+
+  @Name("com.example.user.AgeCheck")
+  @Label("User Age Check")
+  @Category({"User API", "Service"})
+  @StackTrace(false)
+  static final class AgeCheck extends Event {
+
+    @Label("Birth Date")
+    String birthDate;
+
+    @Label("Passed")
+    boolean passed;
+
+    void end(LocalDate birthDate, boolean passed) {
+      end();
+      if (shouldCommit()) {
+        this.birthDate = birthDate.toString();
+        this.passed = passed;
+        commit();
+      }
+    }
+  }
+
+  @Name("com.example.user.Request")
+  @Label("User API Request")
+  @Description("HTTP request handled by the users endpoints, until the response is complete")
+  @Category({"User API", "HTTP"})
+  @StackTrace(false)
+  static final class Request extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("URI Pattern")
+    String uri;
+
+    @Label("Request Size")
+    @DataAmount
+    long requestSize;
+
+    @Label("Status")
+    int status;
+
+    void end(String method, String uri, long requestSize, int status) {
+      end();
+      if (shouldCommit()) {
+        this.method = method;
+        this.uri = uri;
+        this.requestSize = requestSize;
+        this.status = status;
+        commit();
+      }
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package com.example.test.user;
+
+import io.grpc.Grpc;
+import io.grpc.InsecureServerCredentials;
+import io.grpc.Server;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs {@link UserGrpcService} on its own port inside the application, next to the servlet
+ * container. Port 0 picks a free port, see {@link #getPort()}. On shutdown, calls in flight get
+ * {@code shutdown-grace-period} to finish before they are cancelled.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.grpc.enabled", havingValue = "true")
+class UserGrpcServer implements SmartLifecycle {
+
+  private final Server server;
+  private final Duration shutdownGracePeriod;
+  private volatile boolean running;
+
+  public UserGrpcServer(
+      UserGrpcService userGrpcService,
+      @Value("${application.grpc.port:9090}") int port,
+      @Value("${application.grpc.shutdown-grace-period:5s}") Duration shutdownGracePeriod) {
+    this.server =
+        Grpc.newServerBuilderForPort(port, InsecureServerCredentials.create())
+            .addService(userGrpcService)
+            .build();
+    this.shutdownGracePeriod = shutdownGracePeriod;
+  }
+
+  @Override
+  public void start() {
+    try {
+      server.start();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to start gRPC server", e);
+    }
+    running = true;
+    log.info("gRPC server started on port {}", server.getPort());
+  }
+
+  @Override
+  public void stop() {
+    server.shutdown();
+    try {
+      if (!server.awaitTermination(shutdownGracePeriod.toMillis(), TimeUnit.MILLISECONDS)) {
+        server.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      server.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+    running = false;
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  int getPort() {
+    return server.getPort();
+  }
+}
@@ -0,0 +1,299 @@
+package com.example.test.user;
+
+import com.example.test.exception.InvalidDateRangeException;
+import com.example.test.exception.InvalidUserAgeException;
+import com.example.test.exception.ResultTooLargeException;
+import com.example.test.exception.UserNotFoundException;
+import com.example.test.user.grpc.AgeRangeRequest;
+import com.example.test.user.grpc.BirthDateRangeRequest;
+import com.example.test.user.grpc.CreateUserRequest;
+import com.example.test.user.grpc.CreateUserResponse;
+import com.example.test.user.grpc.DateWindow;
+import com.example.test.user.grpc.DateWindowsRequest;
+import com.example.test.user.grpc.DateWindowsResponse;
+import com.example.test.user.grpc.DeleteUserRequest;
+import com.example.test.user.grpc.DeleteUserResponse;
+import com.example.test.user.grpc.UpdateUserRequest;
+import com.example.test.user.grpc.UpdateUserResponse;
+import com.example.test.user.grpc.User;
+import com.example.test.user.grpc.UsersGrpc;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import java.lang.reflect.Method;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * gRPC counterpart of {@link UserController} on top of {@link UserService}. Query parameters are
+ * checked against the constraints declared on the controller methods and user payloads against the
+ * {@link UserDTO} validation groups, so both APIs accept and reject the same requests.
+ *
+ * <p>Errors map to the status code matching the HTTP response: validation and domain errors to
+ * {@code INVALID_ARGUMENT}, missing users to {@code NOT_FOUND}, query and transaction timeouts to
+ * {@code DEADLINE_EXCEEDED}, anything else to {@code INTERNAL}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.grpc.enabled", havingValue = "true")
+class UserGrpcService extends UsersGrpc.UsersImplBase {
+
+  private static final Method GET_ALL_BY_DATE_BETWEEN =
+      controllerMethod(
+          "getAllByDateBetween", LocalDate.class, LocalDate.class, String.class, Integer.class);
+  private static final Method GET_ALL_BY_AGE_BETWEEN =
+      controllerMethod("getAllByAgeBetween", int.class, int.class);
+  private static final Method GET_ALL_BY_DATE_WINDOWS =
+      controllerMethod("getAllByDateWindows", List.class);
+
+  private final UserService userService;
+  private final UserController userController;
+  private final ObjectProvider<UserCreateBatcher> userCreateBatcher;
+  private final Validator validator;
+
+  public UserGrpcService(
+      UserService userService,
+      UserController userController,
+      ObjectProvider<UserCreateBatcher> userCreateBatcher,
+      Validator validator) {
+    this.userService = userService;
+    this.userController = userController;
+    this.userCreateBatcher = userCreateBatcher;
+    this.validator = validator;
+  }
+
+  @Override
+  public void getUsersByBirthDate(
+      BirthDateRangeRequest request, StreamObserver<User> responseObserver) {
+    List<UserDTO> users;
+    try {
+      LocalDate from = requiredDate(request.hasFrom(), request.getFrom(), "DateFrom is required");
+      LocalDate to = requiredDate(request.hasTo(), request.getTo(), "DateTo is required");
+      Sort.Direction direction =
+          switch (request.getSort()) {
+            case SORT_DIRECTION_ASC -> Sort.Direction.ASC;
+            case SORT_DIRECTION_DESC -> Sort.Direction.DESC;
+            default -> null;
+          };
+      Integer limit = request.hasLimit() ? request.getLimit() : null;
+      String sort = direction != null ? "birthDate," + direction.name().toLowerCase() : null;
+      validateParameters(GET_ALL_BY_DATE_BETWEEN, from, to, sort, limit);
+      users = userService.getAllByDateBetween(from, to, direction, limit);
+    } catch (RuntimeException e) {
+      responseObserver.onError(toStatus(e).asRuntimeException());
+      return;
+    }
+    FlowControlledStream.start(users, responseObserver);
+  }
+
+  @Override
+  public void getUsersByAge(AgeRangeRequest request, StreamObserver<User> responseObserver) {
+    List<UserDTO> users;
+    try {
+      validateParameters(GET_ALL_BY_AGE_BETWEEN, request.getMinAge(), request.getMaxAge());
+      users = userService.getAllByAgeBetween(request.getMinAge(), request.getMaxAge());
+    } catch (RuntimeException e) {
+      responseObserver.onError(toStatus(e).asRuntimeException());
+      return;
+    }
+    FlowControlledStream.start(users, responseObserver);
+  }
+
+  @Override
+  public void getUsersByDateWindows(
+      DateWindowsRequest request, StreamObserver<DateWindowsResponse> responseObserver) {
+    respond(
+        responseObserver,
+        () -> {
+          List<DateWindowDTO> windows = new ArrayList<>(request.getWindowsCount());
+          for (DateWindow window : request.getWindowsList()) {
+            windows.add(
+                new DateWindowDTO(
+                    UserProtos.toLocalDate(window.getFrom()),
+                    UserProtos.toLocalDate(window.getTo())));
+          }
+          validateParameters(GET_ALL_BY_DATE_WINDOWS, windows);
+          DateWindowsResponse.Builder response = DateWindowsResponse.newBuilder();
+          for (UserWindowDTO window :
+              userService.getAllByDateWindows(
+                  windows.stream().map(DateWindowDTO::toRange).toList())) {
+            response.addWindows(UserProtos.toProto(window));
+          }
+          return response.build();
+        });
+  }
+
+  @Override
+  public void createUser(
+      CreateUserRequest request, StreamObserver<CreateUserResponse> responseObserver) {
+    respond(
+        responseObserver,
+        () -> {
+          UserDTO details = validated(UserProtos.toDTO(request.getUser()), UserDTO.Create.class);
+          UserCreateBatcher batcher = userCreateBatcher.getIfAvailable();
+          Integer userId = batcher != null ? batcher.create(details) : userService.create(details);
+          return CreateUserResponse.newBuilder().setId(userId).build();
+        });
+  }
+
+  @Override
+  public void updateUser(
+      UpdateUserRequest request, StreamObserver<UpdateUserResponse> responseObserver) {
+    update(request, UserDTO.FullUpdate.class, responseObserver);
+  }
+
+  @Override
+  public void patchUser(
+      UpdateUserRequest request, StreamObserver<UpdateUserResponse> responseObserver) {
+    update(request, UserDTO.PartialUpdate.class, responseObserver);
+  }
+
+  @Override
+  public void deleteUser(
+      DeleteUserRequest request, StreamObserver<DeleteUserResponse> responseObserver) {
+    respond(
+        responseObserver,
+        () -> DeleteUserResponse.newBuilder().setId(userService.delete(request.getId())).build());
+  }
+
+  private void update(
+      UpdateUserRequest request,
+      Class<?> group,
+      StreamObserver<UpdateUserResponse> responseObserver) {
+    respond(
+        responseObserver,
+        () -> {
+          UserDTO details = validated(UserProtos.toDTO(request.getUser()), group);
+          userService.update(request.getId(), details);
+          return UpdateUserResponse.getDefaultInstance();
+        });
+  }
+
+  private void validateParameters(Method method, Object... parameters) {
+    Set<ConstraintViolation<UserController>> violations =
+        validator.forExecutables().validateParameters(userController, method, parameters);
+    if (!violations.isEmpty()) {
+      throw new ConstraintViolationException(violations);
+    }
+  }
+
+  private UserDTO validated(UserDTO details, Class<?> group) {
+    Set<ConstraintViolation<UserDTO>> violations = validator.validate(details, group);
+    if (!violations.isEmpty()) {
+      throw new ConstraintViolationException(violations);
+    }
+    return details;
+  }
+
+  private static LocalDate requiredDate(
+      boolean present, com.example.test.user.grpc.Date date, String message) {
+    LocalDate localDate = present ? UserProtos.toLocalDate(date) : null;
+    if (localDate == null) {
+      throw Status.INVALID_ARGUMENT.withDescription(message).asRuntimeException();
+    }
+    return localDate;
+  }
+
+  private static <T> void respond(StreamObserver<T> responseObserver, Supplier<T> call) {
+    T response;
+    try {
+      response = call.get();
+    } catch (RuntimeException e) {
+      responseObserver.onError(toStatus(e).asRuntimeException());
+      return;
+    }
+    responseObserver.onNext(response);
+    responseObserver.onCompleted();
+  }
+
+  private static Status toStatus(RuntimeException e) {
+    if (e instanceof StatusRuntimeException statusException) {
+      return statusException.getStatus();
+    }
+    if (e instanceof ConstraintViolationException violations) {
+      List<String> messages = new ArrayList<>(violations.getConstraintViolations().size());
+      for (ConstraintViolation<?> violation : violations.getConstraintViolations()) {
+        messages.add(violation.getMessage());
+      }
+      messages.sort(null);
+      return Status.INVALID_ARGUMENT.withDescription(String.join("; ", messages));
+    }
+    if (e instanceof InvalidDateRangeException
+        || e instanceof InvalidUserAgeException
+        || e instanceof ResultTooLargeException) {
+      return Status.INVALID_ARGUMENT.withDescription(e.getMessage());
+    }
+    if (e instanceof DateTimeException) {
+      return Status.INVALID_ARGUMENT.withDescription("Invalid date: " + e.getMessage());
+    }
+    if (e instanceof UserNotFoundException) {
+      return Status.NOT_FOUND.withDescription(e.getMessage());
+    }
+    if (e instanceof QueryTimeoutException || e instanceof TransactionTimedOutException) {
+      return Status.DEADLINE_EXCEEDED.withDescription("Request exceeded its deadline");
+    }
+    log.error("gRPC call failed", e);
+    return Status.INTERNAL.withDescription("Internal error");
+  }
+
+  private static Method controllerMethod(String name, Class<?>... parameterTypes) {
+    Method method = ReflectionUtils.findMethod(UserController.class, name, parameterTypes);
+    if (method == null) {
+      throw new IllegalStateException("UserController." + name + " not found");
+    }
+    return method;
+  }
+
+  /**
+   * Sends users only while the transport is ready to take them and resumes from the call's
+   * on-ready callback, so a slow client holds back the stream instead of growing the outbound
+   * buffer. gRPC runs all callbacks of a call one at a time, so no locking is needed.
+   */
+  private static final class FlowControlledStream implements Runnable {
+
+    private final List<UserDTO> users;
+    private final ServerCallStreamObserver<User> call;
+    private int next;
+    private boolean completed;
+
+    private FlowControlledStream(List<UserDTO> users, ServerCallStreamObserver<User> call) {
+      this.users = users;
+      this.call = call;
+    }
+
+    static void start(List<UserDTO> users, StreamObserver<User> responseObserver) {
+      var call = (ServerCallStreamObserver<User>) responseObserver;
+      var stream = new FlowControlledStream(users, call);
+      call.setOnCancelHandler(() -> stream.completed = true);
+      call.setOnReadyHandler(stream);
+      stream.run();
+    }
+
+    @Override
+    public void run() {
+      while (!completed && next < users.size() && call.isReady()) {
+        call.onNext(UserProtos.toProto(users.get(next++)));
+      }
+      if (!completed && next == users.size()) {
+        completed = true;
+        call.onCompleted();
+      }
+    }
+  }
+}
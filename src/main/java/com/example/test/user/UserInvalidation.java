@@ -0,0 +1,79 @@
+package com.example.test.user;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+
+/**
+ * Compact notice that a user changed on some node, sent over the {@link UserInvalidationBus}. The
+ * change-log sequence is the version: it is assigned by the shared database, so every node orders
+ * changes to the same user the same way no matter in which order the notices arrive.
+ *
+ * <p>Encoded as {@value #ENCODED_SIZE} bytes: a format byte, the sequence, the change type, the
+ * user id and both birth dates as epoch days.
+ */
+record UserInvalidation(
+    long seq,
+    UserChange.Type type,
+    int userId,
+    LocalDate previousBirthDate,
+    LocalDate birthDate) {
+
+  static final int ENCODED_SIZE = 22;
+
+  private static final byte FORMAT = 1;
+  private static final int NO_DATE = Integer.MIN_VALUE;
+
+  static UserInvalidation of(UserChangedEvent event) {
+    return new UserInvalidation(
+        event.seq(), event.type(), event.userId(), event.previousBirthDate(), event.birthDate());
+  }
+
+  static UserInvalidation of(UserChangeDTO change) {
+    return new UserInvalidation(
+        change.seq(),
+        change.type(),
+        change.userId(),
+        change.previousBirthDate(),
+        change.birthDate());
+  }
+
+  UserChangedEvent toEvent() {
+    return new UserChangedEvent(seq, type, userId, previousBirthDate, birthDate);
+  }
+
+  ByteBuffer encode() {
+    return ByteBuffer.allocate(ENCODED_SIZE)
+        .put(FORMAT)
+        .putLong(seq)
+        .put((byte) type.ordinal())
+        .putInt(userId)
+        .putInt(encodeDate(previousBirthDate))
+        .putInt(encodeDate(birthDate))
+        .flip();
+  }
+
+  static UserInvalidation decode(ByteBuffer buffer) {
+    if (buffer.remaining() != ENCODED_SIZE || buffer.get() != FORMAT) {
+      throw new IllegalArgumentException("Not a user invalidation");
+    }
+    long seq = buffer.getLong();
+    int type = buffer.get();
+    if (type < 0 || type >= UserChange.Type.values().length) {
+      throw new IllegalArgumentException("Unknown change type " + type);
+    }
+    return new UserInvalidation(
+        seq,
+        UserChange.Type.values()[type],
+        buffer.getInt(),
+        decodeDate(buffer.getInt()),
+        decodeDate(buffer.getInt()));
+  }
+
+  private static int encodeDate(LocalDate date) {
+    return date != null ? Math.toIntExact(date.toEpochDay()) : NO_DATE;
+  }
+
+  private static LocalDate decodeDate(int epochDay) {
+    return epochDay != NO_DATE ? LocalDate.ofEpochDay(epochDay) : null;
+  }
+}
@@ -0,0 +1,19 @@
+package com.example.test.user;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts {@link UserInvalidation}s between the nodes of a deployment. Delivery is best effort:
+ * notices may be lost, duplicated or reordered, which {@link UserInvalidationRelay} makes up for.
+ * Subscribers are called on a thread of the bus, never on the publishing thread.
+ */
+interface UserInvalidationBus extends AutoCloseable {
+
+  /** Sends {@code invalidation} to every other node; must not block on slow or missing peers. */
+  void publish(UserInvalidation invalidation);
+
+  void subscribe(Consumer<UserInvalidation> subscriber);
+
+  @Override
+  void close();
+}
@@ -0,0 +1,51 @@
+package com.example.test.user;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Picks the {@link UserInvalidationBus} transport named by {@code invalidation.transport}. */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "application.invalidation.enabled", havingValue = "true")
+class UserInvalidationConfiguration {
+
+  @Bean
+  @ConditionalOnProperty(
+      name = "application.invalidation.transport",
+      havingValue = "loopback",
+      matchIfMissing = true)
+  LoopbackInvalidationBus loopbackInvalidationBus() {
+    return new LoopbackInvalidationBus();
+  }
+
+  /**
+   * Peers are {@code host:port} pairs, typically every other node of the deployment. The bus binds
+   * to {@code bind-address}, loopback unless set to the interface the peers reach this node on.
+   */
+  @Bean
+  @ConditionalOnProperty(name = "application.invalidation.transport", havingValue = "udp")
+  UdpInvalidationBus udpInvalidationBus(
+      @Value("${application.invalidation.udp.bind-address:127.0.0.1}") String bindAddress,
+      @Value("${application.invalidation.udp.port:7070}") int port,
+      @Value("${application.invalidation.udp.peers:}") List<String> peers) {
+    return new UdpInvalidationBus(
+        new InetSocketAddress(bindAddress, port),
+        peers.stream()
+            .map(String::strip)
+            .filter(peer -> !peer.isEmpty())
+            .map(UserInvalidationConfiguration::parsePeer)
+            .toList());
+  }
+
+  private static InetSocketAddress parsePeer(String peer) {
+    int separator = peer.lastIndexOf(':');
+    if (separator <= 0) {
+      throw new IllegalArgumentException("Invalidation peer must be host:port, got " + peer);
+    }
+    return new InetSocketAddress(
+        peer.substring(0, separator), Integer.parseInt(peer.substring(separator + 1)));
+  }
+}
@@ -0,0 +1,201 @@
+package com.example.test.user;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps in-process caches and indexes consistent across nodes. Writes committed on this node are
+ * broadcast on the {@link UserInvalidationBus}; notices from other nodes are republished here as
+ * {@link UserChangedEvent}s outside any transaction, so listeners declared with {@code
+ * fallbackExecution} see remote writes just like local ones.
+ *
+ * <p>Each user's last seen change-log sequence is kept, and a notice not newer than it is dropped,
+ * so a reordered or duplicated notice never rolls a listener back to an older state. Listeners
+ * should still invalidate by user id rather than apply the birth-date change as a delta, since a
+ * dropped notice may carry the only mention of an older birth date.
+ *
+ * <p>The bus may lose notices, so the change log is re-read every {@code reconcile-interval},
+ * starting {@code reconcile-overlap} sequences behind the last one read to catch writes that
+ * committed late. Anything already seen is dropped by the same version check. Versions older than
+ * that window are forgotten after each pass, as are notices that old when they arrive: the change
+ * log has already been read past them.
+ *
+ * <p>A notice is only a hint that a change committed, so one claiming a sequence the change log
+ * does not hold yet is rejected rather than recorded as the user's version, where it would shadow
+ * every real change to come.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.invalidation.enabled", havingValue = "true")
+class UserInvalidationRelay implements BackgroundConnectionUser {
+
+  private static final int RECONCILE_PAGE_SIZE = 1000;
+
+  private final UserInvalidationBus bus;
+  private final UserChangeRepository userChangeRepository;
+  private final ApplicationEventPublisher eventPublisher;
+  private final Duration reconcileInterval;
+  private final long reconcileOverlap;
+
+  private final ConcurrentMap<Integer, Long> versions = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService reconciler =
+      Executors.newSingleThreadScheduledExecutor(
+          new CustomizableThreadFactory("user-invalidation-reconciler-"));
+  private final Counter received;
+  private final Counter stale;
+  private final Counter recovered;
+  private final Counter rejected;
+  private final AtomicLong committedSeq = new AtomicLong();
+  private volatile long reconciledSeq;
+  private volatile long forgottenSeq;
+
+  public UserInvalidationRelay(
+      UserInvalidationBus bus,
+      UserChangeRepository userChangeRepository,
+      ApplicationEventPublisher eventPublisher,
+      MeterRegistry meterRegistry,
+      @Value("${application.invalidation.reconcile-interval:5s}") Duration reconcileInterval,
+      @Value("${application.invalidation.reconcile-overlap:1000}") long reconcileOverlap) {
+    this.bus = bus;
+    this.userChangeRepository = userChangeRepository;
+    this.eventPublisher = eventPublisher;
+    this.reconcileInterval = reconcileInterval;
+    this.reconcileOverlap = reconcileOverlap;
+    this.received =
+        Counter.builder("user.invalidation.received")
+            .description("User change notices received from other nodes")
+            .register(meterRegistry);
+    this.stale =
+        Counter.builder("user.invalidation.stale")
+            .description("Notices dropped because the same or a newer change was already seen")
+            .register(meterRegistry);
+    this.recovered =
+        Counter.builder("user.invalidation.recovered")
+            .description("Changes of other nodes found in the change log but not on the bus")
+            .register(meterRegistry);
+    this.rejected =
+        Counter.builder("user.invalidation.rejected")
+            .description("Notices dropped because the change log holds no such sequence yet")
+            .register(meterRegistry);
+    bus.subscribe(this::receive);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  void start() {
+    reconciledSeq = userChangeRepository.findLatestSeq();
+    committedSeq.accumulateAndGet(reconciledSeq, Math::max);
+    long interval = reconcileInterval.toMillis();
+    reconciler.scheduleWithFixedDelay(
+        this::reconcileQuietly, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void close() {
+    reconciler.shutdownNow();
+    bus.close();
+  }
+
+  /** The reconciler reads the change log on one connection. */
+  @Override
+  public int maxConnections() {
+    return 1;
+  }
+
+  /**
+   * Only sees local commits: remote changes are republished outside of a transaction. These are
+   * broadcast even when not newer than the user's version, as reconciliation may have read the
+   * commit from the change log before this listener ran.
+   */
+  @TransactionalEventListener
+  void onUserChanged(UserChangedEvent event) {
+    committedSeq.accumulateAndGet(event.seq(), Math::max);
+    advance(event.userId(), event.seq());
+    bus.publish(UserInvalidation.of(event));
+  }
+
+  void receive(UserInvalidation invalidation) {
+    received.increment();
+    if (!isCommitted(invalidation.seq())) {
+      rejected.increment();
+    } else if (invalidation.seq() <= forgottenSeq || !apply(invalidation)) {
+      stale.increment();
+    }
+  }
+
+  void reconcile() {
+    long start = Math.max(0, reconciledSeq - reconcileOverlap);
+    long since = start;
+    List<UserChangeDTO> changes;
+    do {
+      changes =
+          userChangeRepository.findAllBySeqAfter(since, PageRequest.ofSize(RECONCILE_PAGE_SIZE));
+      for (UserChangeDTO change : changes) {
+        if (apply(UserInvalidation.of(change))) {
+          recovered.increment();
+        }
+        since = change.seq();
+      }
+    } while (changes.size() == RECONCILE_PAGE_SIZE);
+    reconciledSeq = Math.max(reconciledSeq, since);
+    committedSeq.accumulateAndGet(since, Math::max);
+    forgottenSeq = start;
+    versions.values().removeIf(seq -> seq <= start);
+  }
+
+  private void reconcileQuietly() {
+    try {
+      reconcile();
+    } catch (RuntimeException e) {
+      log.warn("Failed to reconcile user invalidations with the change log", e);
+    }
+  }
+
+  /** Looks the change log up again only when {@code seq} is past everything seen so far. */
+  private boolean isCommitted(long seq) {
+    return seq <= committedSeq.get()
+        || seq <= committedSeq.accumulateAndGet(userChangeRepository.findLatestSeq(), Math::max);
+  }
+
+  private boolean apply(UserInvalidation invalidation) {
+    if (!advance(invalidation.userId(), invalidation.seq())) {
+      return false;
+    }
+    eventPublisher.publishEvent(invalidation.toEvent());
+    return true;
+  }
+
+  /** Records {@code seq} as the user's version unless an equal or newer one was already seen. */
+  private boolean advance(int userId, long seq) {
+    while (true) {
+      Long current = versions.putIfAbsent(userId, seq);
+      if (current == null) {
+        return true;
+      }
+      if (current >= seq) {
+        return false;
+      }
+      if (versions.replace(userId, current, seq)) {
+        return true;
+      }
+    }
+  }
+}
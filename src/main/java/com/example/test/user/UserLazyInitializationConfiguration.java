@@ -0,0 +1,19 @@
+package com.example.test.user;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Keeps the beans on the {@code /users} hot path eager when {@code
+ * spring.main.lazy-initialization} is enabled, so only rarely used beans pay on first use.
+ */
+@Configuration(proxyBeanMethods = false)
+class UserLazyInitializationConfiguration {
+
+  @Bean
+  static LazyInitializationExcludeFilter userHotPathBeans() {
+    return LazyInitializationExcludeFilter.forBeanTypes(
+        UserController.class, UserService.class, UserRepository.class);
+  }
+}
@@ -0,0 +1,29 @@
+package com.example.test.user;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Users of a lookup in the order their ids were requested, and the ids that don't exist. */
+record UserLookupDTO(List<UserDTO> users, List<Integer> missingIds) {
+
+  /** Arranges {@code found} in the order of {@code ids}, which must not repeat. */
+  static UserLookupDTO inOrder(List<Integer> ids, List<UserDTO> found) {
+    Map<Integer, UserDTO> byId = new HashMap<>(found.size() * 2);
+    for (UserDTO user : found) {
+      byId.put(user.getId(), user);
+    }
+    List<UserDTO> users = new ArrayList<>(found.size());
+    List<Integer> missingIds = new ArrayList<>();
+    for (Integer id : ids) {
+      UserDTO user = byId.get(id);
+      if (user != null) {
+        users.add(user);
+      } else {
+        missingIds.add(id);
+      }
+    }
+    return new UserLookupDTO(users, missingIds);
+  }
+}
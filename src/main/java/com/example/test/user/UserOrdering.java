@@ -0,0 +1,91 @@
+package com.example.test.user;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/** Helpers for results that are produced in {@code (birthDate, id)} order. */
+final class UserOrdering {
+
+  static final Comparator<UserDTO> BIRTH_DATE_ORDER =
+      Comparator.comparing(UserDTO::getBirthDate).thenComparing(UserDTO::getId);
+
+  private UserOrdering() {}
+
+  /** K-way merge of lists that are each already sorted by {@link #BIRTH_DATE_ORDER}. */
+  static List<UserDTO> mergeSorted(List<List<UserDTO>> sortedParts) {
+    return mergeSorted(sortedParts, BIRTH_DATE_ORDER, Integer.MAX_VALUE);
+  }
+
+  /**
+   * K-way merge of lists that are each already sorted by {@code order}, stopping after {@code
+   * limit} users, so selecting the first k costs O(k log parts) rather than a full merge.
+   */
+  static List<UserDTO> mergeSorted(
+      List<List<UserDTO>> sortedParts, Comparator<UserDTO> order, int limit) {
+    if (sortedParts.size() == 1) {
+      List<UserDTO> part = sortedParts.get(0);
+      return part.size() <= limit ? part : part.subList(0, limit);
+    }
+    int total = sortedParts.stream().mapToInt(List::size).sum();
+    List<UserDTO> merged = new ArrayList<>(Math.min(total, limit));
+    PriorityQueue<PeekingIterator> heads =
+        new PriorityQueue<>(Comparator.comparing(PeekingIterator::peek, order));
+    for (List<UserDTO> part : sortedParts) {
+      if (!part.isEmpty()) {
+        heads.add(new PeekingIterator(part.iterator()));
+      }
+    }
+    while (!heads.isEmpty() && merged.size() < limit) {
+      PeekingIterator head = heads.poll();
+      merged.add(head.next());
+      if (head.hasNext()) {
+        heads.add(head);
+      }
+    }
+    return merged;
+  }
+
+  /**
+   * First {@code limit} users of a list sorted by {@link #BIRTH_DATE_ORDER}, in ascending or
+   * descending order. Only the returned users are copied.
+   */
+  static List<UserDTO> first(List<UserDTO> ascending, boolean descending, int limit) {
+    int size = Math.min(limit, ascending.size());
+    if (!descending) {
+      return ascending.subList(0, size);
+    }
+    List<UserDTO> result = new ArrayList<>(size);
+    for (int i = ascending.size() - 1; i >= ascending.size() - size; i--) {
+      result.add(ascending.get(i));
+    }
+    return result;
+  }
+
+  private static final class PeekingIterator {
+
+    private final Iterator<UserDTO> delegate;
+    private UserDTO next;
+
+    PeekingIterator(Iterator<UserDTO> delegate) {
+      this.delegate = delegate;
+      this.next = delegate.next();
+    }
+
+    UserDTO peek() {
+      return next;
+    }
+
+    boolean hasNext() {
+      return next != null;
+    }
+
+    UserDTO next() {
+      UserDTO current = next;
+      next = delegate.hasNext() ? delegate.next() : null;
+      return current;
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package com.example.test.user;
+
+import com.example.test.user.grpc.Date;
+import com.example.test.user.grpc.User;
+import com.example.test.user.grpc.UserWindow;
+import java.time.LocalDate;
+
+/** Conversions between the protobuf messages of {@code users.proto} and the DTOs. */
+final class UserProtos {
+
+  private UserProtos() {}
+
+  static User toProto(UserDTO user) {
+    User.Builder builder =
+        User.newBuilder()
+            .setId(user.getId())
+            .setEmail(user.getEmail())
+            .setFirstName(user.getFirstName())
+            .setLastName(user.getLastName())
+            .setBirthDate(toProto(user.getBirthDate()));
+    // Protobuf strings can't be null, an unset field reads back as ""
+    if (user.getAddress() != null) {
+      builder.setAddress(user.getAddress());
+    }
+    if (user.getPhoneNumber() != null) {
+      builder.setPhoneNumber(user.getPhoneNumber());
+    }
+    return builder.build();
+  }
+
+  static UserWindow toProto(UserWindowDTO window) {
+    UserWindow.Builder builder =
+        UserWindow.newBuilder().setFrom(toProto(window.from())).setTo(toProto(window.to()));
+    for (UserDTO user : window.users()) {
+      builder.addUsers(toProto(user));
+    }
+    return builder.build();
+  }
+
+  static Date toProto(LocalDate date) {
+    return Date.newBuilder()
+        .setYear(date.getYear())
+        .setMonth(date.getMonthValue())
+        .setDay(date.getDayOfMonth())
+        .build();
+  }
+
+  /** Unset string fields become {@code null} so validation treats them as missing. */
+  static UserDTO toDTO(User user) {
+    return new UserDTO(
+        emptyToNull(user.getEmail()),
+        emptyToNull(user.getFirstName()),
+        emptyToNull(user.getLastName()),
+        user.hasBirthDate() ? toLocalDate(user.getBirthDate()) : null,
+        emptyToNull(user.getAddress()),
+        emptyToNull(user.getPhoneNumber()));
+  }
+
+  /** {@code null} for an unset date; throws {@link java.time.DateTimeException} if invalid. */
+  static LocalDate toLocalDate(Date date) {
+    if (date.getYear() == 0 && date.getMonth() == 0 && date.getDay() == 0) {
+      return null;
+    }
+    return LocalDate.of(date.getYear(), date.getMonth(), date.getDay());
+  }
+
+  private static String emptyToNull(String value) {
+    return value.isEmpty() ? null : value;
+  }
+}
@@ -0,0 +1,13 @@
+package com.example.test.user;
+
+import java.util.List;
+
+/** Range queries that Spring Data cannot derive, implemented by {@link UserRangeRepositoryImpl}. */
+interface UserRangeRepository {
+
+  /**
+   * Users born in any of the given disjoint ranges in one query, ordered by {@code (birthDate,
+   * id)}.
+   */
+  List<UserDTO> findAllByBirthDateInRangesOrdered(List<DateRange> ranges);
+}
@@ -0,0 +1,39 @@
+package com.example.test.user;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import java.util.List;
+
+class UserRangeRepositoryImpl implements UserRangeRepository {
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public List<UserDTO> findAllByBirthDateInRangesOrdered(List<DateRange> ranges) {
+    if (ranges.isEmpty()) {
+      return List.of();
+    }
+    var jpql =
+        new StringBuilder(
+            """
+              SELECT new com.example.test.user.UserDTO(u.id, u.email, u.firstName, u.lastName, u.birthDate, u.address, u.phoneNumber)
+              FROM User u
+              WHERE
+            """);
+    for (int i = 0; i < ranges.size(); i++) {
+      jpql.append(i == 0 ? " " : " OR ")
+          .append("u.birthDate BETWEEN :from")
+          .append(i)
+          .append(" AND :to")
+          .append(i);
+    }
+    jpql.append(" ORDER BY u.birthDate, u.id");
+    TypedQuery<UserDTO> query = entityManager.createQuery(jpql.toString(), UserDTO.class);
+    for (int i = 0; i < ranges.size(); i++) {
+      query.setParameter("from" + i, ranges.get(i).from());
+      query.setParameter("to" + i, ranges.get(i).to());
+    }
+    return query.getResultList();
+  }
+}
@@ -0,0 +1,48 @@
+package com.example.test.user;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Runs the read endpoints while bulkheads are off, and is MVC's default executor for any other
+ * async request. Left to itself MVC would use Boot's {@code applicationTaskExecutor}: 8 threads
+ * shared with the change feed, in front of an unbounded queue. Here a full queue turns the request
+ * away with 503 instead of letting it wait out its deadline.
+ *
+ * <p>Not registered as an {@code Executor} bean, which would replace {@code
+ * applicationTaskExecutor}.
+ */
+@Component
+class UserReadExecutor implements WebMvcConfigurer {
+
+  private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+  public UserReadExecutor(
+      @Value("${application.async.threads:20}") int threads,
+      @Value("${application.async.queue-capacity:200}") int queueCapacity) {
+    executor.setCorePoolSize(threads);
+    executor.setMaxPoolSize(threads);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setThreadNamePrefix("user-read-");
+    executor.initialize();
+  }
+
+  @PreDestroy
+  void close() {
+    executor.shutdown();
+  }
+
+  AsyncTaskExecutor executor() {
+    return executor;
+  }
+
+  @Override
+  public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+    configurer.setTaskExecutor(executor);
+  }
+}
@@ -1,14 +1,16 @@
 package com.example.test.user;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-interface UserRepository extends JpaRepository<User, Integer> {
+interface UserRepository extends JpaRepository<User, Integer>, UserRangeRepository {
 
   @Query(
       """
@@ -18,4 +20,80 @@ interface UserRepository extends JpaRepository<User, Integer> {
         BETWEEN :from AND :to
       """)
   List<UserDTO> findAllByBirthDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+  @Query(
+      """
+        SELECT new com.example.test.user.UserDTO(u.id, u.email, u.firstName, u.lastName, u.birthDate, u.address, u.phoneNumber)
+        FROM User u
+        WHERE u.birthDate
+        BETWEEN :from AND :to
+        ORDER BY u.birthDate, u.id
+      """)
+  List<UserDTO> findAllByBirthDateBetweenOrdered(
+      @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+  /** Ordering and limit come from {@code pageable} and are applied in SQL. */
+  @Query(
+      """
+        SELECT new com.example.test.user.UserDTO(u.id, u.email, u.firstName, u.lastName, u.birthDate, u.address, u.phoneNumber)
+        FROM User u
+        WHERE u.birthDate
+        BETWEEN :from AND :to
+      """)
+  List<UserDTO> findAllByBirthDateBetween(
+      @Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
+
+  @Query(
+      """
+        SELECT new com.example.test.user.BirthYearCount(YEAR(u.birthDate), COUNT(u))
+        FROM User u
+        WHERE u.birthDate
+        BETWEEN :from AND :to
+        GROUP BY YEAR(u.birthDate)
+        ORDER BY YEAR(u.birthDate)
+      """)
+  List<BirthYearCount> countByBirthYearBetween(
+      @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+  @Query(
+      """
+        SELECT new com.example.test.user.BirthDateCount(u.birthDate, COUNT(u))
+        FROM User u
+        WHERE u.birthDate IS NOT NULL
+        GROUP BY u.birthDate
+        ORDER BY u.birthDate
+      """)
+  List<BirthDateCount> countByBirthDate();
+
+  @Query(
+      """
+        SELECT new com.example.test.user.UserDTO(u.id, u.email, u.firstName, u.lastName, u.birthDate, u.address, u.phoneNumber)
+        FROM User u
+        WHERE u.id IN :ids
+        AND u.birthDate BETWEEN :from AND :to
+        ORDER BY u.birthDate, u.id
+      """)
+  List<UserDTO> findAllByIdInAndBirthDateBetween(
+      @Param("ids") Collection<Integer> ids,
+      @Param("from") LocalDate from,
+      @Param("to") LocalDate to);
+
+  /** Users with the given ids in no particular order; callers keep {@code ids} to a chunk size. */
+  @Query(
+      """
+        SELECT new com.example.test.user.UserDTO(u.id, u.email, u.firstName, u.lastName, u.birthDate, u.address, u.phoneNumber)
+        FROM User u
+        WHERE u.id IN :ids
+      """)
+  List<UserDTO> findAllByIdIn(@Param("ids") Collection<Integer> ids);
+
+  /** Users whose {@code birth_month_day} key is in the inclusive range, see BirthdayWindow. */
+  @Query(
+      """
+        SELECT new com.example.test.user.UserDTO(u.id, u.email, u.firstName, u.lastName, u.birthDate, u.address, u.phoneNumber)
+        FROM User u
+        WHERE u.birthMonthDay
+        BETWEEN :from AND :to
+      """)
+  List<UserDTO> findAllByBirthMonthDayBetween(@Param("from") int from, @Param("to") int to);
 }
@@ -0,0 +1,71 @@
+package com.example.test.user;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Emits a {@link UserFlightEvents.Request} for every request {@link UserController} handled,
+ * spanning the whole exchange: asynchronously processed reads end when their response completes,
+ * and the status is the one the exception handlers settled on.
+ */
+@Component
+class UserRequestEventFilter extends OncePerRequestFilter {
+
+  private static final String USERS_PATH = "/users";
+
+  @Override
+  protected void doFilterInternal(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull FilterChain filterChain)
+      throws ServletException, IOException {
+    var event = new UserFlightEvents.Request();
+    if (!event.isEnabled()) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+    event.begin();
+    filterChain.doFilter(request, response);
+    if (isAsyncStarted(request)) {
+      request
+          .getAsyncContext()
+          .addListener(
+              new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent asyncEvent) {
+                  end(event, request, response);
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent asyncEvent) {}
+
+                @Override
+                public void onError(AsyncEvent asyncEvent) {}
+
+                @Override
+                public void onStartAsync(AsyncEvent asyncEvent) {}
+              });
+    } else {
+      end(event, request, response);
+    }
+  }
+
+  private static void end(
+      UserFlightEvents.Request event, HttpServletRequest request, HttpServletResponse response) {
+    if (request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)
+            instanceof String pattern
+        && pattern.startsWith(USERS_PATH)) {
+      event.end(
+          request.getMethod(), pattern, request.getContentLengthLong(), response.getStatus());
+    }
+  }
+}
@@ -0,0 +1,250 @@
+package com.example.test.user;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps every user in memory as {@link CompactUserRows}, keyed by id. The cache is loaded in the
+ * background on startup; until then lookups go to the database. Change events, including those
+ * of other nodes when invalidation is enabled, drop the changed user, and the next lookup reads it
+ * back in. A user changed while being read is not cached, so a cached row is never older than the
+ * last commit this node has seen.
+ *
+ * <p>Dictionaries only grow, so once one holds {@code max-dictionary-size} values the cache is
+ * reloaded into fresh ones. Should the users not fit even then, those left out are read from the
+ * database on every lookup.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.user-cache.enabled", havingValue = "true")
+class UserRowCache implements BackgroundConnectionUser {
+
+  private static final String LOAD_QUERY =
+      """
+        SELECT id, email, first_name, last_name, birth_date, address, phone_number
+        FROM users
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final int maxDictionarySize;
+
+  private final ExecutorService loader =
+      Executors.newSingleThreadExecutor(new CustomizableThreadFactory("user-cache-"));
+  private final AtomicBoolean loading = new AtomicBoolean();
+  private final AtomicInteger size = new AtomicInteger();
+  private final Set<Set<Integer>> loads = Collections.newSetFromMap(new IdentityHashMap<>());
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter uncached;
+  private volatile CompactUserRows rows;
+  private boolean overflowed;
+
+  public UserRowCache(
+      JdbcTemplate jdbcTemplate,
+      MeterRegistry meterRegistry,
+      @Value("${application.user-cache.max-dictionary-size:1048576}") int maxDictionarySize,
+      @Value("${application.sharding.enabled:false}") boolean shardingEnabled) {
+    if (shardingEnabled) {
+      throw new IllegalStateException("User cache is not supported together with sharding");
+    }
+    this.jdbcTemplate = jdbcTemplate;
+    this.maxDictionarySize = maxDictionarySize;
+    this.hits =
+        Counter.builder("user.cache.hits")
+            .description("Users looked up by id and found in the cache")
+            .register(meterRegistry);
+    this.misses =
+        Counter.builder("user.cache.misses")
+            .description("Users looked up by id and not found in the cache")
+            .register(meterRegistry);
+    this.uncached =
+        Counter.builder("user.cache.uncached")
+            .description("Users left out of the cache because a dictionary was full")
+            .register(meterRegistry);
+    Gauge.builder("user.cache.size", size::get)
+        .description("Users held by the cache when it was last loaded")
+        .register(meterRegistry);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  void warmUp() {
+    scheduleReload();
+  }
+
+  @PreDestroy
+  void close() {
+    loader.shutdownNow();
+  }
+
+  public boolean isReady() {
+    return rows != null;
+  }
+
+  /**
+   * Users with the given distinct ids, in the order of {@code ids}. Users not in the cache are read
+   * with {@code reader} and cached for later lookups; cached ones are decoded as they are read.
+   */
+  public UserLookupDTO findAllById(
+      List<Integer> ids, Function<List<Integer>, List<UserDTO>> reader) {
+    CompactUserRows current = rows;
+    if (current == null) {
+      misses.increment(ids.size());
+      return UserLookupDTO.inOrder(ids, reader.apply(ids));
+    }
+    List<Integer> missingIds = new ArrayList<>();
+    List<UserDTO> cached = current.findAllById(ids, missingIds);
+    hits.increment(cached.size());
+    misses.increment(missingIds.size());
+    if (missingIds.isEmpty()) {
+      return new UserLookupDTO(cached, List.of());
+    }
+    Set<Integer> invalidated = beginLoad();
+    List<UserDTO> read;
+    try {
+      read = reader.apply(missingIds);
+      cache(current, read, invalidated);
+    } finally {
+      endLoad(invalidated);
+    }
+    List<UserDTO> found = new ArrayList<>(cached.size() + read.size());
+    found.addAll(cached);
+    found.addAll(read);
+    return UserLookupDTO.inOrder(ids, found);
+  }
+
+  /** The loader reads all users on one connection. */
+  @Override
+  public int maxConnections() {
+    return 1;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  void onUserChanged(UserChangedEvent event) {
+    invalidate(event.userId());
+  }
+
+  void scheduleReload() {
+    if (loading.compareAndSet(false, true)) {
+      loader.execute(
+          () -> {
+            try {
+              reload();
+            } catch (RuntimeException e) {
+              log.error("User cache load failed", e);
+            } finally {
+              loading.set(false);
+            }
+          });
+    }
+  }
+
+  private synchronized void invalidate(int id) {
+    CompactUserRows current = rows;
+    if (current != null) {
+      current.remove(id);
+    }
+    for (Set<Integer> load : loads) {
+      load.add(id);
+    }
+  }
+
+  /** Ids of users changed from now on are collected, as the rows being read may predate them. */
+  private synchronized Set<Integer> beginLoad() {
+    Set<Integer> invalidated = new HashSet<>();
+    loads.add(invalidated);
+    return invalidated;
+  }
+
+  private synchronized void endLoad(Set<Integer> invalidated) {
+    loads.remove(invalidated);
+  }
+
+  private synchronized void cache(
+      CompactUserRows target, List<UserDTO> users, Set<Integer> invalidated) {
+    if (rows != target) {
+      return;
+    }
+    for (UserDTO user : users) {
+      if (!invalidated.contains(user.getId()) && !target.put(user)) {
+        uncached.increment();
+        // Dictionaries fill up with values of changed users too; a reload only helps if the
+        // last one had room for everybody
+        if (!overflowed) {
+          scheduleReload();
+        }
+      }
+    }
+  }
+
+  private void reload() {
+    Set<Integer> invalidated = beginLoad();
+    try {
+      var loaded = new CompactUserRows(maxDictionarySize);
+      var count = new AtomicInteger();
+      var left = new AtomicInteger();
+      jdbcTemplate.query(
+          connection -> {
+            PreparedStatement statement =
+                connection.prepareStatement(
+                    LOAD_QUERY, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(10_000);
+            return statement;
+          },
+          rs -> {
+            var user =
+                new UserDTO(
+                    rs.getInt("id"),
+                    rs.getString("email"),
+                    rs.getString("first_name"),
+                    rs.getString("last_name"),
+                    rs.getObject("birth_date", LocalDate.class),
+                    rs.getString("address"),
+                    rs.getString("phone_number"));
+            if (loaded.put(user)) {
+              count.incrementAndGet();
+            } else {
+              left.incrementAndGet();
+            }
+          });
+      uncached.increment(left.get());
+      synchronized (this) {
+        // Users changed while the rows were read may have been loaded in their old version
+        invalidated.forEach(loaded::remove);
+        rows = loaded;
+        overflowed = left.get() > 0;
+      }
+      size.set(count.get());
+      log.info(
+          "Loaded {} users into the cache with {} dictionary values",
+          count.get(),
+          loaded.dictionarySize());
+    } finally {
+      endLoad(invalidated);
+    }
+  }
+}
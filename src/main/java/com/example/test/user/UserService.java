@@ -4,63 +4,295 @@ import com.example.test.exception.InvalidDateRangeException;
 import com.example.test.exception.InvalidUserAgeException;
 import com.example.test.exception.UserNotFoundException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @Transactional(readOnly = true)
 class UserService {
 
+  private static final Comparator<UserBirthdayDTO> BIRTHDAY_ORDER =
+      Comparator.comparing(UserBirthdayDTO::birthday)
+          .thenComparing(birthday -> birthday.user().getId());
+
   private final UserRepository userRepository;
+  private final UserChangeLog userChangeLog;
+  private final BirthDateBounds birthDateBounds;
+  private final RangeQueryPlanner rangeQueryPlanner;
+  private final ShardedUserStore shardedUserStore;
+  private final ParallelRangeQuery parallelRangeQuery;
+  private final UserSnapshotStore userSnapshotStore;
+  private final JdbcRangeQuery jdbcRangeQuery;
+  private final RangeQueryCoalescer rangeQueryCoalescer;
+  private final UserRowCache userRowCache;
+  private final TransactionTemplate rangeQueryTransaction;
+  private final TransactionTemplate ageQueryTransaction;
+  private final TransactionTemplate lookupTransaction;
+  private final int lookupChunkSize;
   private final int ageConstraint;
+  private final String ageConstraintMessage;
 
   public UserService(
       UserRepository userRepository,
+      UserChangeLog userChangeLog,
+      BirthDateBounds birthDateBounds,
+      RangeQueryPlanner rangeQueryPlanner,
+      Optional<ShardedUserStore> shardedUserStore,
+      Optional<ParallelRangeQuery> parallelRangeQuery,
+      Optional<UserSnapshotStore> userSnapshotStore,
+      Optional<JdbcRangeQuery> jdbcRangeQuery,
+      Optional<RangeQueryCoalescer> rangeQueryCoalescer,
+      Optional<UserRowCache> userRowCache,
+      PlatformTransactionManager transactionManager,
+      @Value("${application.lookup.chunk-size:500}") int lookupChunkSize,
+      @Value("${application.deadline-seconds.range-query:-1}") int rangeQueryDeadlineSeconds,
+      @Value("${application.deadline-seconds.age-query:-1}") int ageQueryDeadlineSeconds,
+      @Value("${application.deadline-seconds.lookup:-1}") int lookupDeadlineSeconds,
       @Value("${application.age-constraint}") int ageConstraint) {
+    if (lookupChunkSize <= 0) {
+      throw new IllegalStateException(
+          "application.lookup.chunk-size must be positive, got " + lookupChunkSize);
+    }
     this.userRepository = userRepository;
+    this.userChangeLog = userChangeLog;
+    this.birthDateBounds = birthDateBounds;
+    this.rangeQueryPlanner = rangeQueryPlanner;
+    this.shardedUserStore = shardedUserStore.orElse(null);
+    this.parallelRangeQuery = parallelRangeQuery.orElse(null);
+    this.userSnapshotStore = userSnapshotStore.orElse(null);
+    this.jdbcRangeQuery = jdbcRangeQuery.orElse(null);
+    this.rangeQueryCoalescer = rangeQueryCoalescer.orElse(null);
+    this.userRowCache = userRowCache.orElse(null);
+    this.rangeQueryTransaction = readOnlyTransaction(transactionManager, rangeQueryDeadlineSeconds);
+    this.ageQueryTransaction = readOnlyTransaction(transactionManager, ageQueryDeadlineSeconds);
+    this.lookupTransaction = readOnlyTransaction(transactionManager, lookupDeadlineSeconds);
+    this.lookupChunkSize = lookupChunkSize;
     this.ageConstraint = ageConstraint;
+    this.ageConstraintMessage = "User age less than " + ageConstraint;
   }
 
+  /**
+   * Users in the range in birth-date order. Kept out of the class-level transaction, so that when
+   * range queries are coalesced only the caller running the query opens one; the others wait
+   * without holding a connection.
+   */
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
   public List<UserDTO> getAllByDateBetween(LocalDate from, LocalDate to) {
+    return getAllByDateBetween(from, to, rangeQueryTransaction);
+  }
+
+  /**
+   * Users in the range ordered by {@code (birthDate, id)} in the given direction, at most {@code
+   * limit} of them. Ordering and limit are pushed into SQL where the query runs against the
+   * database, so the top k users cost O(k) rather than the whole range. Without a direction and a
+   * limit this is {@link #getAllByDateBetween(LocalDate, LocalDate)}.
+   */
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public List<UserDTO> getAllByDateBetween(
+      LocalDate from, LocalDate to, Sort.Direction direction, Integer limit) {
+    if (direction == null && limit == null) {
+      return getAllByDateBetween(from, to);
+    }
     if (from.isAfter(to)) {
       throw new InvalidDateRangeException("DateFrom can't be after to dateTo");
     }
-    return userRepository.findAllByBirthDateBetween(from, to);
+    RangeQueryPlanner.Plan plan = rangeQueryPlanner.plan(from, to, limit);
+    var event = new UserFlightEvents.RangeQuery();
+    event.begin();
+    List<UserDTO> users = null;
+    try {
+      users =
+          rangeQueryTransaction.execute(
+              status ->
+                  findFirstByDateBetween(
+                      from, to, direction == Sort.Direction.DESC, limit, plan));
+      return users;
+    } finally {
+      event.end(from, to, direction, limit, users);
+    }
+  }
+
+  /**
+   * Users of every window, grouped per window in request order. Overlapping windows are merged so
+   * each birth date is read once, then results are sliced back out per window.
+   */
+  @Transactional(
+      readOnly = true,
+      timeoutString = "${application.deadline-seconds.windows-query:-1}")
+  public List<UserWindowDTO> getAllByDateWindows(List<DateRange> windows) {
+    for (DateRange window : windows) {
+      if (window.from().isAfter(window.to())) {
+        throw new InvalidDateRangeException("DateFrom can't be after to dateTo");
+      }
+    }
+    List<DateRange> segments = DateRange.mergeOverlapping(windows);
+    long expectedRows = rangeQueryPlanner.estimate(segments);
+    List<UserDTO> users = findAllInSegmentsOrdered(segments, expectedRows);
+    return windows.stream()
+        .map(window -> new UserWindowDTO(window.from(), window.to(), slice(users, window)))
+        .toList();
+  }
+
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public List<UserDTO> getAllByAgeBetween(int minAge, int maxAge) {
+    if (minAge > maxAge) {
+      throw new InvalidDateRangeException("MinAge can't be greater than maxAge");
+    }
+    DateRange range = birthDateBounds.forAges(minAge, maxAge);
+    return getAllByDateBetween(range.from(), range.to(), ageQueryTransaction);
   }
 
-  @Transactional
+  /**
+   * Users with a birthday in the {@code days} days starting today, soonest first. The window is
+   * read off the {@code birth_month_day} index in at most two key ranges. With {@code
+   * applyAgeConstraint} only users reaching {@code application.age-constraint} on that birthday
+   * are returned.
+   */
+  @Transactional(readOnly = true, timeoutString = "${application.deadline-seconds.range-query:-1}")
+  public List<UserBirthdayDTO> getAllWithBirthdayWithin(int days, boolean applyAgeConstraint) {
+    var window = BirthdayWindow.starting(birthDateBounds.today(), days);
+    int minAge = applyAgeConstraint ? ageConstraint : 1;
+    long expectedRows = rangeQueryPlanner.estimateBirthdays(days);
+    List<UserBirthdayDTO> birthdays =
+        new ArrayList<>(RangeQueryPlanner.initialCapacity(expectedRows));
+    for (BirthdayWindow.KeyRange keys : window.keyRanges()) {
+      List<UserDTO> users =
+          shardedUserStore != null
+              ? shardedUserStore.findAllByBirthMonthDayBetween(keys.from(), keys.to())
+              : userRepository.findAllByBirthMonthDayBetween(keys.from(), keys.to());
+      for (UserDTO user : users) {
+        LocalDate birthday = window.birthdayOf(user.getBirthDate());
+        if (birthday != null) {
+          int age = birthday.getYear() - user.getBirthDate().getYear();
+          if (age >= minAge) {
+            birthdays.add(new UserBirthdayDTO(birthday, age, user));
+          }
+        }
+      }
+    }
+    birthdays.sort(BIRTHDAY_ORDER);
+    return birthdays;
+  }
+
+  /**
+   * Users with the given ids in request order, each returned once, plus the ids no user has. Ids
+   * are served from the user cache where enabled; the rest are read in chunks of {@code
+   * application.lookup.chunk-size}, one {@code IN} query per chunk, in a transaction opened only
+   * when there is something to read. Kept out of the class-level transaction, which would take a
+   * connection for cache hits too and swallow the lookup deadline.
+   */
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public UserLookupDTO getAllById(List<Integer> ids) {
+    List<Integer> distinctIds = List.copyOf(new LinkedHashSet<>(ids));
+    return userRowCache != null
+        ? userRowCache.findAllById(distinctIds, this::findAllById)
+        : UserLookupDTO.inOrder(distinctIds, findAllById(distinctIds));
+  }
+
+  @Transactional(timeoutString = "${application.deadline-seconds.create:-1}")
   public Integer create(UserDTO details) {
-    verifyAge(details.getBirthDate());
-    User newUser =
-        User.builder()
-            .email(details.getEmail())
-            .firstName(details.getFirstName())
-            .lastName(details.getLastName())
-            .birthDate(details.getBirthDate())
-            .address(details.getAddress())
-            .phoneNumber(details.getPhoneNumber())
-            .build();
-    User user = userRepository.save(newUser);
-    return user.getId();
-  }
-
-  @Transactional
+    var event = new UserFlightEvents.Write();
+    event.begin();
+    Integer userId = null;
+    try {
+      verifyAge(details.getBirthDate());
+      User user = save(toUser(details));
+      userChangeLog.append(UserChange.Type.CREATED, user.getId(), null, user.getBirthDate());
+      userId = user.getId();
+      return userId;
+    } finally {
+      event.end(UserChange.Type.CREATED, userId, 1, userId != null);
+    }
+  }
+
+  /** Inserts already age-checked users in one transaction, returning ids in input order. */
+  @Transactional(timeoutString = "${application.deadline-seconds.create:-1}")
+  public List<Integer> createAll(List<UserDTO> batch) {
+    var event = new UserFlightEvents.Write();
+    event.begin();
+    boolean succeeded = false;
+    try {
+      List<User> newUsers = batch.stream().map(this::toUser).toList();
+      List<User> users =
+          shardedUserStore != null
+              ? newUsers.stream().map(shardedUserStore::insert).toList()
+              : userRepository.saveAll(newUsers);
+      for (User user : users) {
+        userChangeLog.append(UserChange.Type.CREATED, user.getId(), null, user.getBirthDate());
+      }
+      succeeded = true;
+      return users.stream().map(User::getId).toList();
+    } finally {
+      event.end(UserChange.Type.CREATED, null, batch.size(), succeeded);
+    }
+  }
+
+  @Transactional(timeoutString = "${application.deadline-seconds.delete:-1}")
   public Integer delete(Integer id) {
-    var user = getUser(id);
-    userRepository.delete(user);
-    return user.getId();
+    var event = new UserFlightEvents.Write();
+    event.begin();
+    boolean succeeded = false;
+    try {
+      var user = getUser(id);
+      if (shardedUserStore != null) {
+        shardedUserStore.delete(user);
+      } else {
+        userRepository.delete(user);
+      }
+      userChangeLog.append(UserChange.Type.DELETED, user.getId(), user.getBirthDate(), null);
+      succeeded = true;
+      return user.getId();
+    } finally {
+      event.end(UserChange.Type.DELETED, id, 1, succeeded);
+    }
   }
 
-  @Transactional(isolation = Isolation.REPEATABLE_READ)
+  @Transactional(
+      isolation = Isolation.REPEATABLE_READ,
+      timeoutString = "${application.deadline-seconds.update:-1}")
   public void update(Integer id, UserDTO details) {
+    var event = new UserFlightEvents.Write();
+    event.begin();
+    boolean succeeded = false;
+    try {
+      applyUpdate(id, details);
+      succeeded = true;
+    } finally {
+      event.end(UserChange.Type.UPDATED, id, 1, succeeded);
+    }
+  }
+
+  void verifyAge(LocalDate birthDate) {
+    var event = new UserFlightEvents.AgeCheck();
+    event.begin();
+    boolean passed = !birthDate.isAfter(birthDateBounds.latestBirthDate(ageConstraint));
+    event.end(birthDate, passed);
+    if (!passed) {
+      throw new InvalidUserAgeException(ageConstraintMessage);
+    }
+  }
+
+  private void applyUpdate(Integer id, UserDTO details) {
     if (details.getBirthDate() != null) {
       verifyAge(details.getBirthDate());
     }
     var user = getUser(id);
+    LocalDate previousBirthDate = user.getBirthDate();
     user.setBirthDate(details.getBirthDate());
     // Boilerplate code can be replaced with mapstruct or reflection
     if (details.getEmail() != null && !details.getEmail().isBlank()) {
@@ -78,20 +310,167 @@ class UserService {
     if (details.getPhoneNumber() != null && !details.getPhoneNumber().isBlank()) {
       user.setPhoneNumber(details.getPhoneNumber());
     }
-    userRepository.save(user);
+    if (shardedUserStore != null) {
+      shardedUserStore.update(user);
+    } else {
+      userRepository.save(user);
+    }
+    userChangeLog.append(UserChange.Type.UPDATED, id, previousBirthDate, user.getBirthDate());
+  }
+
+  private List<UserDTO> findFirstByDateBetween(
+      LocalDate from,
+      LocalDate to,
+      boolean descending,
+      Integer limit,
+      RangeQueryPlanner.Plan plan) {
+    int max = limit != null ? limit : Integer.MAX_VALUE;
+    return switch (plan.strategy()) {
+      case SHARDED -> shardedUserStore.findFirstByBirthDateBetween(from, to, descending, max);
+      case SNAPSHOT ->
+          UserOrdering.first(
+              userSnapshotStore.findAllByBirthDateBetween(from, to), descending, max);
+      case PARALLEL ->
+          UserOrdering.first(
+              parallelRangeQuery.findAllByBirthDateBetween(from, to), descending, max);
+      case STREAMING ->
+          jdbcRangeQuery.findFirstByBirthDateBetween(
+              from, to, descending, max, plan.initialCapacity());
+      case INDEXED -> {
+        Sort sort =
+            Sort.by(descending ? Sort.Direction.DESC : Sort.Direction.ASC, "birthDate", "id");
+        Pageable pageable =
+            limit != null ? PageRequest.of(0, limit, sort) : Pageable.unpaged(sort);
+        yield userRepository.findAllByBirthDateBetween(from, to, pageable);
+      }
+    };
+  }
+
+  private List<UserDTO> findAllByDateBetween(
+      LocalDate from, LocalDate to, RangeQueryPlanner.Plan plan) {
+    return switch (plan.strategy()) {
+      case SHARDED -> shardedUserStore.findAllByBirthDateBetween(from, to);
+      case SNAPSHOT -> userSnapshotStore.findAllByBirthDateBetween(from, to);
+      case PARALLEL -> parallelRangeQuery.findAllByBirthDateBetween(from, to);
+      case STREAMING ->
+          jdbcRangeQuery.findAllByBirthDateBetween(from, to, plan.initialCapacity());
+      case INDEXED -> userRepository.findAllByBirthDateBetween(from, to);
+    };
+  }
+
+  private List<UserDTO> getAllByDateBetween(
+      LocalDate from, LocalDate to, TransactionTemplate transaction) {
+    if (from.isAfter(to)) {
+      throw new InvalidDateRangeException("DateFrom can't be after to dateTo");
+    }
+    RangeQueryPlanner.Plan plan = rangeQueryPlanner.plan(from, to, null);
+    var event = new UserFlightEvents.RangeQuery();
+    event.begin();
+    List<UserDTO> users = null;
+    try {
+      Supplier<List<UserDTO>> query =
+          () -> transaction.execute(status -> findAllByDateBetween(from, to, plan));
+      users =
+          rangeQueryCoalescer != null
+              ? rangeQueryCoalescer.execute(new DateRange(from, to), query)
+              : query.get();
+      return users;
+    } finally {
+      event.end(from, to, null, null, users);
+    }
   }
 
-  private void verifyAge(LocalDate birthDate) {
-    int age = LocalDate.now().getYear() - birthDate.getYear();
-    if (age < ageConstraint) {
-      throw new InvalidUserAgeException(String.format("User age less than %d", ageConstraint));
+  private List<UserDTO> findAllById(List<Integer> ids) {
+    return lookupTransaction.execute(status -> findAllByIdInChunks(ids));
+  }
+
+  private List<UserDTO> findAllByIdInChunks(List<Integer> ids) {
+    List<UserDTO> users = new ArrayList<>(ids.size());
+    for (int i = 0; i < ids.size(); i += lookupChunkSize) {
+      List<Integer> chunk = ids.subList(i, Math.min(i + lookupChunkSize, ids.size()));
+      users.addAll(
+          shardedUserStore != null
+              ? shardedUserStore.findAllById(chunk)
+              : userRepository.findAllByIdIn(chunk));
     }
+    return users;
+  }
+
+  private List<UserDTO> findAllInSegmentsOrdered(List<DateRange> segments, long expectedRows) {
+    if (shardedUserStore == null
+        && (userSnapshotStore == null || !userSnapshotStore.isReady())
+        && parallelRangeQuery == null) {
+      return userRepository.findAllByBirthDateInRangesOrdered(segments);
+    }
+    // Segments are disjoint and sorted, so ordered segments concatenate in (birthDate, id) order
+    List<UserDTO> users = new ArrayList<>(RangeQueryPlanner.initialCapacity(expectedRows));
+    for (DateRange segment : segments) {
+      RangeQueryPlanner.Plan plan = rangeQueryPlanner.plan(segment.from(), segment.to(), null);
+      users.addAll(findAllByDateBetweenOrdered(segment.from(), segment.to(), plan));
+    }
+    return users;
+  }
+
+  /** As {@link #findAllByDateBetween}, but in {@code (birthDate, id)} order whatever the plan. */
+  private List<UserDTO> findAllByDateBetweenOrdered(
+      LocalDate from, LocalDate to, RangeQueryPlanner.Plan plan) {
+    return switch (plan.strategy()) {
+      case SHARDED, SNAPSHOT, PARALLEL -> findAllByDateBetween(from, to, plan);
+      case STREAMING ->
+          jdbcRangeQuery.findAllByBirthDateBetweenOrdered(from, to, plan.initialCapacity());
+      case INDEXED -> userRepository.findAllByBirthDateBetweenOrdered(from, to);
+    };
+  }
+
+  private static List<UserDTO> slice(List<UserDTO> sortedUsers, DateRange window) {
+    int from = firstBornOnOrAfter(sortedUsers, window.from());
+    int to = firstBornOnOrAfter(sortedUsers, window.to().plusDays(1));
+    return List.copyOf(sortedUsers.subList(from, to));
+  }
+
+  private static int firstBornOnOrAfter(List<UserDTO> sortedUsers, LocalDate date) {
+    int low = 0;
+    int high = sortedUsers.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (sortedUsers.get(mid).getBirthDate().isBefore(date)) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private User toUser(UserDTO details) {
+    return User.builder()
+        .email(details.getEmail())
+        .firstName(details.getFirstName())
+        .lastName(details.getLastName())
+        .birthDate(details.getBirthDate())
+        .address(details.getAddress())
+        .phoneNumber(details.getPhoneNumber())
+        .build();
+  }
+
+  private User save(User newUser) {
+    return shardedUserStore != null
+        ? shardedUserStore.insert(newUser)
+        : userRepository.save(newUser);
   }
 
   private User getUser(Integer id) {
-    return userRepository
-        .findById(id)
-        .orElseThrow(
-            () -> new UserNotFoundException(String.format("User with id <%d> not found", id)));
+    Optional<User> user =
+        shardedUserStore != null ? shardedUserStore.findById(id) : userRepository.findById(id);
+    return user.orElseThrow(
+        () -> new UserNotFoundException("User with id <" + id + "> not found"));
+  }
+
+  private static TransactionTemplate readOnlyTransaction(
+      PlatformTransactionManager transactionManager, int timeoutSeconds) {
+    var transaction = new TransactionTemplate(transactionManager);
+    transaction.setReadOnly(true);
+    transaction.setTimeout(timeoutSeconds);
+    return transaction;
   }
 }
@@ -0,0 +1,172 @@
+package com.example.test.user;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+/** One birth-year partition of the {@code users} table, accessed through plain JDBC. */
+class UserShard implements AutoCloseable {
+
+  private static final RowMapper<User> USER_ROW_MAPPER =
+      (rs, rowNum) ->
+          User.builder()
+              .id(rs.getInt("id"))
+              .email(rs.getString("email"))
+              .firstName(rs.getString("first_name"))
+              .lastName(rs.getString("last_name"))
+              .birthDate(rs.getObject("birth_date", LocalDate.class))
+              .address(rs.getString("address"))
+              .phoneNumber(rs.getString("phone_number"))
+              .build();
+
+  private static final RowMapper<UserDTO> USER_DTO_ROW_MAPPER =
+      (rs, rowNum) ->
+          new UserDTO(
+              rs.getInt("id"),
+              rs.getString("email"),
+              rs.getString("first_name"),
+              rs.getString("last_name"),
+              rs.getObject("birth_date", LocalDate.class),
+              rs.getString("address"),
+              rs.getString("phone_number"));
+
+  private final int index;
+  private final int fromYear;
+  private final int toYear;
+  private final HikariDataSource dataSource;
+  private final JdbcTemplate jdbcTemplate;
+
+  UserShard(int index, ShardingProperties.Shard properties) {
+    this.index = index;
+    this.fromYear = properties.fromYear();
+    this.toYear = properties.toYear();
+    this.dataSource = new HikariDataSource();
+    dataSource.setPoolName("Hikari-shard-" + index);
+    dataSource.setJdbcUrl(properties.url());
+    dataSource.setUsername(properties.username());
+    dataSource.setPassword(properties.password());
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    new ResourceDatabasePopulator(new ClassPathResource("db/shard-schema.sql")).execute(dataSource);
+  }
+
+  int index() {
+    return index;
+  }
+
+  boolean containsYear(int year) {
+    return year >= fromYear && year <= toYear;
+  }
+
+  boolean overlaps(LocalDate from, LocalDate to) {
+    return from.getYear() <= toYear && to.getYear() >= fromYear;
+  }
+
+  void insert(User user) {
+    jdbcTemplate.update(
+        """
+          INSERT INTO users(id, email, first_name, last_name, birth_date, address, phone_number)
+          VALUES (?, ?, ?, ?, ?, ?, ?)
+        """,
+        user.getId(),
+        user.getEmail(),
+        user.getFirstName(),
+        user.getLastName(),
+        user.getBirthDate(),
+        user.getAddress(),
+        user.getPhoneNumber());
+  }
+
+  void update(User user) {
+    jdbcTemplate.update(
+        """
+          UPDATE users
+          SET email = ?, first_name = ?, last_name = ?, birth_date = ?, address = ?, phone_number = ?
+          WHERE id = ?
+        """,
+        user.getEmail(),
+        user.getFirstName(),
+        user.getLastName(),
+        user.getBirthDate(),
+        user.getAddress(),
+        user.getPhoneNumber(),
+        user.getId());
+  }
+
+  void delete(Integer id) {
+    jdbcTemplate.update("DELETE FROM users WHERE id = ?", id);
+  }
+
+  Optional<User> findById(Integer id) {
+    return jdbcTemplate.query("SELECT * FROM users WHERE id = ?", USER_ROW_MAPPER, id).stream()
+        .findFirst();
+  }
+
+  List<UserDTO> findAllById(List<Integer> ids) {
+    return jdbcTemplate.query(
+        """
+          SELECT id, email, first_name, last_name, birth_date, address, phone_number
+          FROM users
+          WHERE id IN (%s)
+        """
+            .formatted(String.join(", ", Collections.nCopies(ids.size(), "?"))),
+        USER_DTO_ROW_MAPPER,
+        ids.toArray());
+  }
+
+  /** Rows come back in {@code (birth_date, id)} order so the caller can merge shards cheaply. */
+  List<UserDTO> findAllByBirthDateBetween(LocalDate from, LocalDate to) {
+    return jdbcTemplate.query(
+        """
+          SELECT id, email, first_name, last_name, birth_date, address, phone_number
+          FROM users
+          WHERE birth_date BETWEEN ? AND ?
+          ORDER BY birth_date, id
+        """,
+        USER_DTO_ROW_MAPPER,
+        from,
+        to);
+  }
+
+  /** Rows whose {@code birth_month_day} is in the inclusive range, see {@link BirthdayWindow}. */
+  List<UserDTO> findAllByBirthMonthDayBetween(int from, int to) {
+    return jdbcTemplate.query(
+        """
+          SELECT id, email, first_name, last_name, birth_date, address, phone_number
+          FROM users
+          WHERE birth_month_day BETWEEN ? AND ?
+        """,
+        USER_DTO_ROW_MAPPER,
+        from,
+        to);
+  }
+
+  /** Top {@code limit} rows of the range in {@code (birth_date, id)} order, or its reverse. */
+  List<UserDTO> findFirstByBirthDateBetween(
+      LocalDate from, LocalDate to, boolean descending, int limit) {
+    String direction = descending ? "DESC" : "ASC";
+    return jdbcTemplate.query(
+        """
+          SELECT id, email, first_name, last_name, birth_date, address, phone_number
+          FROM users
+          WHERE birth_date BETWEEN ? AND ?
+          ORDER BY birth_date %s, id %s
+          LIMIT ?
+        """
+            .formatted(direction, direction),
+        USER_DTO_ROW_MAPPER,
+        from,
+        to,
+        limit);
+  }
+
+  @Override
+  public void close() {
+    dataSource.close();
+  }
+}
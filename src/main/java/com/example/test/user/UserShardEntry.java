@@ -0,0 +1,37 @@
+package com.example.test.user;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Id-to-shard directory kept on the primary datasource. Its identity column hands out the global
+ * user ids, and the unique email column keeps email uniqueness across shards.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "user_shard_directory")
+class UserShardEntry {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Integer id;
+
+  @Column(name = "shard_index", nullable = false)
+  private int shardIndex;
+
+  @Column(unique = true, nullable = false)
+  private String email;
+}
@@ -0,0 +1,7 @@
+package com.example.test.user;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+interface UserShardEntryRepository extends JpaRepository<UserShardEntry, Integer> {}
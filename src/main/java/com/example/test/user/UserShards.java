@@ -0,0 +1,77 @@
+package com.example.test.user;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Routes users to shards by birth year. */
+class UserShards implements AutoCloseable {
+
+  private final List<UserShard> shards;
+
+  UserShards(ShardingProperties properties) {
+    if (properties.shards() == null || properties.shards().isEmpty()) {
+      throw new IllegalStateException("Sharding is enabled but no shards are configured");
+    }
+    List<ShardingProperties.Shard> configured = properties.shards();
+    for (int i = 0; i < configured.size(); i++) {
+      ShardingProperties.Shard shard = configured.get(i);
+      if (shard.fromYear() > shard.toYear()) {
+        throw new IllegalStateException(String.format("Shard <%d> has fromYear after toYear", i));
+      }
+      for (ShardingProperties.Shard other : configured) {
+        if (other != shard
+            && shard.fromYear() <= other.toYear()
+            && shard.toYear() >= other.fromYear()) {
+          throw new IllegalStateException(
+              String.format("Shard <%d> year range overlaps another shard", i));
+        }
+      }
+    }
+    // Every shard opens a pool, so those already open are closed if a later one fails
+    List<UserShard> created = new ArrayList<>();
+    try {
+      for (ShardingProperties.Shard shard : configured) {
+        created.add(new UserShard(created.size(), shard));
+      }
+    } catch (RuntimeException e) {
+      created.forEach(UserShard::close);
+      throw e;
+    }
+    this.shards = List.copyOf(created);
+  }
+
+  UserShard get(int index) {
+    return shards.get(index);
+  }
+
+  int size() {
+    return shards.size();
+  }
+
+  UserShard shardFor(LocalDate birthDate) {
+    if (birthDate == null) {
+      return shards.get(0);
+    }
+    return shards.stream()
+        .filter(shard -> shard.containsYear(birthDate.getYear()))
+        .findFirst()
+        .orElseThrow(
+            () ->
+                new IllegalStateException(
+                    String.format("No shard configured for birth year %d", birthDate.getYear())));
+  }
+
+  List<UserShard> all() {
+    return shards;
+  }
+
+  List<UserShard> shardsOverlapping(LocalDate from, LocalDate to) {
+    return shards.stream().filter(shard -> shard.overlaps(from, to)).toList();
+  }
+
+  @Override
+  public void close() {
+    shards.forEach(UserShard::close);
+  }
+}
@@ -0,0 +1,132 @@
+package com.example.test.user;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Read-only, memory-mapped columnar snapshot of the {@code users} table written by {@link
+ * UserSnapshotWriter}. Layout (big-endian):
+ *
+ * <pre>
+ * header   magic, version, rowCount, stringCount (int), lastSeq (long)
+ * columns  birth epoch-day, id, email, first name, last name, address, phone (int[rowCount] each)
+ * strings  offsets (int[stringCount + 1]) followed by the UTF-8 blob they point into
+ * </pre>
+ *
+ * Rows are sorted by {@code (birth_date, id)} so a range scan is a binary search plus a sequential
+ * read. String columns hold codes into the string table, or {@code -1} for null. Only absolute
+ * buffer reads are used, so one instance can be shared by concurrent readers. A single mapping
+ * limits the file to 2 GB.
+ */
+final class UserSnapshot {
+
+  static final int MAGIC = 0x55534e50;
+  static final int VERSION = 1;
+  static final int HEADER_BYTES = 24;
+  static final int COLUMNS = 7;
+
+  private static final int BIRTH_DATE = 0;
+  private static final int ID = 1;
+  private static final int EMAIL = 2;
+  private static final int FIRST_NAME = 3;
+  private static final int LAST_NAME = 4;
+  private static final int ADDRESS = 5;
+  private static final int PHONE_NUMBER = 6;
+
+  private final MappedByteBuffer buffer;
+  private final int rowCount;
+  private final long lastSeq;
+  private final int offsetsStart;
+  private final int blobStart;
+
+  private UserSnapshot(MappedByteBuffer buffer) {
+    this.buffer = buffer;
+    if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+      throw new IllegalStateException("Not a user snapshot or unsupported version");
+    }
+    this.rowCount = buffer.getInt(8);
+    int stringCount = buffer.getInt(12);
+    this.lastSeq = buffer.getLong(16);
+    this.offsetsStart = HEADER_BYTES + COLUMNS * rowCount * Integer.BYTES;
+    this.blobStart = offsetsStart + (stringCount + 1) * Integer.BYTES;
+  }
+
+  static UserSnapshot open(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return new UserSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  /** Sequence of the last change log entry reflected in this snapshot. */
+  long lastSeq() {
+    return lastSeq;
+  }
+
+  int rowCount() {
+    return rowCount;
+  }
+
+  /** Rows in {@code [from, to]} in {@code (birthDate, id)} order, skipping {@code excludedIds}. */
+  List<UserDTO> findAllByBirthDateBetween(
+      LocalDate from, LocalDate to, Set<Integer> excludedIds) {
+    int first = lowerBound((int) from.toEpochDay());
+    int last = lowerBound((int) to.toEpochDay() + 1);
+    List<UserDTO> users = new ArrayList<>(Math.max(0, last - first));
+    for (int row = first; row < last; row++) {
+      int id = column(ID, row);
+      if (!excludedIds.contains(id)) {
+        users.add(decode(row, id));
+      }
+    }
+    return users;
+  }
+
+  private int lowerBound(int epochDay) {
+    int low = 0;
+    int high = rowCount;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (column(BIRTH_DATE, mid) < epochDay) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private UserDTO decode(int row, int id) {
+    return new UserDTO(
+        id,
+        string(column(EMAIL, row)),
+        string(column(FIRST_NAME, row)),
+        string(column(LAST_NAME, row)),
+        LocalDate.ofEpochDay(column(BIRTH_DATE, row)),
+        string(column(ADDRESS, row)),
+        string(column(PHONE_NUMBER, row)));
+  }
+
+  private int column(int column, int row) {
+    return buffer.getInt(HEADER_BYTES + (column * rowCount + row) * Integer.BYTES);
+  }
+
+  private String string(int code) {
+    if (code < 0) {
+      return null;
+    }
+    int start = buffer.getInt(offsetsStart + code * Integer.BYTES);
+    int end = buffer.getInt(offsetsStart + (code + 1) * Integer.BYTES);
+    byte[] bytes = new byte[end - start];
+    buffer.get(blobStart + start, bytes);
+    return new String(bytes, UTF_8);
+  }
+}
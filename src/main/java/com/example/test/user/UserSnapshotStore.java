@@ -0,0 +1,225 @@
+package com.example.test.user;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Serves birth-date range scans from a memory-mapped {@link UserSnapshot}. Users changed after the
+ * snapshot was written (known from the change log on startup and from commit events afterwards)
+ * are masked out of the snapshot and read from the database instead, so results stay current
+ * without rewriting the file on every write. Once too many users are masked the snapshot is
+ * rewritten in the background.
+ *
+ * <p>On startup an existing snapshot is mapped and only the change log behind it is replayed. A
+ * snapshot newer than the change log (e.g. after a {@code create-drop} restart) is discarded and
+ * rebuilt.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.snapshot.enabled", havingValue = "true")
+class UserSnapshotStore implements BackgroundConnectionUser {
+
+  private static final String SNAPSHOT_QUERY =
+      """
+        SELECT id, email, first_name, last_name, birth_date, address, phone_number
+        FROM users
+        WHERE birth_date IS NOT NULL
+        ORDER BY birth_date, id
+      """;
+
+  private static final int OVERLAY_CHUNK_SIZE = 1000;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final UserRepository userRepository;
+  private final UserChangeRepository userChangeRepository;
+  private final TransactionTemplate snapshotTransaction;
+  private final Path path;
+  private final int rewriteThreshold;
+
+  private final ExecutorService rewriter =
+      Executors.newSingleThreadExecutor(new CustomizableThreadFactory("user-snapshot-"));
+  private final AtomicBoolean rewriting = new AtomicBoolean();
+  private volatile State state;
+  private volatile Set<Integer> pendingDirtyIds;
+
+  public UserSnapshotStore(
+      JdbcTemplate jdbcTemplate,
+      UserRepository userRepository,
+      UserChangeRepository userChangeRepository,
+      PlatformTransactionManager transactionManager,
+      @Value("${application.snapshot.path}") Path path,
+      @Value("${application.snapshot.rewrite-threshold:10000}") int rewriteThreshold,
+      @Value("${application.sharding.enabled:false}") boolean shardingEnabled) {
+    if (shardingEnabled) {
+      throw new IllegalStateException("User snapshot is not supported together with sharding");
+    }
+    this.jdbcTemplate = jdbcTemplate;
+    this.userRepository = userRepository;
+    this.userChangeRepository = userChangeRepository;
+    this.snapshotTransaction = new TransactionTemplate(transactionManager);
+    this.snapshotTransaction.setReadOnly(true);
+    this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    this.path = path;
+    this.rewriteThreshold = rewriteThreshold;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  void warmUp() {
+    if (Files.exists(path)) {
+      try {
+        UserSnapshot snapshot = UserSnapshot.open(path);
+        if (snapshot.lastSeq() <= userChangeRepository.findLatestSeq()) {
+          Set<Integer> dirtyIds = ConcurrentHashMap.newKeySet();
+          dirtyIds.addAll(userChangeRepository.findUserIdsChangedAfter(snapshot.lastSeq()));
+          state = new State(snapshot, dirtyIds);
+          log.info(
+              "Mapped user snapshot with {} rows, replaying {} changed users",
+              snapshot.rowCount(),
+              dirtyIds.size());
+          return;
+        }
+        log.info("User snapshot is ahead of the change log, rebuilding it");
+      } catch (IOException | RuntimeException e) {
+        log.warn("Could not load user snapshot from {}, rebuilding it", path, e);
+      }
+    }
+    scheduleRewrite();
+  }
+
+  @PreDestroy
+  void close() {
+    rewriter.shutdownNow();
+  }
+
+  public boolean isReady() {
+    return state != null;
+  }
+
+  public List<UserDTO> findAllByBirthDateBetween(LocalDate from, LocalDate to) {
+    State current = state;
+    List<UserDTO> fromSnapshot =
+        current.snapshot().findAllByBirthDateBetween(from, to, current.dirtyIds());
+    if (current.dirtyIds().isEmpty()) {
+      return fromSnapshot;
+    }
+    List<List<UserDTO>> parts = new ArrayList<>();
+    parts.add(fromSnapshot);
+    List<Integer> dirtyIds = List.copyOf(current.dirtyIds());
+    for (int i = 0; i < dirtyIds.size(); i += OVERLAY_CHUNK_SIZE) {
+      parts.add(
+          userRepository.findAllByIdInAndBirthDateBetween(
+              dirtyIds.subList(i, Math.min(i + OVERLAY_CHUNK_SIZE, dirtyIds.size())), from, to));
+    }
+    return UserOrdering.mergeSorted(parts);
+  }
+
+  /** The rewriter reads all users on one connection. */
+  @Override
+  public int maxConnections() {
+    return 1;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  void onUserChanged(UserChangedEvent event) {
+    Set<Integer> pending = pendingDirtyIds;
+    if (pending != null) {
+      pending.add(event.userId());
+    }
+    State current = state;
+    if (current != null) {
+      current.dirtyIds().add(event.userId());
+      if (current.dirtyIds().size() >= rewriteThreshold) {
+        scheduleRewrite();
+      }
+    }
+  }
+
+  void scheduleRewrite() {
+    if (rewriting.compareAndSet(false, true)) {
+      rewriter.execute(
+          () -> {
+            try {
+              rewrite();
+            } catch (RuntimeException e) {
+              log.error("User snapshot rewrite failed", e);
+            } finally {
+              rewriting.set(false);
+            }
+          });
+    }
+  }
+
+  private void rewrite() {
+    Set<Integer> dirtyIds = ConcurrentHashMap.newKeySet();
+    pendingDirtyIds = dirtyIds;
+    try {
+      long lastSeq = snapshotTransaction.execute(status -> writeSnapshot());
+      dirtyIds.addAll(userChangeRepository.findUserIdsChangedAfter(lastSeq));
+      state = new State(UserSnapshot.open(path), dirtyIds);
+      log.info("Wrote user snapshot with {} rows at seq {}", state.snapshot().rowCount(), lastSeq);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      pendingDirtyIds = null;
+    }
+  }
+
+  private long writeSnapshot() {
+    long lastSeq = userChangeRepository.findLatestSeq();
+    try (var writer = new UserSnapshotWriter(path)) {
+      jdbcTemplate.query(
+          connection -> {
+            PreparedStatement statement =
+                connection.prepareStatement(
+                    SNAPSHOT_QUERY, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(10_000);
+            return statement;
+          },
+          rs -> {
+            try {
+              writer.add(
+                  rs.getInt("id"),
+                  rs.getObject("birth_date", LocalDate.class),
+                  rs.getString("email"),
+                  rs.getString("first_name"),
+                  rs.getString("last_name"),
+                  rs.getString("address"),
+                  rs.getString("phone_number"));
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          });
+      writer.commit(lastSeq);
+      return lastSeq;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private record State(UserSnapshot snapshot, Set<Integer> dirtyIds) {}
+}
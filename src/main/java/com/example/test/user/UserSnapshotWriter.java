@@ -0,0 +1,157 @@
+package com.example.test.user;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Streams rows, already sorted by {@code (birth_date, id)}, into a {@link UserSnapshot} file. Each
+ * column is spilled to its own temporary file so heap use does not grow with the row count; names
+ * and addresses are de-duplicated through a bounded dictionary, emails and phone numbers are
+ * stored as they come.
+ */
+final class UserSnapshotWriter implements Closeable {
+
+  private static final int MAX_DICTIONARY_SIZE = 1 << 20;
+
+  private final Path target;
+  private final Path workDir;
+  private final DataOutputStream[] columns = new DataOutputStream[UserSnapshot.COLUMNS];
+  private final DataOutputStream offsets;
+  private final DataOutputStream blob;
+  private final Map<String, Integer> dictionary = new HashMap<>();
+
+  private int rowCount;
+  private int stringCount;
+  private int blobSize;
+
+  UserSnapshotWriter(Path target) throws IOException {
+    this.target = target;
+    Path parent = target.toAbsolutePath().getParent();
+    Files.createDirectories(parent);
+    this.workDir = Files.createTempDirectory(parent, target.getFileName() + ".work");
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = open("column-" + i);
+    }
+    this.offsets = open("offsets");
+    this.blob = open("blob");
+    offsets.writeInt(0);
+  }
+
+  void add(
+      int id,
+      LocalDate birthDate,
+      String email,
+      String firstName,
+      String lastName,
+      String address,
+      String phoneNumber)
+      throws IOException {
+    columns[0].writeInt((int) birthDate.toEpochDay());
+    columns[1].writeInt(id);
+    columns[2].writeInt(append(email));
+    columns[3].writeInt(intern(firstName));
+    columns[4].writeInt(intern(lastName));
+    columns[5].writeInt(intern(address));
+    columns[6].writeInt(append(phoneNumber));
+    rowCount++;
+  }
+
+  /** Assembles the snapshot next to the target and atomically moves it into place. */
+  void commit(long lastSeq) throws IOException {
+    for (DataOutputStream column : columns) {
+      column.close();
+    }
+    offsets.close();
+    blob.close();
+    Path assembled = workDir.resolve("snapshot");
+    try (FileChannel out =
+        FileChannel.open(assembled, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+      ByteBuffer header = ByteBuffer.allocate(UserSnapshot.HEADER_BYTES);
+      header
+          .putInt(UserSnapshot.MAGIC)
+          .putInt(UserSnapshot.VERSION)
+          .putInt(rowCount)
+          .putInt(stringCount)
+          .putLong(lastSeq)
+          .flip();
+      out.write(header);
+      for (int i = 0; i < columns.length; i++) {
+        transfer(workDir.resolve("column-" + i), out);
+      }
+      transfer(workDir.resolve("offsets"), out);
+      transfer(workDir.resolve("blob"), out);
+      out.force(true);
+    }
+    Files.move(
+        assembled, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  @Override
+  public void close() throws IOException {
+    for (DataOutputStream column : columns) {
+      column.close();
+    }
+    offsets.close();
+    blob.close();
+    try (var files = Files.list(workDir)) {
+      for (Path file : files.toList()) {
+        Files.deleteIfExists(file);
+      }
+    }
+    Files.deleteIfExists(workDir);
+  }
+
+  private int intern(String value) throws IOException {
+    if (value == null) {
+      return -1;
+    }
+    Integer code = dictionary.get(value);
+    if (code != null) {
+      return code;
+    }
+    int appended = append(value);
+    if (dictionary.size() < MAX_DICTIONARY_SIZE) {
+      dictionary.put(value, appended);
+    }
+    return appended;
+  }
+
+  private int append(String value) throws IOException {
+    if (value == null) {
+      return -1;
+    }
+    byte[] bytes = value.getBytes(UTF_8);
+    blob.write(bytes);
+    blobSize += bytes.length;
+    offsets.writeInt(blobSize);
+    return stringCount++;
+  }
+
+  private DataOutputStream open(String name) throws IOException {
+    return new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(workDir.resolve(name)), 1 << 16));
+  }
+
+  private static void transfer(Path source, FileChannel out) throws IOException {
+    try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+      long position = 0;
+      long size = in.size();
+      while (position < size) {
+        position += in.transferTo(position, size - position, out);
+      }
+    }
+  }
+}
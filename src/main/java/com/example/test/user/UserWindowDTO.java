@@ -0,0 +1,11 @@
+package com.example.test.user;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.LocalDate;
+import java.util.List;
+
+/** Users of one requested window, in {@code (birthDate, id)} order. */
+record UserWindowDTO(
+    @JsonFormat(pattern = "dd-MM-yyyy") LocalDate from,
+    @JsonFormat(pattern = "dd-MM-yyyy") LocalDate to,
+    List<UserDTO> users) {}
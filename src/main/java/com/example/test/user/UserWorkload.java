@@ -0,0 +1,14 @@
+package com.example.test.user;
+
+/** Classes of user API traffic that are kept from starving each other by {@link UserBulkheads}. */
+enum UserWorkload {
+
+  /** Reads expected to return at most {@code application.bulkheads.heavy-rows} users. */
+  INTERACTIVE,
+
+  /** Creates, updates and deletes. */
+  WRITE,
+
+  /** Reads expected to return more than {@code application.bulkheads.heavy-rows} users. */
+  HEAVY
+}
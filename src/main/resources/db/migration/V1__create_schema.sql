@@ -0,0 +1,32 @@
+CREATE TABLE users (
+    id           INTEGER GENERATED BY DEFAULT AS IDENTITY,
+    email        VARCHAR(255) NOT NULL,
+    first_name   VARCHAR(255) NOT NULL,
+    last_name    VARCHAR(255) NOT NULL,
+    birth_date   DATE,
+    address      VARCHAR(255),
+    phone_number VARCHAR(255),
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE INDEX idx_users_birth_date_id ON users (birth_date, id);
+
+CREATE TABLE user_changes (
+    seq                 BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id             INTEGER NOT NULL,
+    change_type         VARCHAR(16) NOT NULL,
+    previous_birth_date DATE,
+    birth_date          DATE,
+    changed_at          TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_user_changes PRIMARY KEY (seq),
+    CONSTRAINT ck_user_changes_type CHECK (change_type IN ('CREATED', 'UPDATED', 'DELETED'))
+);
+
+CREATE TABLE user_shard_directory (
+    id          INTEGER GENERATED BY DEFAULT AS IDENTITY,
+    shard_index INTEGER NOT NULL,
+    email       VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_user_shard_directory PRIMARY KEY (id),
+    CONSTRAINT uk_user_shard_directory_email UNIQUE (email)
+);
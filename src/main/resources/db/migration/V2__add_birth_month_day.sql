@@ -0,0 +1,6 @@
+-- month * 100 + day of month, so birthday windows are key ranges, see BirthdayWindow
+ALTER TABLE users
+    ADD COLUMN birth_month_day INTEGER
+    GENERATED ALWAYS AS (MONTH(birth_date) * 100 + DAY_OF_MONTH(birth_date));
+
+CREATE INDEX idx_users_birth_month_day_id ON users (birth_month_day, id);
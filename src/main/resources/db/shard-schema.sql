@@ -0,0 +1,14 @@
+CREATE TABLE IF NOT EXISTS users (
+    id           INTEGER PRIMARY KEY,
+    email        VARCHAR(255) NOT NULL,
+    first_name   VARCHAR(255) NOT NULL,
+    last_name    VARCHAR(255) NOT NULL,
+    birth_date   DATE,
+    address      VARCHAR(255),
+    phone_number VARCHAR(255),
+    birth_month_day INTEGER GENERATED ALWAYS AS (MONTH(birth_date) * 100 + DAY_OF_MONTH(birth_date))
+);
+
+CREATE INDEX IF NOT EXISTS idx_users_birth_date_id ON users (birth_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_users_birth_month_day_id ON users (birth_month_day, id);
@@ -0,0 +1,93 @@
+package com.example.test.exception;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+class ErrorBodyCacheTest {
+
+  private static final Instant NOW = Instant.parse("2025-06-30T12:00:00.100Z");
+
+  private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+  @Test
+  @DisplayName("when body requested then render error dto")
+  void whenBodyRequestedThenRenderErrorDto() throws Exception {
+    var cache = new ErrorBodyCache(objectMapper, 400, Clock.fixed(NOW, ZoneOffset.UTC));
+
+    JsonNode body = objectMapper.readTree(cache.get("DateFrom can't be after to dateTo"));
+
+    assertEquals(400, body.get("statusCode").asInt());
+    assertEquals("DateFrom can't be after to dateTo", body.get("errorMessage").asText());
+    assertEquals("2025-06-30 12:00:00PM", body.get("timestamp").asText());
+    assertTrue(body.path("validationErrors").isMissingNode());
+  }
+
+  @Test
+  @DisplayName("when same message requested within a second then reuse rendered body")
+  void whenSameMessageRequestedWithinASecondThenReuseRenderedBody() {
+    var cache = new ErrorBodyCache(objectMapper, 400, Clock.fixed(NOW, ZoneOffset.UTC));
+
+    byte[] body = cache.get("MinAge can't be greater than maxAge");
+
+    assertSame(body, cache.get("MinAge can't be greater than maxAge"));
+  }
+
+  @Test
+  @DisplayName("when next second starts then render body again")
+  void whenNextSecondStartsThenRenderBodyAgain() throws Exception {
+    var clock = new MutableClock(NOW);
+    var cache = new ErrorBodyCache(objectMapper, 400, clock);
+    byte[] body = cache.get("User age less than 18");
+
+    clock.instant = NOW.plusSeconds(1);
+    byte[] laterBody = cache.get("User age less than 18");
+
+    assertNotSame(body, laterBody);
+    assertEquals(
+        "2025-06-30 12:00:01PM", objectMapper.readTree(laterBody).get("timestamp").asText());
+  }
+
+  @Test
+  @DisplayName("when domain exception thrown then skip stack trace")
+  void whenDomainExceptionThrownThenSkipStackTrace() {
+    assertEquals(0, new InvalidDateRangeException("range").getStackTrace().length);
+    assertEquals(0, new InvalidUserAgeException("age").getStackTrace().length);
+    assertEquals(0, new UserNotFoundException("missing").getStackTrace().length);
+  }
+
+  private static final class MutableClock extends Clock {
+
+    private Instant instant;
+
+    private MutableClock(Instant instant) {
+      this.instant = instant;
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package com.example.test.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+
+@SpringBootTest
+class AsyncStatementInterceptorTest {
+
+  private static final String ENDLESS_QUERY =
+      "SELECT COUNT(*) FROM SYSTEM_RANGE(1, 100000) a, SYSTEM_RANGE(1, 100000) b";
+
+  private final AsyncStatementInterceptor interceptor = new AsyncStatementInterceptor();
+
+  @Autowired private DataSource dataSource;
+
+  @Test
+  @DisplayName("when client disconnects then statement of the request is cancelled")
+  void whenClientDisconnectsThenStatementOfTheRequestIsCancelled() throws Exception {
+    var request = new ServletWebRequest(new MockHttpServletRequest());
+    Callable<Void> task = () -> null;
+    interceptor.beforeConcurrentHandling(request, task);
+    var query = CompletableFuture.runAsync(() -> execute(request, task));
+    var running =
+        (RunningStatements)
+            request.getAttribute(
+                AsyncStatementInterceptor.class.getName() + ".running",
+                RequestAttributes.SCOPE_REQUEST);
+
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!running.isRunning() && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(running.isRunning()).isTrue();
+    interceptor.handleError(request, task, new IOException("Broken pipe"));
+
+    assertThatThrownBy(() -> query.get(5, TimeUnit.SECONDS))
+        .isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(SQLException.class);
+  }
+
+  private void execute(ServletWebRequest request, Callable<Void> task) {
+    interceptor.preProcess(request, task);
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.executeQuery(ENDLESS_QUERY);
+    } catch (SQLException e) {
+      throw new CompletionException(e);
+    } finally {
+      interceptor.postProcess(request, task, null);
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package com.example.test.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class RunningStatementsTest {
+
+  // Counts 10^10 joined rows, far longer than any test is willing to wait
+  private static final String ENDLESS_QUERY =
+      "SELECT COUNT(*) FROM SYSTEM_RANGE(1, 100000) a, SYSTEM_RANGE(1, 100000) b";
+
+  @Autowired private DataSource dataSource;
+
+  @Test
+  @DisplayName("running statement is cancelled from another thread")
+  void runningStatementIsCancelledFromAnotherThread() throws Exception {
+    var runningStatements = new RunningStatements();
+    var query = CompletableFuture.runAsync(() -> executeBound(runningStatements));
+
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!runningStatements.isRunning() && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(runningStatements.isRunning()).isTrue();
+    // Usually lands before H2 starts executing, which ignores it unless the cancel is repeated
+    runningStatements.cancel();
+
+    assertThatThrownBy(() -> query.get(5, TimeUnit.SECONDS))
+        .isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(SQLException.class);
+    assertThat(runningStatements.isRunning()).isFalse();
+  }
+
+  @Test
+  @DisplayName("statement started after cancellation is not executed")
+  void statementStartedAfterCancellationIsNotExecuted() {
+    var runningStatements = new RunningStatements();
+    runningStatements.cancel();
+
+    assertThatThrownBy(() -> executeBound(runningStatements))
+        .isInstanceOf(CancellationException.class);
+  }
+
+  @Test
+  @DisplayName("statement cancelled before its execution begins is still cancelled")
+  void statementCancelledBeforeItsExecutionBeginsIsStillCancelled() throws SQLException {
+    var runningStatements = new RunningStatements();
+    // A plain H2 connection, so execution is not tracked and refused again by the proxy
+    try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:early-cancel");
+        Statement statement = connection.createStatement()) {
+      runningStatements.bind();
+      RunningStatements.started(statement);
+      runningStatements.cancel();
+
+      assertTimeoutPreemptively(
+          Duration.ofSeconds(5),
+          () ->
+              assertThatThrownBy(() -> statement.executeQuery(ENDLESS_QUERY))
+                  .isInstanceOf(SQLException.class));
+    } finally {
+      runningStatements.unbind();
+    }
+  }
+
+  private void executeBound(RunningStatements runningStatements) {
+    runningStatements.bind();
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.executeQuery(ENDLESS_QUERY);
+    } catch (SQLException e) {
+      throw new CompletionException(e);
+    } finally {
+      runningStatements.unbind();
+    }
+  }
+}
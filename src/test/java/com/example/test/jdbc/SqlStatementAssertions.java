@@ -0,0 +1,45 @@
+package com.example.test.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import net.ttddyy.dsproxy.QueryType;
+
+/** Fluent assertions over the statements a {@link SqlStatementRecorder.Recording} captured. */
+final class SqlStatementAssertions {
+
+  private final SqlStatementRecorder.Recording recording;
+
+  private SqlStatementAssertions(SqlStatementRecorder.Recording recording) {
+    this.recording = recording;
+  }
+
+  static SqlStatementAssertions assertThatStatements(SqlStatementRecorder.Recording recording) {
+    return new SqlStatementAssertions(recording);
+  }
+
+  SqlStatementAssertions hasSelects(long expected) {
+    return has(QueryType.SELECT, expected);
+  }
+
+  SqlStatementAssertions hasInserts(long expected) {
+    return has(QueryType.INSERT, expected);
+  }
+
+  SqlStatementAssertions hasUpdates(long expected) {
+    return has(QueryType.UPDATE, expected);
+  }
+
+  SqlStatementAssertions hasDeletes(long expected) {
+    return has(QueryType.DELETE, expected);
+  }
+
+  SqlStatementAssertions hasTotal(long expected) {
+    assertThat(recording.total()).as("total statements").isEqualTo(expected);
+    return this;
+  }
+
+  private SqlStatementAssertions has(QueryType type, long expected) {
+    assertThat(recording.count(type)).as("%s statements", type).isEqualTo(expected);
+    return this;
+  }
+}
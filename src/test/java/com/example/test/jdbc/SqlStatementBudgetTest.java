@@ -0,0 +1,150 @@
+package com.example.test.jdbc;
+
+import static com.example.test.jdbc.SqlStatementAssertions.assertThatStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpHeaders.LOCATION;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SqlStatementBudgetTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  @Test
+  @DisplayName("range query executes a single select")
+  void rangeQueryExecutesSingleSelect() throws Exception {
+    try (var recording = SqlStatementRecorder.start()) {
+      performAsync(get("/users").param("from", "01-01-1990").param("to", "31-12-1995"))
+          .andExpect(status().isOk());
+      assertThatStatements(recording).hasSelects(1).hasTotal(1);
+    }
+  }
+
+  @Test
+  @DisplayName("multi-window query executes a single select")
+  void multiWindowQueryExecutesSingleSelect() throws Exception {
+    try (var recording = SqlStatementRecorder.start()) {
+      performAsync(
+              post("/users/windows")
+                  .contentType(APPLICATION_JSON)
+                  .content(
+                      """
+                      [{"from":"01-01-1960","to":"31-12-1970"},\
+                      {"from":"01-01-1990","to":"31-12-1995"}]"""))
+          .andExpect(status().isOk());
+      assertThatStatements(recording).hasSelects(1).hasTotal(1);
+    }
+  }
+
+  @Test
+  @DisplayName("create executes the user insert and the change log insert")
+  void createExecutesTwoInserts() throws Exception {
+    try (var recording = SqlStatementRecorder.start()) {
+      create("budget.create@gmail.com");
+      assertThatStatements(recording).hasInserts(2).hasTotal(2);
+    }
+  }
+
+  @Test
+  @DisplayName("full and partial update load, update and log the user")
+  void updateExecutesSelectUpdateInsert() throws Exception {
+    String location = create("budget.update@gmail.com");
+    try (var recording = SqlStatementRecorder.start()) {
+      mockMvc
+          .perform(put(location).contentType(APPLICATION_JSON).content(user("budget.put@gmail.com")))
+          .andExpect(status().isOk());
+      assertThatStatements(recording).hasSelects(1).hasUpdates(1).hasInserts(1).hasTotal(3);
+    }
+    try (var recording = SqlStatementRecorder.start()) {
+      mockMvc
+          .perform(
+              patch(location)
+                  .contentType(APPLICATION_JSON)
+                  .content("{\"firstName\":\"Patched\",\"birthDate\":\"20-04-2000\"}"))
+          .andExpect(status().isOk());
+      assertThatStatements(recording).hasSelects(1).hasUpdates(1).hasInserts(1).hasTotal(3);
+    }
+  }
+
+  @Test
+  @DisplayName("delete loads, deletes and logs the user")
+  void deleteExecutesSelectDeleteInsert() throws Exception {
+    String location = create("budget.delete@gmail.com");
+    try (var recording = SqlStatementRecorder.start()) {
+      mockMvc.perform(delete(location)).andExpect(status().isOk());
+      assertThatStatements(recording).hasSelects(1).hasDeletes(1).hasInserts(1).hasTotal(3);
+    }
+  }
+
+  @Test
+  @DisplayName("statement counts are published per request and per service method")
+  void statementCountsArePublished() throws Exception {
+    create("budget.metrics@gmail.com");
+    assertThat(
+            meterRegistry
+                .get("http.server.requests.jdbc.statements")
+                .tag("method", "POST")
+                .tag("uri", "/users")
+                .tag("type", "INSERT")
+                .summary()
+                .totalAmount())
+        .isGreaterThanOrEqualTo(2);
+    assertThat(
+            meterRegistry
+                .get("service.jdbc.statements")
+                .tag("service", "UserService")
+                .tag("method", "create")
+                .tag("type", "INSERT")
+                .summary()
+                .totalAmount())
+        .isGreaterThanOrEqualTo(2);
+    assertThat(meterRegistry.get("jdbc.statements").tag("type", "INSERT").timer().count())
+        .isGreaterThanOrEqualTo(2);
+  }
+
+  private String create(String email) throws Exception {
+    String location =
+        mockMvc
+            .perform(post("/users").contentType(APPLICATION_JSON).content(user(email)))
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getHeader(LOCATION);
+    return location.substring(location.indexOf("/users"));
+  }
+
+  private static String user(String email) {
+    return """
+        {"email":"%s","firstName":"Budget","lastName":"Test","birthDate":"20-04-2000",\
+        "address":"Budget street 1","phoneNumber":"+380991112233"}"""
+        .formatted(email);
+  }
+
+  private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+    MvcResult mvcResult =
+        mockMvc.perform(requestBuilder).andExpect(request().asyncStarted()).andReturn();
+    return mockMvc.perform(asyncDispatch(mvcResult));
+  }
+}
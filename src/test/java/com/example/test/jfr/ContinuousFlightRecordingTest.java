@@ -0,0 +1,43 @@
+package com.example.test.jfr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ContinuousFlightRecordingTest {
+
+  @TempDir private Path tempDir;
+
+  @Test
+  @DisplayName("bundled settings enable application, JDBC and allocation events")
+  void bundledSettingsEnableApplicationJdbcAndAllocationEvents() {
+    Map<String, String> settings = ContinuousFlightRecording.settings().getSettings();
+
+    assertThat(settings)
+        .containsEntry("com.example.user.Request#enabled", "true")
+        .containsEntry("com.example.user.RangeQuery#enabled", "true")
+        .containsEntry("com.example.user.Write#enabled", "true")
+        .containsEntry("com.example.user.AgeCheck#enabled", "true")
+        .containsEntry("com.example.jdbc.Statement#enabled", "true")
+        .containsEntry("jdk.ObjectAllocationSample#enabled", "true");
+  }
+
+  @Test
+  @DisplayName("when stopped then recording is written to destination")
+  void whenStoppedThenRecordingIsWrittenToDestination() throws Exception {
+    Path destination = tempDir.resolve("recordings/user-service.jfr");
+    var recording = new ContinuousFlightRecording(destination, Duration.ofMinutes(1));
+
+    recording.start();
+    recording.stop();
+
+    assertThat(recording.isRunning()).isFalse();
+    assertThat(Files.size(destination)).isPositive();
+  }
+}
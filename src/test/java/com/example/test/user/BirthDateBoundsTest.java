@@ -0,0 +1,96 @@
+package com.example.test.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BirthDateBoundsTest {
+
+  private static final ZoneId ZONE = ZoneOffset.UTC;
+
+  @Test
+  @DisplayName("when translating ages then bounds match Period.between for every day around them")
+  void whenTranslatingAgesThenBoundsMatchPeriodBetween() {
+    for (LocalDate today :
+        new LocalDate[] {
+          LocalDate.of(2025, 2, 28), LocalDate.of(2025, 3, 1), LocalDate.of(2024, 2, 29)
+        }) {
+      var bounds = new BirthDateBounds(fixedAt(today));
+      DateRange range = bounds.forAges(25, 34);
+      for (LocalDate birthDate = range.from().minusDays(3);
+          !birthDate.isAfter(range.to().plusDays(3));
+          birthDate = birthDate.plusDays(1)) {
+        int age = Period.between(birthDate, today).getYears();
+        boolean inRange = !birthDate.isBefore(range.from()) && !birthDate.isAfter(range.to());
+        assertEquals(age >= 25 && age <= 34, inRange, "born " + birthDate + " on " + today);
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("when leap day birthday is missing then the birthday falls on 1 March")
+  void whenLeapDayBirthdayIsMissingThenBirthdayFallsOnFirstOfMarch() {
+    var leapDay = LocalDate.of(2000, 2, 29);
+    var onFebruary28 = new BirthDateBounds(fixedAt(LocalDate.of(2018, 2, 28)));
+    var onMarch1 = new BirthDateBounds(fixedAt(LocalDate.of(2018, 3, 1)));
+
+    assertEquals(LocalDate.of(2000, 2, 28), onFebruary28.latestBirthDate(18));
+    assertEquals(true, leapDay.isAfter(onFebruary28.latestBirthDate(18)));
+    assertEquals(LocalDate.of(2000, 3, 1), onMarch1.latestBirthDate(18));
+  }
+
+  @Test
+  @DisplayName("when the day changes then bounds are recomputed")
+  void whenTheDayChangesThenBoundsAreRecomputed() {
+    var clock = new MutableClock(LocalDate.of(2025, 6, 30).atTime(23, 59).atZone(ZONE).toInstant());
+    var bounds = new BirthDateBounds(clock);
+    assertEquals(LocalDate.of(2007, 6, 30), bounds.latestBirthDate(18));
+
+    clock.instant = clock.instant.plusSeconds(60);
+    assertEquals(LocalDate.of(2007, 7, 1), bounds.latestBirthDate(18));
+  }
+
+  @Test
+  @DisplayName("when age is out of the supported range then throw IllegalArgumentException")
+  void whenAgeIsOutOfRangeThenThrowIllegalArgumentException() {
+    var bounds = new BirthDateBounds(fixedAt(LocalDate.of(2025, 1, 1)));
+    assertThrows(IllegalArgumentException.class, () -> bounds.forAges(0, 151));
+    assertThrows(IllegalArgumentException.class, () -> bounds.latestBirthDate(-1));
+  }
+
+  private static Clock fixedAt(LocalDate today) {
+    return Clock.fixed(today.atTime(12, 0).atZone(ZONE).toInstant(), ZONE);
+  }
+
+  private static final class MutableClock extends Clock {
+
+    private Instant instant;
+
+    private MutableClock(Instant instant) {
+      this.instant = instant;
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZONE;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+}
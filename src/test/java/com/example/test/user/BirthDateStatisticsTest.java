@@ -0,0 +1,92 @@
+package com.example.test.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BirthDateStatisticsTest {
+
+  private final UserRepository userRepository = mock(UserRepository.class);
+
+  private final BirthDateStatistics statistics = new BirthDateStatistics(userRepository, 32, 0.2);
+
+  @AfterEach
+  void close() {
+    statistics.close();
+  }
+
+  @Test
+  @DisplayName("when users are skewed then estimates follow the skew")
+  void whenUsersAreSkewedThenEstimatesFollowTheSkew() {
+    // One user a day from 1950 to 1989, ten a day through the 1990s
+    var days = new ArrayList<BirthDateCount>();
+    addDaily(days, LocalDate.of(1950, 1, 1), LocalDate.of(1990, 1, 1), 1);
+    addDaily(days, LocalDate.of(1990, 1, 1), LocalDate.of(2000, 1, 1), 10);
+    when(userRepository.countByBirthDate()).thenReturn(days);
+    statistics.load();
+
+    long fifties =
+        statistics.estimateBetween(LocalDate.of(1950, 1, 1), LocalDate.of(1959, 12, 31));
+    long nineties =
+        statistics.estimateBetween(LocalDate.of(1990, 1, 1), LocalDate.of(1999, 12, 31));
+    long june1995 =
+        statistics.estimateBetween(LocalDate.of(1995, 6, 1), LocalDate.of(1995, 6, 30));
+
+    // Only the bucket straddling 1990 mixes both densities
+    assertWithin(3652, fifties, 0.02);
+    assertWithin(36520, nineties, 0.05);
+    assertWithin(300, june1995, 0.02);
+    assertEquals(51130, statistics.estimateTotal());
+  }
+
+  @Test
+  @DisplayName("when users change then bucket counts follow their birth dates")
+  void whenUsersChangeThenBucketCountsFollowTheirBirthDates() {
+    when(userRepository.countByBirthDate())
+        .thenReturn(
+            List.of(
+                new BirthDateCount(LocalDate.of(1990, 1, 1), 100L),
+                new BirthDateCount(LocalDate.of(1991, 1, 1), 100L)));
+    statistics.load();
+    var born = LocalDate.of(1990, 1, 1);
+    var corrected = LocalDate.of(2005, 6, 1);
+
+    statistics.onUserChanged(new UserChangedEvent(1, UserChange.Type.UPDATED, 1, born, corrected));
+    statistics.onUserChanged(new UserChangedEvent(2, UserChange.Type.DELETED, 2, born, null));
+
+    assertEquals(98, statistics.estimateBetween(born, LocalDate.of(1990, 12, 31)));
+    assertTrue(statistics.estimateBetween(corrected.minusYears(1), corrected.plusYears(1)) > 0);
+    assertEquals(199, statistics.estimateTotal());
+  }
+
+  @Test
+  @DisplayName("when no users then estimate none")
+  void whenNoUsersThenEstimateNone() {
+    when(userRepository.countByBirthDate()).thenReturn(List.of());
+    statistics.load();
+
+    assertEquals(0, statistics.estimateBetween(LocalDate.of(1900, 1, 1), LocalDate.now()));
+    assertEquals(0, statistics.estimateTotal());
+  }
+
+  private static void addDaily(
+      List<BirthDateCount> days, LocalDate from, LocalDate until, long count) {
+    for (LocalDate day = from; day.isBefore(until); day = day.plusDays(1)) {
+      days.add(new BirthDateCount(day, count));
+    }
+  }
+
+  private static void assertWithin(long expected, long actual, double tolerance) {
+    assertTrue(
+        Math.abs(actual - expected) <= expected * tolerance,
+        "expected about " + expected + " but was " + actual);
+  }
+}
@@ -0,0 +1,91 @@
+package com.example.test.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BirthdayWindowTest {
+
+  @Test
+  @DisplayName("when window stays within the year then it is one key range")
+  void whenWindowStaysWithinYearThenOneKeyRange() {
+    var window = BirthdayWindow.starting(LocalDate.of(2025, 1, 28), 7);
+
+    assertEquals(List.of(new BirthdayWindow.KeyRange(128, 203)), window.keyRanges());
+  }
+
+  @Test
+  @DisplayName("when window wraps past 31 December then it is two key ranges")
+  void whenWindowWrapsPastNewYearThenTwoKeyRanges() {
+    var window = BirthdayWindow.starting(LocalDate.of(2025, 12, 28), 7);
+
+    assertEquals(
+        List.of(new BirthdayWindow.KeyRange(1228, 1231), new BirthdayWindow.KeyRange(101, 103)),
+        window.keyRanges());
+    assertEquals(LocalDate.of(2026, 1, 2), window.birthdayOf(LocalDate.of(1990, 1, 2)));
+    assertEquals(LocalDate.of(2025, 12, 30), window.birthdayOf(LocalDate.of(1990, 12, 30)));
+  }
+
+  @Test
+  @DisplayName("when window covers a whole year then it is every key")
+  void whenWindowCoversWholeYearThenEveryKey() {
+    var window = BirthdayWindow.starting(LocalDate.of(2025, 6, 1), 365);
+
+    assertEquals(List.of(new BirthdayWindow.KeyRange(101, 1231)), window.keyRanges());
+  }
+
+  @Test
+  @DisplayName("when leap day is missing then leap day birthdays fall on 1 March")
+  void whenLeapDayIsMissingThenLeapDayBirthdaysFallOnFirstOfMarch() {
+    var leapDay = LocalDate.of(2000, 2, 29);
+    var fromFebruary28 = BirthdayWindow.starting(LocalDate.of(2025, 2, 28), 1);
+    var fromMarch1 = BirthdayWindow.starting(LocalDate.of(2025, 3, 1), 1);
+    var inLeapYear = BirthdayWindow.starting(LocalDate.of(2024, 2, 29), 1);
+
+    assertEquals(List.of(new BirthdayWindow.KeyRange(228, 228)), fromFebruary28.keyRanges());
+    assertNull(fromFebruary28.birthdayOf(leapDay));
+    assertEquals(List.of(new BirthdayWindow.KeyRange(229, 301)), fromMarch1.keyRanges());
+    assertEquals(LocalDate.of(2025, 3, 1), fromMarch1.birthdayOf(leapDay));
+    assertEquals(List.of(new BirthdayWindow.KeyRange(229, 229)), inLeapYear.keyRanges());
+    assertEquals(LocalDate.of(2024, 2, 29), inLeapYear.birthdayOf(leapDay));
+  }
+
+  @Test
+  @DisplayName("when matching every birth date then key ranges and birthdays agree")
+  void whenMatchingEveryBirthDateThenKeyRangesAndBirthdaysAgree() {
+    for (LocalDate today :
+        new LocalDate[] {
+          LocalDate.of(2025, 2, 25), LocalDate.of(2024, 2, 25), LocalDate.of(2025, 12, 29)
+        }) {
+      for (int days : new int[] {1, 7, 31}) {
+        var window = BirthdayWindow.starting(today, days);
+        for (LocalDate birthDate = LocalDate.of(1996, 1, 1);
+            birthDate.getYear() < 1998;
+            birthDate = birthDate.plusDays(1)) {
+          int key = BirthdayWindow.key(birthDate);
+          boolean keyMatches =
+              window.keyRanges().stream().anyMatch(keys -> key >= keys.from() && key <= keys.to());
+          LocalDate birthday = window.birthdayOf(birthDate);
+          String context = "born " + birthDate + ", " + days + " days from " + today;
+          assertEquals(keyMatches, birthday != null, context);
+          if (birthday != null) {
+            assertEquals(true, !birthday.isBefore(today) && !birthday.isAfter(window.last()));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("when days are out of range then throw IllegalArgumentException")
+  void whenDaysAreOutOfRangeThenThrowIllegalArgumentException() {
+    var today = LocalDate.of(2025, 1, 1);
+    assertThrows(IllegalArgumentException.class, () -> BirthdayWindow.starting(today, 0));
+    assertThrows(IllegalArgumentException.class, () -> BirthdayWindow.starting(today, 367));
+  }
+}
@@ -0,0 +1,86 @@
+package com.example.test.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CompactUserRowsTest {
+
+  @Test
+  @DisplayName("when users are stored then they decode to the same values")
+  void whenUsersAreStoredThenTheyDecodeToTheSameValues() {
+    var rows = new CompactUserRows(1024);
+    var full =
+        new UserDTO(
+            1,
+            "dummy.1@gmail.com",
+            "Dummy",
+            "Bot",
+            LocalDate.of(2000, 1, 1),
+            "12 Main St, Kyiv, ",
+            "+380123456789");
+    var sparse = new UserDTO(2, "no-domain", null, "Bot", null, null, null);
+
+    assertTrue(rows.put(full));
+    assertTrue(rows.put(sparse));
+
+    assertEquals(full, rows.get(1));
+    assertEquals(sparse, rows.get(2));
+    assertNull(rows.get(3));
+    assertNull(rows.get(1 << 20));
+  }
+
+  @Test
+  @DisplayName("when values repeat then dictionaries hold them once")
+  void whenValuesRepeatThenDictionariesHoldThemOnce() {
+    var rows = new CompactUserRows(1024);
+    for (int id = 0; id < 100; id++) {
+      rows.put(
+          new UserDTO(
+              id,
+              "user." + id + "@gmail.com",
+              "Dummy",
+              "Bot",
+              LocalDate.of(2000, 1, 1),
+              (id % 3) + " Main St, Kyiv",
+              "phone"));
+    }
+
+    // Dummy, Bot, gmail.com, Kyiv and three house numbers on Main St
+    assertEquals(7, rows.dictionarySize());
+  }
+
+  @Test
+  @DisplayName("when ids are looked up then found users are returned in request order")
+  void whenIdsAreLookedUpThenFoundUsersAreReturnedInRequestOrder() {
+    var rows = new CompactUserRows(1024);
+    rows.put(new UserDTO(5000, "a@gmail.com", "A", "Bot", LocalDate.of(1990, 1, 1), null, null));
+    rows.put(new UserDTO(7, "b@gmail.com", "B", "Bot", LocalDate.of(1990, 1, 2), null, null));
+    rows.put(new UserDTO(9, "c@gmail.com", "C", "Bot", LocalDate.of(1990, 1, 3), null, null));
+    rows.remove(9);
+
+    List<Integer> missingIds = new ArrayList<>();
+    var users = rows.findAllById(List.of(7, 9, 42, 5000), missingIds);
+
+    assertEquals(List.of(7, 5000), users.stream().map(UserDTO::getId).toList());
+    assertEquals(List.of(9, 42), missingIds);
+    assertEquals("a@gmail.com", users.get(1).getEmail());
+  }
+
+  @Test
+  @DisplayName("when a dictionary is full then the user is not stored")
+  void whenADictionaryIsFullThenTheUserIsNotStored() {
+    var rows = new CompactUserRows(2);
+    assertTrue(rows.put(new UserDTO(1, "a@gmail.com", "Dummy", "Bot", null, null, null)));
+
+    assertFalse(rows.put(new UserDTO(1, "a@gmail.com", "Mark", "Bot", null, null, null)));
+    assertNull(rows.get(1));
+  }
+}
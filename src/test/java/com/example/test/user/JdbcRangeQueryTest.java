@@ -0,0 +1,63 @@
+package com.example.test.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest(properties = "application.range-query.jdbc.enabled=true")
+@Transactional(readOnly = true)
+class JdbcRangeQueryTest {
+
+  private static final Comparator<UserDTO> BY_BIRTH_DATE_AND_ID =
+      Comparator.comparing(UserDTO::getBirthDate).thenComparing(UserDTO::getId);
+
+  @Autowired private JdbcRangeQuery jdbcRangeQuery;
+
+  @Autowired private UserRepository userRepository;
+
+  @Test
+  @DisplayName("when range queried then return same users as JPA query")
+  void whenRangeQueriedThenReturnSameUsersAsJpaQuery() {
+    final LocalDate from = LocalDate.of(1900, 1, 1);
+    final LocalDate to = LocalDate.now();
+
+    var users = jdbcRangeQuery.findAllByBirthDateBetween(from, to, 0);
+
+    assertFalse(users.isEmpty());
+    assertEquals(
+        userRepository.findAllByBirthDateBetweenOrdered(from, to),
+        users.stream().sorted(BY_BIRTH_DATE_AND_ID).toList());
+  }
+
+  @Test
+  @DisplayName("when first users queried descending then return same users as JPA query")
+  void whenFirstUsersQueriedDescendingThenReturnSameUsersAsJpaQuery() {
+    final LocalDate from = LocalDate.of(1900, 1, 1);
+    final LocalDate to = LocalDate.now();
+    var sort = Sort.by(Sort.Direction.DESC, "birthDate", "id");
+
+    var users = jdbcRangeQuery.findFirstByBirthDateBetween(from, to, true, 3, 3);
+
+    assertEquals(3, users.size());
+    assertEquals(
+        userRepository.findAllByBirthDateBetween(from, to, PageRequest.of(0, 3, sort)), users);
+  }
+
+  @Test
+  @DisplayName("when range is empty then return no users")
+  void whenRangeIsEmptyThenReturnNoUsers() {
+    final LocalDate day = LocalDate.of(1800, 1, 1);
+
+    assertEquals(List.of(), jdbcRangeQuery.findAllByBirthDateBetween(day, day, 0));
+  }
+}
@@ -0,0 +1,78 @@
+package com.example.test.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(
+    properties = {
+      "application.range-query.parallel.enabled=true",
+      "application.range-query.parallel.min-rows-to-split=1",
+      "application.range-query.parallel.max-parallelism=3"
+    })
+class ParallelRangeQueryTest {
+
+  @Autowired private ParallelRangeQuery parallelRangeQuery;
+
+  @Autowired private UserRepository userRepository;
+
+  @Test
+  @DisplayName("when range holds fewer rows than threshold then keep it whole")
+  void whenRangeHoldsFewerRowsThanThresholdThenKeepItWhole() {
+    final LocalDate from = LocalDate.of(1990, 1, 1);
+    final LocalDate to = LocalDate.of(2000, 1, 1);
+
+    var ranges =
+        ParallelRangeQuery.split(
+            from, to, List.of(new BirthYearCount(1990, 5L), new BirthYearCount(1999, 5L)), 4, 100);
+
+    assertEquals(List.of(new DateRange(from, to)), ranges);
+  }
+
+  @Test
+  @DisplayName("when range is wide then split on year boundaries by row count")
+  void whenRangeIsWideThenSplitOnYearBoundariesByRowCount() {
+    final LocalDate from = LocalDate.of(1950, 3, 1);
+    final LocalDate to = LocalDate.of(2003, 6, 1);
+    var yearCounts =
+        List.of(
+            new BirthYearCount(1950, 10L),
+            new BirthYearCount(1970, 40L),
+            new BirthYearCount(1990, 30L),
+            new BirthYearCount(2000, 10L),
+            new BirthYearCount(2003, 30L));
+
+    var ranges = ParallelRangeQuery.split(from, to, yearCounts, 3, 1);
+
+    assertEquals(
+        List.of(
+            new DateRange(from, LocalDate.of(1970, 12, 31)),
+            new DateRange(LocalDate.of(1971, 1, 1), LocalDate.of(2000, 12, 31)),
+            new DateRange(LocalDate.of(2001, 1, 1), to)),
+        ranges);
+  }
+
+  @Test
+  @DisplayName("when splits would take connections the workers need then allow fewer")
+  void whenSplitsWouldTakeConnectionsTheWorkersNeedThenAllowFewer() {
+    assertEquals(7, ParallelRangeQuery.concurrentSplits(0, 3, 10));
+    assertEquals(7, ParallelRangeQuery.concurrentSplits(20, 3, 10));
+    assertEquals(2, ParallelRangeQuery.concurrentSplits(2, 3, 10));
+  }
+
+  @Test
+  @DisplayName("when query runs split then return same users in birth date order")
+  void whenQueryRunsSplitThenReturnSameUsersInBirthDateOrder() {
+    final LocalDate from = LocalDate.of(1900, 1, 1);
+    final LocalDate to = LocalDate.now();
+
+    var users = parallelRangeQuery.findAllByBirthDateBetween(from, to);
+
+    assertEquals(userRepository.findAllByBirthDateBetweenOrdered(from, to), users);
+  }
+}
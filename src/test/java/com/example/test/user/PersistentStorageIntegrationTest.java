@@ -0,0 +1,60 @@
+package com.example.test.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.test.TestApplication;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+class PersistentStorageIntegrationTest {
+
+  @TempDir private Path storageDir;
+
+  @Test
+  @DisplayName("when application restarts on persistent storage then users survive")
+  void whenApplicationRestartsOnPersistentStorageThenUsersSurvive() {
+    Integer id;
+    try (var context = start()) {
+      id =
+          context
+              .getBean(UserService.class)
+              .create(
+                  new UserDTO(
+                      "durable.1@gmail.com",
+                      "Mark",
+                      "Jovar",
+                      LocalDate.of(1990, 5, 5),
+                      null,
+                      null));
+    }
+    assertTrue(Files.exists(storageDir.resolve("users.mv.db")));
+
+    try (var context = start()) {
+      var users =
+          context
+              .getBean(UserService.class)
+              .getAllByDateBetween(LocalDate.of(1990, 5, 5), LocalDate.of(1990, 5, 5));
+      assertEquals(1, users.size());
+      assertEquals(id, users.get(0).getId());
+      assertEquals(
+          "2", context.getBean(Flyway.class).info().current().getVersion().getVersion());
+    }
+  }
+
+  private ConfigurableApplicationContext start() {
+    return new SpringApplicationBuilder(TestApplication.class)
+        .profiles("persistent")
+        .run(
+            "--server.port=0",
+            "--application.storage.path=" + storageDir.resolve("users"),
+            "--application.storage.write-delay-ms=0");
+  }
+}
@@ -0,0 +1,90 @@
+package com.example.test.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+
+@SpringBootTest(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:coalescing;DB_CLOSE_DELAY=-1",
+      "application.range-query.coalescing.enabled=true"
+    })
+class RangeQueryCoalescerIntegrationTest {
+
+  private static final LocalDate FROM = LocalDate.of(1900, 1, 1);
+  private static final LocalDate TO = LocalDate.of(2000, 1, 1);
+  private static final int FOLLOWERS = 3;
+
+  @Autowired private UserService userService;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  @SpyBean private UserRepository userRepository;
+
+  @Test
+  @DisplayName("when range queries are coalesced then only the leader holds a connection")
+  void whenRangeQueriesAreCoalescedThenOnlyLeaderHoldsConnection() throws Exception {
+    List<UserDTO> stored = userRepository.findAllByBirthDateBetween(FROM, TO);
+    clearInvocations(userRepository);
+    var querying = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    doAnswer(
+            invocation -> {
+              querying.countDown();
+              release.await(5, TimeUnit.SECONDS);
+              return stored;
+            })
+        .when(userRepository)
+        .findAllByBirthDateBetween(any(), any());
+    double coalescedBefore = coalesced();
+
+    var leader = CompletableFuture.supplyAsync(() -> userService.getAllByDateBetween(FROM, TO));
+    assertTrue(querying.await(5, TimeUnit.SECONDS));
+    List<CompletableFuture<List<UserDTO>>> followers = new ArrayList<>();
+    for (int i = 0; i < FOLLOWERS; i++) {
+      followers.add(
+          CompletableFuture.supplyAsync(() -> userService.getAllByDateBetween(FROM, TO)));
+    }
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (coalesced() < coalescedBefore + FOLLOWERS && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(coalescedBefore + FOLLOWERS, coalesced());
+
+    assertEquals(1, activeConnections());
+
+    release.countDown();
+    List<UserDTO> users = leader.get(5, TimeUnit.SECONDS);
+    assertEquals(stored, users);
+    for (CompletableFuture<List<UserDTO>> follower : followers) {
+      assertSame(users, follower.get(5, TimeUnit.SECONDS));
+    }
+    verify(userRepository, times(1)).findAllByBirthDateBetween(any(), any());
+  }
+
+  private double coalesced() {
+    return meterRegistry.get("user.range-query.coalesced").counter().count();
+  }
+
+  private double activeConnections() {
+    return meterRegistry.get("hikaricp.connections.active").gauge().value();
+  }
+}
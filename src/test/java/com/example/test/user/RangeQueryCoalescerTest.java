@@ -0,0 +1,196 @@
+package com.example.test.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.test.exception.InvalidDateRangeException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+class RangeQueryCoalescerTest {
+
+  private static final DateRange RANGE =
+      new DateRange(LocalDate.of(1990, 1, 1), LocalDate.of(2000, 1, 1));
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final RangeQueryCoalescer coalescer = new RangeQueryCoalescer(meterRegistry);
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+  @AfterEach
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  @DisplayName("when identical queries overlap then run query once and share result")
+  void whenIdenticalQueriesOverlapThenRunQueryOnceAndShareResult() throws Exception {
+    var release = new CountDownLatch(1);
+    var queries = new AtomicInteger();
+    var users =
+        List.of(new UserDTO(1, "a@gmail.com", "A", "B", LocalDate.of(1995, 1, 1), null, null));
+    Supplier<List<UserDTO>> query =
+        () -> {
+          queries.incrementAndGet();
+          await(release);
+          return users;
+        };
+
+    List<Future<List<UserDTO>>> results = new ArrayList<>();
+    results.add(executor.submit(() -> coalescer.execute(RANGE, query)));
+    awaitQueries(queries, 1);
+    for (int i = 0; i < 7; i++) {
+      results.add(executor.submit(() -> coalescer.execute(RANGE, query)));
+    }
+    awaitCoalesced(7);
+    release.countDown();
+
+    List<UserDTO> first = results.get(0).get(5, TimeUnit.SECONDS);
+    assertEquals(users, first);
+    for (Future<List<UserDTO>> result : results) {
+      assertSame(first, result.get(5, TimeUnit.SECONDS));
+    }
+    assertEquals(1, queries.get());
+  }
+
+  @Test
+  @DisplayName("when query finished then run next query again")
+  void whenQueryFinishedThenRunNextQueryAgain() {
+    var queries = new AtomicInteger();
+    Supplier<List<UserDTO>> query =
+        () -> {
+          queries.incrementAndGet();
+          return List.of();
+        };
+
+    coalescer.execute(RANGE, query);
+    coalescer.execute(RANGE, query);
+
+    assertEquals(2, queries.get());
+    assertEquals(0, meterRegistry.counter("user.range-query.coalesced").count());
+  }
+
+  @Test
+  @DisplayName("when shared query fails then rethrow failure to every caller")
+  void whenSharedQueryFailsThenRethrowFailureToEveryCaller() throws Exception {
+    var release = new CountDownLatch(1);
+    var queries = new AtomicInteger();
+    Supplier<List<UserDTO>> query =
+        () -> {
+          queries.incrementAndGet();
+          await(release);
+          throw new InvalidDateRangeException("boom");
+        };
+
+    var leader = CompletableFuture.supplyAsync(() -> coalescer.execute(RANGE, query), executor);
+    awaitQueries(queries, 1);
+    var follower = CompletableFuture.supplyAsync(() -> coalescer.execute(RANGE, query), executor);
+    awaitCoalesced(1);
+    release.countDown();
+
+    for (var caller : List.of(leader, follower)) {
+      var e = assertThrows(ExecutionException.class, () -> caller.get(5, TimeUnit.SECONDS));
+      assertTrue(e.getCause() instanceof InvalidDateRangeException);
+    }
+  }
+
+  @Test
+  @DisplayName("when shared query is cancelled then followers run the query again")
+  void whenSharedQueryIsCancelledThenFollowersRunTheQueryAgain() throws Exception {
+    var release = new CountDownLatch(1);
+    var queries = new AtomicInteger();
+    var users =
+        List.of(new UserDTO(1, "a@gmail.com", "A", "B", LocalDate.of(1995, 1, 1), null, null));
+    Supplier<List<UserDTO>> query =
+        () -> {
+          if (queries.incrementAndGet() == 1) {
+            await(release);
+            throw new QueryTimeoutException("Statement was canceled");
+          }
+          return users;
+        };
+
+    var leader = CompletableFuture.supplyAsync(() -> coalescer.execute(RANGE, query), executor);
+    awaitQueries(queries, 1);
+    var followers = new ArrayList<CompletableFuture<List<UserDTO>>>();
+    for (int i = 0; i < 3; i++) {
+      followers.add(
+          CompletableFuture.supplyAsync(() -> coalescer.execute(RANGE, query), executor));
+    }
+    awaitCoalesced(3);
+    release.countDown();
+
+    var e = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+    assertTrue(e.getCause() instanceof QueryTimeoutException);
+    for (var follower : followers) {
+      assertEquals(users, follower.get(5, TimeUnit.SECONDS));
+    }
+    assertEquals(3, meterRegistry.counter("user.range-query.coalesced.retried").count());
+  }
+
+  @Test
+  @DisplayName("when ranges differ then run each query")
+  void whenRangesDifferThenRunEachQuery() throws Exception {
+    var release = new CountDownLatch(1);
+    var queries = new AtomicInteger();
+    Supplier<List<UserDTO>> query =
+        () -> {
+          queries.incrementAndGet();
+          await(release);
+          return List.of();
+        };
+    var other = new DateRange(RANGE.from(), RANGE.to().plusDays(1));
+
+    var first = executor.submit(() -> coalescer.execute(RANGE, query));
+    var second = executor.submit(() -> coalescer.execute(other, query));
+    awaitQueries(queries, 2);
+    release.countDown();
+    first.get(5, TimeUnit.SECONDS);
+    second.get(5, TimeUnit.SECONDS);
+
+    assertEquals(2, queries.get());
+  }
+
+  private void awaitCoalesced(int count) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (meterRegistry.counter("user.range-query.coalesced").count() < count) {
+      assertTrue(System.nanoTime() < deadline, "callers did not join the running query");
+      Thread.sleep(1);
+    }
+  }
+
+  private static void awaitQueries(AtomicInteger queries, int count) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (queries.get() < count) {
+      assertTrue(System.nanoTime() < deadline, "query did not start");
+      Thread.sleep(1);
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+}
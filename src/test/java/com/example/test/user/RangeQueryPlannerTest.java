@@ -0,0 +1,83 @@
+package com.example.test.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.example.test.exception.ResultTooLargeException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RangeQueryPlannerTest {
+
+  private static final LocalDate FROM = LocalDate.of(1950, 1, 1);
+  private static final LocalDate TO = LocalDate.of(2000, 1, 1);
+
+  private final BirthDateStatistics statistics = mock(BirthDateStatistics.class);
+
+  @Test
+  @DisplayName("when range is expected to be large then split it across connections")
+  void whenRangeIsExpectedToBeLargeThenSplitItAcrossConnections() {
+    var planner = planner(true, 0);
+    when(statistics.estimateBetween(any(), any())).thenReturn(200_000L, 10_000L);
+
+    assertEquals(
+        new RangeQueryPlanner.Plan(RangeQueryPlanner.Strategy.PARALLEL, 200_000),
+        planner.plan(FROM, TO, null));
+    assertEquals(
+        new RangeQueryPlanner.Plan(RangeQueryPlanner.Strategy.STREAMING, 10_000),
+        planner.plan(FROM, TO, null));
+  }
+
+  @Test
+  @DisplayName("when range is limited then plan an index read of at most limit users")
+  void whenRangeIsLimitedThenPlanIndexReadOfAtMostLimitUsers() {
+    var planner = planner(true, 0);
+    when(statistics.estimateBetween(any(), any())).thenReturn(200_000L);
+
+    var plan = planner.plan(FROM, TO, 100);
+
+    assertEquals(new RangeQueryPlanner.Plan(RangeQueryPlanner.Strategy.STREAMING, 100), plan);
+    assertEquals(100, plan.initialCapacity());
+  }
+
+  @Test
+  @DisplayName("when range is expected to exceed max rows then reject it unless limited")
+  void whenRangeIsExpectedToExceedMaxRowsThenRejectItUnlessLimited() {
+    var planner = planner(false, 50_000);
+    when(statistics.estimateBetween(any(), any())).thenReturn(60_000L);
+
+    var e = assertThrows(ResultTooLargeException.class, () -> planner.plan(FROM, TO, null));
+    assertEquals(
+        "Range matches about 60000 users, more than 50000; "
+            + "narrow it or page through it with sort and limit",
+        e.getMessage());
+    assertThrows(
+        ResultTooLargeException.class,
+        () -> planner.estimate(List.of(new DateRange(FROM, TO), new DateRange(FROM, TO))));
+    assertEquals(RangeQueryPlanner.Strategy.INDEXED, planner.plan(FROM, TO, 10).strategy());
+  }
+
+  @Test
+  @DisplayName("when estimate is huge then cap the initial capacity")
+  void whenEstimateIsHugeThenCapInitialCapacity() {
+    assertEquals(
+        RangeQueryPlanner.MAX_INITIAL_CAPACITY, RangeQueryPlanner.initialCapacity(1L << 40));
+  }
+
+  private RangeQueryPlanner planner(boolean optimized, long maxRows) {
+    return new RangeQueryPlanner(
+        statistics,
+        Optional.empty(),
+        Optional.empty(),
+        optimized ? Optional.of(mock(ParallelRangeQuery.class)) : Optional.empty(),
+        optimized ? Optional.of(mock(JdbcRangeQuery.class)) : Optional.empty(),
+        50_000,
+        maxRows);
+  }
+}
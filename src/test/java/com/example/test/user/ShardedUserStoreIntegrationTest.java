@@ -0,0 +1,177 @@
+package com.example.test.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.test.exception.UserNotFoundException;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:sharded-primary;DB_CLOSE_DELAY=-1",
+      "application.sharding.enabled=true",
+      "application.sharding.shards[0].url=jdbc:h2:mem:shard-0;DB_CLOSE_DELAY=-1",
+      "application.sharding.shards[0].username=sa",
+      "application.sharding.shards[0].password=sa",
+      "application.sharding.shards[0].from-year=0",
+      "application.sharding.shards[0].to-year=1979",
+      "application.sharding.shards[1].url=jdbc:h2:mem:shard-1;DB_CLOSE_DELAY=-1",
+      "application.sharding.shards[1].username=sa",
+      "application.sharding.shards[1].password=sa",
+      "application.sharding.shards[1].from-year=1980",
+      "application.sharding.shards[1].to-year=1999",
+      "application.sharding.shards[2].url=jdbc:h2:mem:shard-2;DB_CLOSE_DELAY=-1",
+      "application.sharding.shards[2].username=sa",
+      "application.sharding.shards[2].password=sa",
+      "application.sharding.shards[2].from-year=2000",
+      "application.sharding.shards[2].to-year=9999"
+    })
+class ShardedUserStoreIntegrationTest {
+
+  @Autowired private UserService userService;
+
+  @Autowired private ShardedUserStore shardedUserStore;
+
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  @Test
+  @DisplayName("when users span shards then range query merges them in birth date order")
+  void whenUsersSpanShardsThenRangeQueryMergesThemInBirthDateOrder() {
+    Integer newest = userService.create(user("merge.1@gmail.com", LocalDate.of(2001, 3, 1)));
+    Integer oldest = userService.create(user("merge.2@gmail.com", LocalDate.of(1975, 6, 1)));
+    Integer middle = userService.create(user("merge.3@gmail.com", LocalDate.of(1985, 2, 1)));
+
+    var users =
+        userService.getAllByDateBetween(LocalDate.of(1970, 1, 1), LocalDate.of(2002, 1, 1));
+
+    assertEquals(
+        List.of(oldest, middle, newest),
+        users.stream()
+            .map(UserDTO::getId)
+            .filter(id -> List.of(oldest, middle, newest).contains(id))
+            .toList());
+    for (int i = 1; i < users.size(); i++) {
+      assertTrue(UserOrdering.BIRTH_DATE_ORDER.compare(users.get(i - 1), users.get(i)) <= 0);
+    }
+  }
+
+  @Test
+  @DisplayName("when top users span shards then each shard is limited and merged in order")
+  void whenTopUsersSpanShardsThenEachShardIsLimitedAndMergedInOrder() {
+    final LocalDate from = LocalDate.of(1979, 12, 30);
+    final LocalDate to = LocalDate.of(1980, 1, 2);
+    Integer oldest = userService.create(user("top.1@gmail.com", LocalDate.of(1979, 12, 30)));
+    Integer older = userService.create(user("top.2@gmail.com", LocalDate.of(1979, 12, 31)));
+    Integer younger = userService.create(user("top.3@gmail.com", LocalDate.of(1980, 1, 1)));
+    Integer youngest = userService.create(user("top.4@gmail.com", LocalDate.of(1980, 1, 2)));
+
+    var firstDescending = userService.getAllByDateBetween(from, to, Sort.Direction.DESC, 3);
+    var firstAscending = userService.getAllByDateBetween(from, to, Sort.Direction.ASC, 3);
+
+    assertEquals(
+        List.of(youngest, younger, older), firstDescending.stream().map(UserDTO::getId).toList());
+    assertEquals(
+        List.of(oldest, older, younger), firstAscending.stream().map(UserDTO::getId).toList());
+  }
+
+  @Test
+  @DisplayName("when birth date moves to another year range then user moves shard")
+  void whenBirthDateMovesToAnotherYearRangeThenUserMovesShard() {
+    Integer id = userService.create(user("move.1@gmail.com", LocalDate.of(1960, 1, 1)));
+
+    userService.update(id, new UserDTO(null, null, null, LocalDate.of(1990, 7, 7), null, null));
+
+    var user = shardedUserStore.findById(id).orElseThrow();
+    assertEquals(LocalDate.of(1990, 7, 7), user.getBirthDate());
+    assertFalse(
+        userService.getAllByDateBetween(LocalDate.of(1960, 1, 1), LocalDate.of(1960, 1, 1)).stream()
+            .anyMatch(dto -> dto.getId().equals(id)));
+    assertTrue(
+        userService.getAllByDateBetween(LocalDate.of(1990, 7, 7), LocalDate.of(1990, 7, 7)).stream()
+            .anyMatch(dto -> dto.getId().equals(id)));
+  }
+
+  @Test
+  @DisplayName("when email already exists on another shard then reject create")
+  void whenEmailAlreadyExistsOnAnotherShardThenRejectCreate() {
+    userService.create(user("unique.1@gmail.com", LocalDate.of(1960, 1, 1)));
+
+    assertThrows(
+        DataIntegrityViolationException.class,
+        () -> userService.create(user("unique.1@gmail.com", LocalDate.of(2001, 1, 1))));
+  }
+
+  @Test
+  @DisplayName("when delete sharded user then remove it from directory and shard")
+  void whenDeleteShardedUserThenRemoveItFromDirectoryAndShard() {
+    Integer id = userService.create(user("delete.1@gmail.com", LocalDate.of(1999, 12, 31)));
+
+    userService.delete(id);
+
+    assertTrue(shardedUserStore.findById(id).isEmpty());
+    assertThrows(UserNotFoundException.class, () -> userService.delete(id));
+  }
+
+  @Test
+  @DisplayName("when transaction rolls back after a move then user is back on its old shard")
+  void whenTransactionRollsBackAfterMoveThenUserIsBackOnItsOldShard() {
+    Integer id = userService.create(user("rollback.1@gmail.com", LocalDate.of(1961, 2, 2)));
+
+    new TransactionTemplate(transactionManager)
+        .executeWithoutResult(
+            status -> {
+              var user = shardedUserStore.findById(id).orElseThrow();
+              user.setBirthDate(LocalDate.of(1991, 2, 2));
+              shardedUserStore.update(user);
+              status.setRollbackOnly();
+            });
+
+    assertEquals(
+        LocalDate.of(1961, 2, 2), shardedUserStore.findById(id).orElseThrow().getBirthDate());
+    assertFalse(
+        userService.getAllByDateBetween(LocalDate.of(1991, 2, 2), LocalDate.of(1991, 2, 2)).stream()
+            .anyMatch(dto -> dto.getId().equals(id)));
+  }
+
+  @Test
+  @DisplayName("when transaction rolls back after create or delete then shards are restored")
+  void whenTransactionRollsBackAfterCreateOrDeleteThenShardsAreRestored() {
+    Integer id = userService.create(user("rollback.2@gmail.com", LocalDate.of(1985, 3, 3)));
+    var rollback = new TransactionTemplate(transactionManager);
+
+    rollback.executeWithoutResult(
+        status -> {
+          shardedUserStore.delete(shardedUserStore.findById(id).orElseThrow());
+          shardedUserStore.insert(
+              User.builder()
+                  .email("rollback.3@gmail.com")
+                  .firstName("Shard")
+                  .lastName("User")
+                  .birthDate(LocalDate.of(1985, 3, 3))
+                  .build());
+          status.setRollbackOnly();
+        });
+
+    assertTrue(shardedUserStore.findById(id).isPresent());
+    assertEquals(
+        List.of(id),
+        userService.getAllByDateBetween(LocalDate.of(1985, 3, 3), LocalDate.of(1985, 3, 3)).stream()
+            .map(UserDTO::getId)
+            .toList());
+  }
+
+  private static UserDTO user(String email, LocalDate birthDate) {
+    return new UserDTO(email, "Shard", "User", birthDate, null, null);
+  }
+}
@@ -0,0 +1,105 @@
+package com.example.test.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:synthetic;DB_CLOSE_DELAY=-1",
+      "application.dataset.users=5000",
+      "application.dataset.chunk-size=2000"
+    })
+@ActiveProfiles("synthetic-data")
+@TestMethodOrder(OrderAnnotation.class)
+class SyntheticUserLoaderIntegrationTest {
+
+  private static final int SEEDED_USERS = 8;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  @Autowired private UserRepository userRepository;
+
+  @Test
+  @Order(1)
+  @DisplayName("when synthetic-data profile is active then users are loaded on startup")
+  void whenProfileIsActiveThenUsersAreLoadedOnStartup() {
+    assertEquals(SEEDED_USERS + 5000, countUsers());
+    assertEquals(
+        countUsers(),
+        jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT email) FROM users", Long.class));
+    LocalDate today = LocalDate.now();
+    assertEquals(
+        5000,
+        userRepository
+            .findAllByBirthDateBetween(today.minusYears(91).plusDays(1), today.minusYears(18))
+            .stream()
+            .filter(user -> user.getEmail().matches("^[\\w-.]+@([\\w-]+\\.)+[\\w-]{2,3}$"))
+            .filter(user -> user.getAddress().contains(", "))
+            .count());
+  }
+
+  @Test
+  @Order(2)
+  @DisplayName("when loading with batched statements then rows match the generator")
+  void whenLoadingWithBatchedStatementsThenRowsMatchTheGenerator() {
+    var loader =
+        new SyntheticUserLoader(
+            jdbcTemplate, transactionManager, 0, 300, SyntheticUserLoader.Mode.BATCH, 7, false, false);
+    new TransactionTemplate(transactionManager)
+        .executeWithoutResult(
+            status -> jdbcTemplate.update("DELETE FROM users WHERE email NOT LIKE 'dummy.%'"));
+    long firstIndex = maxUserId();
+    loader.load(1000);
+    assertEquals(SEEDED_USERS + 1000, countUsers());
+
+    var expected = new SyntheticUserGenerator(7, LocalDate.now()).generate(firstIndex + 999);
+    User loaded =
+        userRepository.findAll().stream()
+            .filter(user -> user.getEmail().equals(expected.email()))
+            .findFirst()
+            .orElseThrow();
+    assertEquals(expected.birthDate(), loaded.getBirthDate());
+    assertEquals(expected.address(), loaded.getAddress());
+    assertTrue(loaded.getBirthDate().isBefore(LocalDate.now().minusYears(18).plusDays(1)));
+  }
+
+  @Test
+  @Order(3)
+  @DisplayName("when loading again then new users get fresh emails")
+  void whenLoadingAgainThenNewUsersGetFreshEmails() {
+    var loader =
+        new SyntheticUserLoader(
+            jdbcTemplate, transactionManager, 0, 300, SyntheticUserLoader.Mode.CSV, 42, false, false);
+    long before = countUsers();
+
+    loader.load(500);
+
+    assertEquals(before + 500, countUsers());
+    assertEquals(
+        countUsers(),
+        jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT email) FROM users", Long.class));
+  }
+
+  private long maxUserId() {
+    return jdbcTemplate.queryForObject("SELECT MAX(id) FROM users", Long.class);
+  }
+
+  private long countUsers() {
+    return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+  }
+}
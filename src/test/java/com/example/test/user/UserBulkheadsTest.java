@@ -0,0 +1,140 @@
+package com.example.test.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+class UserBulkheadsTest {
+
+  private static final LocalDate FROM = LocalDate.of(1950, 1, 1);
+  private static final LocalDate TO = LocalDate.of(2000, 1, 1);
+
+  private final BirthDateStatistics statistics = mock(BirthDateStatistics.class);
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  private final UserBulkheads bulkheads = bulkheads(10);
+
+  @AfterEach
+  void close() {
+    release.countDown();
+    bulkheads.close();
+  }
+
+  @Test
+  @DisplayName("when range is estimated above heavy rows then run it on the heavy executor")
+  void whenRangeIsEstimatedAboveHeavyRowsThenRunItOnHeavyExecutor() throws Exception {
+    when(statistics.estimateBetween(any(), any())).thenReturn(5000L);
+
+    assertTrue(threadOf(bulkheads.forRange(FROM, TO, null)).startsWith("user-heavy-"));
+    assertTrue(threadOf(bulkheads.forRange(FROM, TO, 100)).startsWith("user-interactive-"));
+  }
+
+  @Test
+  @DisplayName("when heavy executor and its queue are full then reject and count it")
+  void whenHeavyExecutorAndQueueAreFullThenRejectAndCountIt() {
+    var heavy = bulkheads.executor(UserWorkload.HEAVY);
+    heavy.submit(this::awaitRelease);
+    heavy.submit(this::awaitRelease);
+
+    assertThrows(TaskRejectedException.class, () -> heavy.submit(this::awaitRelease));
+    assertEquals(1, rejected("heavy"));
+    assertEquals(
+        1, meterRegistry.get("user.bulkhead.queued").tag("workload", "heavy").gauge().value());
+    assertEquals(0, rejected("interactive"));
+  }
+
+  @Test
+  @DisplayName("when write permits stay taken then reject write after max wait")
+  void whenWritePermitsStayTakenThenRejectWriteAfterMaxWait() throws Exception {
+    var running = new CountDownLatch(1);
+    var write =
+        CompletableFuture.runAsync(
+            () ->
+                bulkheads.write(
+                    () -> {
+                      running.countDown();
+                      awaitRelease();
+                      return null;
+                    }));
+    assertTrue(running.await(5, TimeUnit.SECONDS));
+
+    assertThrows(TaskRejectedException.class, () -> bulkheads.write(() -> 1));
+    assertEquals(1, rejected("write"));
+
+    release.countDown();
+    write.get(5, TimeUnit.SECONDS);
+    assertEquals(2, bulkheads.write(() -> 2));
+  }
+
+  @Test
+  @DisplayName("when bulkheads take the whole connection pool then fail on startup")
+  void whenBulkheadsTakeWholeConnectionPoolThenFailOnStartup() {
+    assertThrows(IllegalStateException.class, () -> bulkheads(3));
+  }
+
+  @Test
+  @DisplayName("when background work leaves bulkheads the whole connection pool then fail")
+  void whenBackgroundWorkLeavesBulkheadsWholeConnectionPoolThenFail() {
+    BackgroundConnectionUser parallelRangeQuery = () -> 5;
+    BackgroundConnectionUser rebuilder = () -> 1;
+
+    assertThrows(
+        IllegalStateException.class, () -> bulkheads(9, List.of(parallelRangeQuery, rebuilder)));
+    bulkheads(10, List.of(parallelRangeQuery, rebuilder)).close();
+  }
+
+  private UserBulkheads bulkheads(int maximumPoolSize) {
+    return bulkheads(maximumPoolSize, List.of());
+  }
+
+  private UserBulkheads bulkheads(
+      int maximumPoolSize, List<BackgroundConnectionUser> backgroundConnectionUsers) {
+    return new UserBulkheads(
+        statistics,
+        new BirthDateBounds(),
+        meterRegistry,
+        1000,
+        1,
+        1,
+        1,
+        1,
+        Duration.ofMillis(50),
+        1,
+        1,
+        maximumPoolSize,
+        backgroundConnectionUsers);
+  }
+
+  private double rejected(String workload) {
+    return meterRegistry.counter("user.bulkhead.rejected", "workload", workload).count();
+  }
+
+  private void awaitRelease() {
+    try {
+      release.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static String threadOf(AsyncTaskExecutor executor) throws Exception {
+    return executor.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,163 @@
+package com.example.test.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+class UserChangeFeedTest {
+
+  private static final int MAX_LIMIT = 50;
+
+  private final UserChangeRepository userChangeRepository = mock(UserChangeRepository.class);
+
+  private final UserChangeFeed userChangeFeed =
+      new UserChangeFeed(
+          userChangeRepository,
+          Runnable::run,
+          MAX_LIMIT,
+          Duration.ofSeconds(30),
+          Duration.ofSeconds(30));
+
+  @AfterEach
+  void close() {
+    userChangeFeed.close();
+  }
+
+  @Test
+  @DisplayName("when poll without wait then read changes immediately with capped limit")
+  void whenPollWithoutWaitThenReadChangesImmediatelyWithCappedLimit() {
+    var change = new UserChangeDTO(1L, 1, UserChange.Type.CREATED, null, null, Instant.now());
+
+    when(userChangeRepository.findAllBySeqAfter(eq(0L), eq(PageRequest.ofSize(MAX_LIMIT))))
+        .thenReturn(List.of(change));
+
+    var result = userChangeFeed.poll(0, 1000, Duration.ZERO);
+
+    assertTrue(result.hasResult());
+    assertEquals(List.of(change), result.getResult());
+  }
+
+  @Test
+  @DisplayName("when long poll then park until newer change is committed")
+  void whenLongPollThenParkUntilNewerChangeIsCommitted() {
+    var change = new UserChangeDTO(1L, 7, UserChange.Type.DELETED, null, null, Instant.now());
+
+    when(userChangeRepository.findAllBySeqAfter(eq(0L), any())).thenReturn(List.of(change));
+
+    var result = userChangeFeed.poll(0, 10, Duration.ofSeconds(5));
+
+    assertFalse(result.hasResult());
+    verify(userChangeRepository, never()).findAllBySeqAfter(anyLong(), any());
+
+    userChangeFeed.onUserChanged(
+        new UserChangedEvent(1L, UserChange.Type.DELETED, 7, null, null));
+
+    assertTrue(result.hasResult());
+    assertEquals(List.of(change), result.getResult());
+    verify(userChangeRepository, times(1)).findAllBySeqAfter(eq(0L), any());
+  }
+
+  @Test
+  @DisplayName("when change is older than cursor then keep waiting")
+  void whenChangeIsOlderThanCursorThenKeepWaiting() {
+    when(userChangeRepository.findLatestSeq()).thenReturn(3L);
+    userChangeFeed.initLatestSeq();
+
+    var result = userChangeFeed.poll(5, 10, Duration.ofSeconds(5));
+    userChangeFeed.onUserChanged(new UserChangedEvent(4L, UserChange.Type.CREATED, 2, null, null));
+
+    assertFalse(result.hasResult());
+    verify(userChangeRepository, never()).findAllBySeqAfter(anyLong(), any());
+  }
+
+  @Test
+  @DisplayName("when earlier change is still uncommitted then stop the page before it")
+  void whenEarlierChangeIsStillUncommittedThenStopThePageBeforeIt() {
+    var first = new UserChangeDTO(1L, 1, UserChange.Type.CREATED, null, null, Instant.now());
+    var third = new UserChangeDTO(3L, 3, UserChange.Type.CREATED, null, null, Instant.now());
+
+    when(userChangeRepository.findAllBySeqAfter(eq(0L), any())).thenReturn(List.of(first, third));
+
+    var result = userChangeFeed.poll(0, 10, Duration.ZERO);
+
+    assertEquals(List.of(first), result.getResult());
+  }
+
+  @Test
+  @DisplayName("when gap outlives timeout then read past it")
+  void whenGapOutlivesTimeoutThenReadPastIt() {
+    var changedAt = Instant.now().minus(Duration.ofMinutes(1));
+    var second = new UserChangeDTO(2L, 2, UserChange.Type.CREATED, null, null, changedAt);
+    var third = new UserChangeDTO(3L, 3, UserChange.Type.CREATED, null, null, Instant.now());
+
+    var changes = UserChangeFeed.committedPrefix(0, List.of(second, third), Instant.now());
+
+    assertEquals(List.of(second, third), changes);
+  }
+
+  @Test
+  @DisplayName("when long poll only finds changes behind a gap then wait for the gap to close")
+  void whenLongPollOnlyFindsChangesBehindGapThenWaitForGapToClose() {
+    var first = new UserChangeDTO(1L, 1, UserChange.Type.CREATED, null, null, Instant.now());
+    var second = new UserChangeDTO(2L, 2, UserChange.Type.CREATED, null, null, Instant.now());
+    when(userChangeRepository.findLatestSeq()).thenReturn(2L);
+    when(userChangeRepository.findAllBySeqAfter(eq(0L), any()))
+        .thenReturn(List.of(second))
+        .thenReturn(List.of(first, second));
+    userChangeFeed.initLatestSeq();
+
+    var result = userChangeFeed.poll(0, 10, Duration.ofSeconds(5));
+
+    assertFalse(result.hasResult());
+    verify(userChangeRepository, times(1)).findAllBySeqAfter(eq(0L), any());
+
+    userChangeFeed.onUserChanged(new UserChangedEvent(1L, UserChange.Type.CREATED, 1, null, null));
+
+    assertEquals(List.of(first, second), result.getResult());
+  }
+
+  @Test
+  @DisplayName("when gap settles then wake the long poll waiting behind it")
+  void whenGapSettlesThenWakeTheLongPollWaitingBehindIt() throws InterruptedException {
+    var feed =
+        new UserChangeFeed(
+            userChangeRepository,
+            Runnable::run,
+            MAX_LIMIT,
+            Duration.ofSeconds(30),
+            Duration.ofMillis(200));
+    var second = new UserChangeDTO(2L, 2, UserChange.Type.CREATED, null, null, Instant.now());
+    when(userChangeRepository.findLatestSeq()).thenReturn(2L);
+    when(userChangeRepository.findAllBySeqAfter(eq(0L), any())).thenReturn(List.of(second));
+    feed.initLatestSeq();
+    try {
+      var result = feed.poll(0, 10, Duration.ofSeconds(5));
+      assertFalse(result.hasResult());
+
+      for (int i = 0; i < 500 && !result.hasResult(); i++) {
+        Thread.sleep(10);
+      }
+
+      assertEquals(List.of(second), result.getResult());
+      verify(userChangeRepository, times(2)).findAllBySeqAfter(eq(0L), any());
+    } finally {
+      feed.close();
+    }
+  }
+}
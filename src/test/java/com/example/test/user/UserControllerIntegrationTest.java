@@ -1,9 +1,12 @@
 package com.example.test.user;
 
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.http.HttpHeaders.LOCATION;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
@@ -12,11 +15,13 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
@@ -24,6 +29,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -249,8 +257,7 @@ class UserControllerIntegrationTest {
     final LocalDate to = LocalDate.now();
     final DateTimeFormatter pattern = DateTimeFormatter.ofPattern("dd-MM-yyyy");
 
-    mockMvc
-        .perform(get("/users").param("from", from.format(pattern)).param("to", to.format(pattern)))
+    performAsync(get("/users").param("from", from.format(pattern)).param("to", to.format(pattern)))
         .andExpectAll(
             status().isOk(),
             content().contentType(APPLICATION_JSON),
@@ -266,8 +273,7 @@ class UserControllerIntegrationTest {
     final String exceptionMessage = "DateFrom can't be after to dateTo";
     final DateTimeFormatter pattern = DateTimeFormatter.ofPattern("dd-MM-yyyy");
 
-    mockMvc
-        .perform(get("/users").param("from", from.format(pattern)).param("to", to.format(pattern)))
+    performAsync(get("/users").param("from", from.format(pattern)).param("to", to.format(pattern)))
         .andExpectAll(
             status().isBadRequest(),
             content().contentType(APPLICATION_JSON),
@@ -277,12 +283,130 @@ class UserControllerIntegrationTest {
             jsonPath("$.validationErrors").doesNotExist());
   }
 
+  @Test
+  @DisplayName("when find youngest users in range then return them newest first")
+  void whenFindYoungestUsersInRangeThenResponseWithNewestFirst() throws Exception {
+    performAsync(
+            get("/users")
+                .param("from", "01-01-1960")
+                .param("to", "31-12-1995")
+                .param("sort", "birthDate,desc")
+                .param("limit", "1"))
+        .andExpectAll(
+            status().isOk(),
+            jsonPath("$", hasSize(1)),
+            jsonPath("$[0].email").value("dummy.7@gmail.com"));
+  }
+
+  @Test
+  @DisplayName("when find all users by ages then return list of users and 200 status")
+  void whenFindAllUsersByAgesThenResponseWithListOfUsersAndStatusCode200() throws Exception {
+    performAsync(get("/users").param("minAge", "0").param("maxAge", "150"))
+        .andExpectAll(
+            status().isOk(),
+            content().contentType(APPLICATION_JSON),
+            jsonPath("$").isArray(),
+            jsonPath("$[*].email", hasItem("dummy.8@gmail.com")));
+  }
+
+  @Test
+  @DisplayName("when find all users with minAge greater than maxAge then return 400 status")
+  void whenFindAllUsersWithMinAgeGreaterThanMaxAgeThenResponseWithStatusCode400()
+      throws Exception {
+    performAsync(get("/users").param("minAge", "40").param("maxAge", "30"))
+        .andExpectAll(
+            status().isBadRequest(),
+            content().contentType(APPLICATION_JSON),
+            jsonPath("$.statusCode").value(400),
+            jsonPath("$.errorMessage").value("MinAge can't be greater than maxAge"));
+  }
+
+  @Test
+  @DisplayName("when find all users with out of range ages then return 400 status")
+  void whenFindAllUsersWithOutOfRangeAgesThenResponseWithStatusCode400() throws Exception {
+    mockMvc
+        .perform(get("/users").param("minAge", "-1").param("maxAge", "151"))
+        .andExpectAll(
+            status().isBadRequest(),
+            content().contentType(APPLICATION_JSON),
+            jsonPath("$.errors", hasItem("MinAge can't be negative")),
+            jsonPath("$.errors", hasItem("MaxAge can't be greater than 150")));
+  }
+
+  @Test
+  @DisplayName("when find all users by windows then return users grouped per window")
+  void whenFindAllUsersByWindowsThenResponseWithUsersGroupedPerWindow() throws Exception {
+    String content =
+        """
+        [{"from":"01-01-1960","to":"31-12-1980"},\
+        {"from":"01-01-1970","to":"31-12-1990"},\
+        {"from":"01-01-1800","to":"31-12-1800"}]""";
+
+    performAsync(post("/users/windows").contentType(APPLICATION_JSON).content(content))
+        .andExpectAll(
+            status().isOk(),
+            content().contentType(APPLICATION_JSON),
+            jsonPath("$", hasSize(3)),
+            jsonPath("$[0].from").value("01-01-1960"),
+            jsonPath("$[0].users[*].email", hasItem("dummy.8@gmail.com")),
+            jsonPath("$[1].users[*].email", hasItem("dummy.8@gmail.com")),
+            jsonPath("$[1].users[*].email", hasItem("dummy.7@gmail.com")),
+            jsonPath("$[2].users", hasSize(0)));
+  }
+
+  @Test
+  @DisplayName("when find all users by invalid windows then return 400 status")
+  void whenFindAllUsersByInvalidWindowsThenResponseWithStatusCode400() throws Exception {
+    performAsync(
+            post("/users/windows")
+                .contentType(APPLICATION_JSON)
+                .content("[{\"from\":\"01-01-2005\",\"to\":\"01-01-2000\"}]"))
+        .andExpectAll(
+            status().isBadRequest(),
+            jsonPath("$.errorMessage").value("DateFrom can't be after to dateTo"));
+    mockMvc
+        .perform(post("/users/windows").contentType(APPLICATION_JSON).content("[]"))
+        .andExpectAll(
+            status().isBadRequest(), jsonPath("$.errors", hasItem("Windows can't be empty")));
+    mockMvc
+        .perform(
+            post("/users/windows")
+                .contentType(APPLICATION_JSON)
+                .content("[{\"from\":\"01-01-2000\"}]"))
+        .andExpectAll(
+            status().isBadRequest(), jsonPath("$.errors", hasItem("DateTo is required")));
+  }
+
+  @Test
+  @DisplayName("when look up users by ids then return them in request order with missing ids")
+  void whenLookUpUsersByIdsThenResponseWithUsersInRequestOrderAndMissingIds() throws Exception {
+    performAsync(post("/users/lookup").contentType(APPLICATION_JSON).content("[8, 999, 7, 8]"))
+        .andExpectAll(
+            status().isOk(),
+            content().contentType(APPLICATION_JSON),
+            jsonPath("$.users", hasSize(2)),
+            jsonPath("$.users[0].email").value("dummy.8@gmail.com"),
+            jsonPath("$.users[1].email").value("dummy.7@gmail.com"),
+            jsonPath("$.missingIds", contains(999)));
+  }
+
+  @Test
+  @DisplayName("when look up users by invalid ids then return 400 status")
+  void whenLookUpUsersByInvalidIdsThenResponseWithStatusCode400() throws Exception {
+    mockMvc
+        .perform(post("/users/lookup").contentType(APPLICATION_JSON).content("[]"))
+        .andExpectAll(status().isBadRequest(), jsonPath("$.errors", hasItem("Ids can't be empty")));
+    mockMvc
+        .perform(post("/users/lookup").contentType(APPLICATION_JSON).content("[1, null]"))
+        .andExpectAll(status().isBadRequest(), jsonPath("$.errors", hasItem("Id can't be null")));
+  }
+
   @Test
   @DisplayName("when find all users with invalid dates then return 400 status")
   void whenFindAllUsersWithInvalidClientRequestDataThenResponseWithStatusCode400()
       throws Exception {
-    final LocalDate from = LocalDate.of(2025, 1, 1);
-    final LocalDate to = LocalDate.of(2025, 1, 1);
+    final LocalDate from = LocalDate.now().plusYears(1);
+    final LocalDate to = LocalDate.now().plusYears(1);
     final DateTimeFormatter pattern = DateTimeFormatter.ofPattern("dd-MM-yyyy");
 
     mockMvc
@@ -295,4 +419,91 @@ class UserControllerIntegrationTest {
             jsonPath("$.errors", hasItem("DateTo can't be in future")),
             jsonPath("$.errors", hasItem("DateFrom can't be in future")));
   }
+
+  @Test
+  @DisplayName("when create user then change feed returns created change")
+  void whenCreateUserThenChangeFeedReturnsCreatedChange() throws Exception {
+    var userData =
+        new UserDTO("feed.1@gmail.com", "Feed", "Reader", LocalDate.of(1999, 9, 9), null, null);
+    mockMvc
+        .perform(
+            post("/users")
+                .contentType(APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(userData)))
+        .andExpect(status().isCreated());
+
+    MvcResult mvcResult =
+        mockMvc
+            .perform(get("/users/changes").param("since", "0"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    mockMvc
+        .perform(asyncDispatch(mvcResult))
+        .andExpectAll(
+            status().isOk(),
+            content().contentType(APPLICATION_JSON),
+            jsonPath("$").isArray(),
+            jsonPath("$[*].type", hasItem("CREATED")),
+            jsonPath("$[*].birthDate", hasItem("09-09-1999")));
+  }
+
+  @Test
+  @DisplayName("when read change feed with negative cursor then return 400 status")
+  void whenReadChangeFeedWithNegativeCursorThenResponseWithStatusCode400() throws Exception {
+    mockMvc
+        .perform(get("/users/changes").param("since", "-1"))
+        .andExpectAll(
+            status().isBadRequest(),
+            content().contentType(APPLICATION_JSON),
+            jsonPath("$.errors", hasItem("Since can't be negative")));
+  }
+
+  @Test
+  @DisplayName("when find birthdays this week then return users soonest first with their age")
+  void whenFindBirthdaysThisWeekThenResponseWithUsersSoonestFirst() throws Exception {
+    LocalDate inTwoDays = LocalDate.now().plusDays(2);
+    LocalDate tomorrow = LocalDate.now().plusDays(1);
+    createUser(birthdayUser("birthday.1@gmail.com", inTwoDays.minusYears(30)));
+    createUser(birthdayUser("birthday.2@gmail.com", tomorrow.minusYears(40)));
+    // Below the age constraint, so it can only be stored without the age check
+    userService.createAll(List.of(birthdayUser("birthday.3@gmail.com", tomorrow.minusYears(10))));
+
+    performAsync(get("/users/birthdays").param("days", "7"))
+        .andExpectAll(
+            status().isOk(),
+            jsonPath("$[*].user.email", hasItem("birthday.3@gmail.com")),
+            jsonPath("$[?(@.user.email == 'birthday.2@gmail.com')].age", hasItem(40)),
+            jsonPath("$[?(@.user.email == 'birthday.1@gmail.com')].birthday")
+                .value(hasItem(inTwoDays.format(DateTimeFormatter.ofPattern("dd-MM-yyyy")))));
+    performAsync(get("/users/birthdays").param("days", "7").param("applyAgeConstraint", "true"))
+        .andExpectAll(
+            status().isOk(),
+            jsonPath("$[*].user.email", hasItem("birthday.1@gmail.com")),
+            jsonPath("$[*].user.email", not(hasItem("birthday.3@gmail.com"))));
+    mockMvc
+        .perform(get("/users/birthdays").param("days", "367"))
+        .andExpectAll(
+            status().isBadRequest(),
+            jsonPath("$.errors", hasItem("Days can't be greater than 366")));
+  }
+
+  private static UserDTO birthdayUser(String email, LocalDate birthDate) {
+    return new UserDTO(email, "Birthday", "User", birthDate, null, null);
+  }
+
+  private void createUser(UserDTO user) throws Exception {
+    mockMvc
+        .perform(
+            post("/users")
+                .contentType(APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(user)))
+        .andExpect(status().isCreated());
+  }
+
+  private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+    MvcResult mvcResult =
+        mockMvc.perform(requestBuilder).andExpect(request().asyncStarted()).andReturn();
+    return mockMvc.perform(asyncDispatch(mvcResult));
+  }
 }
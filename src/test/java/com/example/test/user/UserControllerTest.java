@@ -2,7 +2,9 @@ package com.example.test.user;
 
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
@@ -11,6 +13,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.HttpHeaders.LOCATION;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
@@ -19,6 +22,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.example.test.exception.InvalidDateRangeException;
@@ -28,13 +32,20 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 
 @WebMvcTest(UserController.class)
 class UserControllerTest {
@@ -45,6 +56,8 @@ class UserControllerTest {
 
   @MockBean private UserService userService;
 
+  @MockBean private UserChangeFeed userChangeFeed;
+
   @Test
   @Order(1)
   @DisplayName("when create user with proper data then send 201 status")
@@ -279,17 +292,16 @@ class UserControllerTest {
     final LocalDate to = LocalDate.of(2003, 1, 1);
     final DateTimeFormatter pattern = DateTimeFormatter.ofPattern("dd-MM-yyyy");
 
-    when(userService.getAllByDateBetween(eq(from), eq(to))).thenReturn(List.of());
+    when(userService.getAllByDateBetween(eq(from), eq(to), isNull(), isNull())).thenReturn(List.of());
 
-    mockMvc
-        .perform(get("/users").param("from", from.format(pattern)).param("to", to.format(pattern)))
+    performAsync(get("/users").param("from", from.format(pattern)).param("to", to.format(pattern)))
         .andExpectAll(
             status().isOk(),
             content().contentType(APPLICATION_JSON),
             jsonPath("$").exists(),
             jsonPath("$").isArray());
 
-    verify(userService, times(1)).getAllByDateBetween(eq(from), eq(to));
+    verify(userService, times(1)).getAllByDateBetween(eq(from), eq(to), isNull(), isNull());
   }
 
   @Test
@@ -300,11 +312,10 @@ class UserControllerTest {
     final String exceptionMessage = "DateFrom can't be after to dateTo";
     final DateTimeFormatter pattern = DateTimeFormatter.ofPattern("dd-MM-yyyy");
 
-    when(userService.getAllByDateBetween(eq(from), eq(to)))
+    when(userService.getAllByDateBetween(eq(from), eq(to), isNull(), isNull()))
         .thenThrow(new InvalidDateRangeException(exceptionMessage));
 
-    mockMvc
-        .perform(get("/users").param("from", from.format(pattern)).param("to", to.format(pattern)))
+    performAsync(get("/users").param("from", from.format(pattern)).param("to", to.format(pattern)))
         .andExpectAll(
             status().isBadRequest(),
             content().contentType(APPLICATION_JSON),
@@ -313,15 +324,15 @@ class UserControllerTest {
             jsonPath("$.errorMessage").value(exceptionMessage),
             jsonPath("$.validationErrors").doesNotExist());
 
-    verify(userService, times(1)).getAllByDateBetween(eq(from), eq(to));
+    verify(userService, times(1)).getAllByDateBetween(eq(from), eq(to), isNull(), isNull());
   }
 
   @Test
   @DisplayName("when find all users with invalid dates then return 400 status")
   void whenFindAllUsersWithInvalidClientRequestDataThenResponseWithStatusCode400()
       throws Exception {
-    final LocalDate from = LocalDate.of(2025, 1, 1);
-    final LocalDate to = LocalDate.of(2025, 1, 1);
+    final LocalDate from = LocalDate.now().plusYears(1);
+    final LocalDate to = LocalDate.now().plusYears(1);
     final DateTimeFormatter pattern = DateTimeFormatter.ofPattern("dd-MM-yyyy");
 
     mockMvc
@@ -334,6 +345,96 @@ class UserControllerTest {
             jsonPath("$.errors", hasItem("DateTo can't be in future")),
             jsonPath("$.errors", hasItem("DateFrom can't be in future")));
 
-    verify(userService, never()).getAllByDateBetween(eq(from), eq(to));
+    verify(userService, never()).getAllByDateBetween(eq(from), eq(to), isNull(), isNull());
+  }
+
+  @Test
+  @DisplayName("when find all users sorted with limit then pass direction and limit to service")
+  void whenFindAllUsersSortedWithLimitThenPassDirectionAndLimitToService() throws Exception {
+    final LocalDate from = LocalDate.of(2000, 1, 1);
+    final LocalDate to = LocalDate.of(2003, 1, 1);
+
+    when(userService.getAllByDateBetween(eq(from), eq(to), eq(Sort.Direction.DESC), eq(10)))
+        .thenReturn(List.of());
+
+    performAsync(
+            get("/users")
+                .param("from", "01-01-2000")
+                .param("to", "01-01-2003")
+                .param("sort", "birthDate,desc")
+                .param("limit", "10"))
+        .andExpectAll(status().isOk(), content().contentType(APPLICATION_JSON));
+
+    verify(userService, times(1))
+        .getAllByDateBetween(eq(from), eq(to), eq(Sort.Direction.DESC), eq(10));
+  }
+
+  @Test
+  @DisplayName("when find all users with invalid sort and limit then return 400 status")
+  void whenFindAllUsersWithInvalidSortAndLimitThenResponseWithStatusCode400() throws Exception {
+    mockMvc
+        .perform(
+            get("/users")
+                .param("from", "01-01-2000")
+                .param("to", "01-01-2003")
+                .param("sort", "email,asc")
+                .param("limit", "0"))
+        .andExpectAll(
+            status().isBadRequest(),
+            content().contentType(APPLICATION_JSON),
+            jsonPath("$.errors", hasItem("Sort must be birthDate,asc or birthDate,desc")),
+            jsonPath("$.errors", hasItem("Limit must be positive")));
+  }
+
+  @Test
+  @DisplayName("when find all users exceeds its deadline then return 503 status")
+  void whenFindAllUsersExceedsDeadlineThenResponseWithStatusCode503() throws Exception {
+    when(userService.getAllByAgeBetween(0, 150))
+        .thenThrow(new QueryTimeoutException("Statement was canceled"));
+
+    performAsync(get("/users").param("minAge", "0").param("maxAge", "150"))
+        .andExpectAll(
+            status().isServiceUnavailable(),
+            content().contentType(APPLICATION_JSON),
+            jsonPath("$.statusCode").value(503),
+            jsonPath("$.errorMessage").value("Request exceeded its deadline"));
+  }
+
+  @Test
+  @DisplayName("when find all users without bulkheads then run on the read executor")
+  void whenFindAllUsersWithoutBulkheadsThenRunOnTheReadExecutor() throws Exception {
+    var thread = new AtomicReference<String>();
+    when(userService.getAllByAgeBetween(0, 150))
+        .thenAnswer(
+            invocation -> {
+              thread.set(Thread.currentThread().getName());
+              return List.of();
+            });
+
+    performAsync(get("/users").param("minAge", "0").param("maxAge", "150"))
+        .andExpect(status().isOk());
+
+    assertTrue(thread.get().startsWith("user-read-"), thread.get());
+  }
+
+  @Test
+  @DisplayName("when delete is rejected by its bulkhead then return 503 status with retry after")
+  void whenDeleteIsRejectedByBulkheadThenResponseWithStatusCode503() throws Exception {
+    when(userService.delete(eq(3))).thenThrow(new TaskRejectedException("Too many writes"));
+
+    mockMvc
+        .perform(delete("/users/{id}", 3).contentType(APPLICATION_JSON))
+        .andExpectAll(
+            status().isServiceUnavailable(),
+            header().string("Retry-After", "1"),
+            jsonPath("$.statusCode").value(503),
+            jsonPath("$.errorMessage")
+                .value("Too many requests of this kind in progress, retry later"));
+  }
+
+  private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+    MvcResult mvcResult =
+        mockMvc.perform(requestBuilder).andExpect(request().asyncStarted()).andReturn();
+    return mockMvc.perform(asyncDispatch(mvcResult));
   }
 }
@@ -0,0 +1,150 @@
+package com.example.test.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.test.exception.InvalidUserAgeException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.TransactionTimedOutException;
+
+class UserCreateBatcherTest {
+
+  private final UserService userService = mock(UserService.class);
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final UserCreateBatcher userCreateBatcher =
+      new UserCreateBatcher(userService, meterRegistry, 2, Duration.ofSeconds(5), -1);
+
+  private final UserDTO first =
+      new UserDTO("first@gmail.com", "First", "User", LocalDate.of(1990, 1, 1), null, null);
+
+  private final UserDTO second =
+      new UserDTO("second@gmail.com", "Second", "User", LocalDate.of(1991, 1, 1), null, null);
+
+  @BeforeEach
+  void setUp() {
+    userCreateBatcher.start();
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    userCreateBatcher.stop();
+  }
+
+  @Test
+  @DisplayName("when concurrent creates fill a batch then commit them together")
+  void whenConcurrentCreatesFillBatchThenCommitThemTogether() {
+    when(userService.createAll(anyList()))
+        .thenAnswer(
+            invocation -> {
+              List<UserDTO> batch = invocation.getArgument(0);
+              return batch.stream().map(details -> details == first ? 10 : 20).toList();
+            });
+
+    var firstId = CompletableFuture.supplyAsync(() -> userCreateBatcher.create(first));
+    var secondId = CompletableFuture.supplyAsync(() -> userCreateBatcher.create(second));
+
+    assertEquals(10, firstId.join());
+    assertEquals(20, secondId.join());
+
+    verify(userService, times(1)).createAll(anyList());
+    verify(userService, never()).create(any(UserDTO.class));
+    assertEquals(1, meterRegistry.summary("users.create.batch.size").count());
+    assertEquals(2.0, meterRegistry.summary("users.create.batch.size").totalAmount());
+  }
+
+  @Test
+  @DisplayName("when batch commit fails then retry individually and report own errors")
+  void whenBatchCommitFailsThenRetryIndividuallyAndReportOwnErrors() {
+    var duplicateEmail = new DataIntegrityViolationException("duplicate email");
+
+    when(userService.createAll(anyList())).thenThrow(duplicateEmail);
+    when(userService.create(eq(first))).thenReturn(10);
+    when(userService.create(eq(second))).thenThrow(duplicateEmail);
+
+    var firstId = CompletableFuture.supplyAsync(() -> userCreateBatcher.create(first));
+    var secondId = CompletableFuture.supplyAsync(() -> userCreateBatcher.create(second));
+
+    assertEquals(10, firstId.join());
+    var error = assertThrows(RuntimeException.class, secondId::join);
+    assertEquals(duplicateEmail, error.getCause());
+  }
+
+  @Test
+  @DisplayName("when user is too young then fail on caller thread without batching")
+  void whenUserIsTooYoungThenFailOnCallerThreadWithoutBatching() {
+    var youngUser =
+        new UserDTO("young@gmail.com", "Young", "User", LocalDate.now(), null, null);
+
+    doThrow(new InvalidUserAgeException("User age less than 18"))
+        .when(userService)
+        .verifyAge(eq(youngUser.getBirthDate()));
+
+    assertThrows(InvalidUserAgeException.class, () -> userCreateBatcher.create(youngUser));
+
+    verify(userService, never()).createAll(anyList());
+  }
+
+  @Test
+  @DisplayName("when stopped with a partial batch then commit it and reject later creates")
+  void whenStoppedWithPartialBatchThenCommitItAndRejectLaterCreates() throws Exception {
+    var taken = new CountDownLatch(1);
+    when(userService.createAll(anyList())).thenReturn(List.of(10));
+    var firstId =
+        CompletableFuture.supplyAsync(
+            () -> {
+              taken.countDown();
+              return userCreateBatcher.create(first);
+            });
+    assertTrue(taken.await(5, TimeUnit.SECONDS));
+    Thread.sleep(200);
+
+    userCreateBatcher.stop();
+
+    assertEquals(10, firstId.get(5, TimeUnit.SECONDS));
+    assertThrows(TaskRejectedException.class, () -> userCreateBatcher.create(second));
+  }
+
+  @Test
+  @DisplayName("when commit outlasts create deadline then caller gives up waiting")
+  void whenCommitOutlastsCreateDeadlineThenCallerGivesUpWaiting() throws InterruptedException {
+    var release = new CountDownLatch(1);
+    when(userService.createAll(anyList()))
+        .thenAnswer(
+            invocation -> {
+              release.await();
+              return List.of(10);
+            });
+    var batcher = new UserCreateBatcher(userService, meterRegistry, 1, Duration.ZERO, 1);
+    batcher.start();
+    try {
+      assertThrows(TransactionTimedOutException.class, () -> batcher.create(first));
+    } finally {
+      release.countDown();
+      batcher.stop();
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package com.example.test.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserFlightEventsTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @Autowired private ObjectMapper objectMapper;
+
+  @TempDir private Path tempDir;
+
+  @Test
+  @DisplayName("when recording then range query, create and request events carry their details")
+  void whenRecordingThenEventsCarryTheirDetails() throws Exception {
+    var user =
+        new UserDTO("jfr.1@gmail.com", "Flight", "Recorder", LocalDate.of(2001, 2, 3), null, null);
+    List<RecordedEvent> events;
+    try (var recording = new Recording()) {
+      recording.enable(UserFlightEvents.RangeQuery.class);
+      recording.enable(UserFlightEvents.Write.class);
+      recording.enable(UserFlightEvents.AgeCheck.class);
+      recording.enable(UserFlightEvents.Request.class);
+      recording.start();
+
+      mockMvc
+          .perform(
+              post("/users")
+                  .contentType(APPLICATION_JSON)
+                  .content(objectMapper.writeValueAsString(user)))
+          .andExpect(status().isCreated());
+      MvcResult mvcResult =
+          mockMvc
+              .perform(get("/users").param("from", "01-01-2001").param("to", "31-12-2001"))
+              .andExpect(request().asyncStarted())
+              .andReturn();
+      mockMvc.perform(asyncDispatch(mvcResult)).andExpect(status().isOk());
+
+      recording.stop();
+      Path file = tempDir.resolve("events.jfr");
+      recording.dump(file);
+      events = RecordingFile.readAllEvents(file);
+    }
+
+    assertThat(events)
+        .anySatisfy(
+            event -> {
+              assertThat(event.getEventType().getName()).isEqualTo("com.example.user.RangeQuery");
+              assertThat(event.getString("from")).isEqualTo("2001-01-01");
+              assertThat(event.getString("to")).isEqualTo("2001-12-31");
+              assertThat(event.getInt("resultCount")).isPositive();
+            })
+        .anySatisfy(
+            event -> {
+              assertThat(event.getEventType().getName()).isEqualTo("com.example.user.Write");
+              assertThat(event.getString("operation")).isEqualTo("CREATED");
+              assertThat(event.getInt("userId")).isPositive();
+              assertThat(event.getBoolean("succeeded")).isTrue();
+            })
+        .anySatisfy(
+            event -> {
+              assertThat(event.getEventType().getName()).isEqualTo("com.example.user.AgeCheck");
+              assertThat(event.getString("birthDate")).isEqualTo("2001-02-03");
+              assertThat(event.getBoolean("passed")).isTrue();
+            })
+        .anySatisfy(
+            event -> {
+              assertThat(event.getEventType().getName()).isEqualTo("com.example.user.Request");
+              assertThat(event.getString("method")).isEqualTo("POST");
+              assertThat(event.getLong("requestSize")).isPositive();
+              assertThat(event.getInt("status")).isEqualTo(201);
+            })
+        .anySatisfy(
+            event -> {
+              assertThat(event.getEventType().getName()).isEqualTo("com.example.user.Request");
+              assertThat(event.getString("method")).isEqualTo("GET");
+              assertThat(event.getString("uri")).isEqualTo("/users");
+              assertThat(event.getInt("status")).isEqualTo(200);
+            });
+  }
+}
@@ -0,0 +1,273 @@
+package com.example.test.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.test.user.grpc.AgeRangeRequest;
+import com.example.test.user.grpc.BirthDateRangeRequest;
+import com.example.test.user.grpc.CreateUserRequest;
+import com.example.test.user.grpc.DateWindow;
+import com.example.test.user.grpc.DateWindowsRequest;
+import com.example.test.user.grpc.DeleteUserRequest;
+import com.example.test.user.grpc.SortDirection;
+import com.example.test.user.grpc.UpdateUserRequest;
+import com.example.test.user.grpc.User;
+import com.example.test.user.grpc.UsersGrpc;
+import io.grpc.Grpc;
+import io.grpc.InsecureChannelCredentials;
+import io.grpc.ManagedChannel;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+
+@SpringBootTest(properties = {"application.grpc.enabled=true", "application.grpc.port=0"})
+class UserGrpcServiceIntegrationTest {
+
+  private static final LocalDate FROM = LocalDate.of(1900, 1, 1);
+
+  @Autowired private UserGrpcServer userGrpcServer;
+
+  @Autowired private UserService userService;
+
+  private ManagedChannel channel;
+
+  private UsersGrpc.UsersBlockingStub users;
+
+  @BeforeEach
+  void connect() {
+    channel =
+        Grpc.newChannelBuilderForAddress(
+                "localhost", userGrpcServer.getPort(), InsecureChannelCredentials.create())
+            .build();
+    users = UsersGrpc.newBlockingStub(channel);
+  }
+
+  @AfterEach
+  void disconnect() throws InterruptedException {
+    channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+  }
+
+  @Test
+  @DisplayName("when birth date range streamed then return same users as service")
+  void whenBirthDateRangeStreamedThenReturnSameUsersAsService() {
+    var request =
+        BirthDateRangeRequest.newBuilder()
+            .setFrom(UserProtos.toProto(FROM))
+            .setTo(UserProtos.toProto(LocalDate.now()))
+            .setSort(SortDirection.SORT_DIRECTION_DESC)
+            .setLimit(5)
+            .build();
+
+    List<User> streamed = new ArrayList<>();
+    users.getUsersByBirthDate(request).forEachRemaining(streamed::add);
+
+    var expected =
+        userService.getAllByDateBetween(FROM, LocalDate.now(), Sort.Direction.DESC, 5).stream()
+            .map(UserProtos::toProto)
+            .toList();
+    assertFalse(streamed.isEmpty());
+    assertEquals(expected, streamed);
+  }
+
+  @Test
+  @DisplayName("when client reads one message at a time then stream every user")
+  void whenClientReadsOneMessageAtATimeThenStreamEveryUser() throws Exception {
+    var request =
+        BirthDateRangeRequest.newBuilder()
+            .setFrom(UserProtos.toProto(FROM))
+            .setTo(UserProtos.toProto(LocalDate.now()))
+            .setSort(SortDirection.SORT_DIRECTION_ASC)
+            .build();
+    var received = new CompletableFuture<List<User>>();
+
+    UsersGrpc.newStub(channel)
+        .getUsersByBirthDate(
+            request,
+            new ClientResponseObserver<BirthDateRangeRequest, User>() {
+              private final List<User> streamed = new ArrayList<>();
+              private ClientCallStreamObserver<BirthDateRangeRequest> call;
+
+              @Override
+              public void beforeStart(ClientCallStreamObserver<BirthDateRangeRequest> call) {
+                this.call = call;
+                call.disableAutoRequestWithInitial(1);
+              }
+
+              @Override
+              public void onNext(User user) {
+                streamed.add(user);
+                call.request(1);
+              }
+
+              @Override
+              public void onError(Throwable t) {
+                received.completeExceptionally(t);
+              }
+
+              @Override
+              public void onCompleted() {
+                received.complete(streamed);
+              }
+            });
+
+    List<User> streamed = received.get(10, TimeUnit.SECONDS);
+    List<User> expected = new ArrayList<>();
+    users.getUsersByBirthDate(request).forEachRemaining(expected::add);
+    assertEquals(expected, streamed);
+  }
+
+  @Test
+  @DisplayName("when date from is after date to then fail with invalid argument")
+  void whenDateFromIsAfterDateToThenFailWithInvalidArgument() {
+    var request =
+        BirthDateRangeRequest.newBuilder()
+            .setFrom(UserProtos.toProto(LocalDate.of(2000, 1, 1)))
+            .setTo(UserProtos.toProto(LocalDate.of(1990, 1, 1)))
+            .build();
+
+    var e =
+        assertThrows(
+            StatusRuntimeException.class,
+            () -> users.getUsersByBirthDate(request).forEachRemaining(user -> {}));
+
+    assertEquals(Status.Code.INVALID_ARGUMENT, e.getStatus().getCode());
+    assertEquals("DateFrom can't be after to dateTo", e.getStatus().getDescription());
+  }
+
+  @Test
+  @DisplayName("when query parameters break controller constraints then fail with invalid argument")
+  void whenQueryParametersBreakControllerConstraintsThenFailWithInvalidArgument() {
+    var future = LocalDate.now().plusDays(1);
+    var rangeRequest =
+        BirthDateRangeRequest.newBuilder()
+            .setFrom(UserProtos.toProto(FROM))
+            .setTo(UserProtos.toProto(future))
+            .setLimit(0)
+            .build();
+    var ageRequest = AgeRangeRequest.newBuilder().setMinAge(-1).setMaxAge(151).build();
+
+    var rangeError =
+        assertThrows(
+            StatusRuntimeException.class,
+            () -> users.getUsersByBirthDate(rangeRequest).forEachRemaining(user -> {}));
+    var ageError =
+        assertThrows(
+            StatusRuntimeException.class,
+            () -> users.getUsersByAge(ageRequest).forEachRemaining(user -> {}));
+
+    assertEquals(Status.Code.INVALID_ARGUMENT, rangeError.getStatus().getCode());
+    assertEquals(
+        "DateTo can't be in future; Limit must be positive",
+        rangeError.getStatus().getDescription());
+    assertEquals(Status.Code.INVALID_ARGUMENT, ageError.getStatus().getCode());
+    assertEquals(
+        "MaxAge can't be greater than 150; MinAge can't be negative",
+        ageError.getStatus().getDescription());
+  }
+
+  @Test
+  @DisplayName("when windows queried then return users per window")
+  void whenWindowsQueriedThenReturnUsersPerWindow() {
+    var window =
+        DateWindow.newBuilder()
+            .setFrom(UserProtos.toProto(FROM))
+            .setTo(UserProtos.toProto(LocalDate.now()))
+            .build();
+
+    var response =
+        users.getUsersByDateWindows(DateWindowsRequest.newBuilder().addWindows(window).build());
+
+    assertEquals(1, response.getWindowsCount());
+    assertEquals(
+        userService.getAllByDateWindows(List.of(new DateRange(FROM, LocalDate.now()))).get(0)
+            .users().stream()
+            .map(UserProtos::toProto)
+            .toList(),
+        response.getWindows(0).getUsersList());
+  }
+
+  @Test
+  @DisplayName("when user created, patched and deleted then apply each change")
+  void whenUserCreatedPatchedAndDeletedThenApplyEachChange() {
+    var birthDate = UserProtos.toProto(LocalDate.of(1985, 3, 14));
+    var user =
+        User.newBuilder()
+            .setEmail("grpc.1@gmail.com")
+            .setFirstName("Grace")
+            .setLastName("Hopper")
+            .setBirthDate(birthDate)
+            .build();
+
+    int id = users.createUser(CreateUserRequest.newBuilder().setUser(user).build()).getId();
+    users.patchUser(
+        UpdateUserRequest.newBuilder()
+            .setId(id)
+            .setUser(User.newBuilder().setLastName("Murray").setBirthDate(birthDate))
+            .build());
+    List<User> patched = new ArrayList<>();
+    users
+        .getUsersByAge(AgeRangeRequest.newBuilder().setMinAge(0).setMaxAge(150).build())
+        .forEachRemaining(
+            streamed -> {
+              if (streamed.getId() == id) {
+                patched.add(streamed);
+              }
+            });
+    int deleted = users.deleteUser(DeleteUserRequest.newBuilder().setId(id).build()).getId();
+
+    assertEquals(1, patched.size());
+    assertEquals("Murray", patched.get(0).getLastName());
+    assertEquals("grpc.1@gmail.com", patched.get(0).getEmail());
+    assertEquals(id, deleted);
+  }
+
+  @Test
+  @DisplayName("when created user is invalid then fail with invalid argument")
+  void whenCreatedUserIsInvalidThenFailWithInvalidArgument() {
+    var user =
+        User.newBuilder()
+            .setEmail("grpc.2gmailcom")
+            .setLastName("Hopper")
+            .setBirthDate(UserProtos.toProto(LocalDate.of(1985, 3, 14)))
+            .build();
+
+    var e =
+        assertThrows(
+            StatusRuntimeException.class,
+            () -> users.createUser(CreateUserRequest.newBuilder().setUser(user).build()));
+
+    assertEquals(Status.Code.INVALID_ARGUMENT, e.getStatus().getCode());
+    assertTrue(e.getStatus().getDescription().contains("Invalid email format"));
+    assertTrue(e.getStatus().getDescription().contains("Property can't be blank"));
+  }
+
+  @Test
+  @DisplayName("when deleted user does not exist then fail with not found")
+  void whenDeletedUserDoesNotExistThenFailWithNotFound() {
+    var e =
+        assertThrows(
+            StatusRuntimeException.class,
+            () ->
+                users.deleteUser(
+                    DeleteUserRequest.newBuilder().setId(Integer.MAX_VALUE).build()));
+
+    assertEquals(Status.Code.NOT_FOUND, e.getStatus().getCode());
+    assertEquals(
+        "User with id <" + Integer.MAX_VALUE + "> not found", e.getStatus().getDescription());
+  }
+}
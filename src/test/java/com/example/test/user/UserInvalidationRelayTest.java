@@ -0,0 +1,160 @@
+package com.example.test.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class UserInvalidationRelayTest {
+
+  private static final LocalDate BORN = LocalDate.of(1990, 5, 17);
+  private static final LocalDate CORRECTED = LocalDate.of(1990, 7, 15);
+  private static final InetSocketAddress ANY_PORT = new InetSocketAddress("127.0.0.1", 0);
+
+  private final UserChangeRepository userChangeRepository = mock(UserChangeRepository.class);
+  private final LoopbackInvalidationBus busA = new LoopbackInvalidationBus();
+  private final LoopbackInvalidationBus busB = busA.join();
+  private final BlockingQueue<Object> eventsA = new LinkedBlockingQueue<>();
+  private final BlockingQueue<Object> eventsB = new LinkedBlockingQueue<>();
+  private final SimpleMeterRegistry meterRegistryB = new SimpleMeterRegistry();
+
+  private final UserInvalidationRelay nodeA = relay(busA, eventsA, new SimpleMeterRegistry());
+  private final UserInvalidationRelay nodeB = relay(busB, eventsB, meterRegistryB);
+
+  @BeforeEach
+  void commitChangeLog() {
+    when(userChangeRepository.findLatestSeq()).thenReturn(10L);
+  }
+
+  @AfterEach
+  void close() {
+    nodeA.close();
+    nodeB.close();
+  }
+
+  @Test
+  @DisplayName("when change commits on one node then other node republishes it")
+  void whenChangeCommitsOnOneNodeThenOtherNodeRepublishesIt() throws InterruptedException {
+    var event = new UserChangedEvent(3, UserChange.Type.UPDATED, 7, BORN, CORRECTED);
+
+    nodeA.onUserChanged(event);
+
+    assertEquals(event, eventsB.poll(5, TimeUnit.SECONDS));
+    assertNull(eventsA.poll(100, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  @DisplayName("when change is reconciled before it commits locally then it is still broadcast")
+  void whenChangeIsReconciledBeforeItCommitsLocallyThenItIsStillBroadcast()
+      throws InterruptedException {
+    var event = new UserChangedEvent(3, UserChange.Type.UPDATED, 7, BORN, CORRECTED);
+    var change = new UserChangeDTO(3L, 7, UserChange.Type.UPDATED, BORN, CORRECTED, Instant.now());
+    when(userChangeRepository.findAllBySeqAfter(anyLong(), any())).thenReturn(List.of(change));
+
+    nodeA.reconcile();
+    nodeA.onUserChanged(event);
+
+    assertEquals(event, eventsB.poll(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  @DisplayName("when notices arrive out of order then older change of same user is dropped")
+  void whenNoticesArriveOutOfOrderThenOlderChangeOfSameUserIsDropped() {
+    var newer = new UserInvalidation(5, UserChange.Type.UPDATED, 7, BORN, CORRECTED);
+    var older = new UserInvalidation(4, UserChange.Type.CREATED, 7, null, BORN);
+    var otherUser = new UserInvalidation(2, UserChange.Type.CREATED, 8, null, BORN);
+
+    nodeB.receive(newer);
+    nodeB.receive(older);
+    nodeB.receive(newer);
+    nodeB.receive(otherUser);
+
+    assertEquals(List.of(newer.toEvent(), otherUser.toEvent()), List.copyOf(eventsB));
+    assertEquals(2, meterRegistryB.counter("user.invalidation.stale").count());
+  }
+
+  @Test
+  @DisplayName("when notice claims uncommitted sequence then it is rejected")
+  void whenNoticeClaimsUncommittedSequenceThenItIsRejected() {
+    var spoofed = new UserInvalidation(Long.MAX_VALUE, UserChange.Type.DELETED, 7, BORN, null);
+    var genuine = new UserInvalidation(5, UserChange.Type.UPDATED, 7, BORN, CORRECTED);
+
+    nodeB.receive(spoofed);
+    nodeB.receive(genuine);
+
+    assertEquals(List.of(genuine.toEvent()), List.copyOf(eventsB));
+    assertEquals(1, meterRegistryB.counter("user.invalidation.rejected").count());
+  }
+
+  @Test
+  @DisplayName("when notice is lost then reconciliation recovers it from the change log")
+  void whenNoticeIsLostThenReconciliationRecoversItFromChangeLog() {
+    var received = new UserInvalidation(6, UserChange.Type.CREATED, 9, null, BORN);
+    var lost = new UserChangeDTO(5L, 7, UserChange.Type.DELETED, CORRECTED, null, Instant.now());
+    var seen = new UserChangeDTO(6L, 9, UserChange.Type.CREATED, null, BORN, Instant.now());
+    when(userChangeRepository.findAllBySeqAfter(anyLong(), any())).thenReturn(List.of(lost, seen));
+
+    nodeB.receive(received);
+    nodeB.reconcile();
+
+    assertEquals(
+        List.of(received.toEvent(), UserInvalidation.of(lost).toEvent()), List.copyOf(eventsB));
+    assertEquals(1, meterRegistryB.counter("user.invalidation.recovered").count());
+  }
+
+  @Test
+  @DisplayName("when sent over UDP then notice arrives intact")
+  void whenSentOverUdpThenNoticeArrivesIntact() throws InterruptedException {
+    var received = new LinkedBlockingQueue<UserInvalidation>();
+    try (var receiver = new UdpInvalidationBus(ANY_PORT, List.of(ANY_PORT));
+        var sender = new UdpInvalidationBus(ANY_PORT, List.of(loopback(receiver)))) {
+      receiver.subscribe(received::add);
+      var invalidation = new UserInvalidation(42, UserChange.Type.DELETED, 7, BORN, null);
+
+      sender.publish(invalidation);
+
+      assertEquals(invalidation, received.poll(5, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  @DisplayName("when sent over UDP by a stranger then notice is ignored")
+  void whenSentOverUdpByStrangerThenNoticeIsIgnored() throws InterruptedException {
+    var received = new LinkedBlockingQueue<UserInvalidation>();
+    var peer = new InetSocketAddress("192.0.2.1", 7070);
+    try (var receiver = new UdpInvalidationBus(ANY_PORT, List.of(peer));
+        var sender = new UdpInvalidationBus(ANY_PORT, List.of(loopback(receiver)))) {
+      receiver.subscribe(received::add);
+
+      sender.publish(new UserInvalidation(42, UserChange.Type.DELETED, 7, BORN, null));
+
+      assertNull(received.poll(500, TimeUnit.MILLISECONDS));
+    }
+  }
+
+  private static InetSocketAddress loopback(UdpInvalidationBus bus) {
+    return new InetSocketAddress(ANY_PORT.getAddress(), bus.localAddress().getPort());
+  }
+
+  private UserInvalidationRelay relay(
+      UserInvalidationBus bus, BlockingQueue<Object> events, SimpleMeterRegistry meterRegistry) {
+    return new UserInvalidationRelay(
+        bus, userChangeRepository, events::add, meterRegistry, Duration.ofMinutes(1), 1000);
+  }
+}
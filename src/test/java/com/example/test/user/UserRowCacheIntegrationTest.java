@@ -0,0 +1,98 @@
+package com.example.test.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:cache;DB_CLOSE_DELAY=-1",
+      "application.user-cache.enabled=true"
+    })
+class UserRowCacheIntegrationTest {
+
+  private static final LocalDate FROM = LocalDate.of(1900, 1, 1);
+
+  @Autowired private UserRowCache userRowCache;
+
+  @Autowired private UserService userService;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  @BeforeEach
+  void awaitCache() throws InterruptedException {
+    for (int i = 0; i < 100 && !userRowCache.isReady(); i++) {
+      Thread.sleep(100);
+    }
+    assertTrue(userRowCache.isReady());
+  }
+
+  @Test
+  @DisplayName("when cache is loaded then cached users match database")
+  void whenCacheIsLoadedThenCachedUsersMatchDatabase() {
+    List<UserDTO> stored = userRepository.findAllByBirthDateBetweenOrdered(FROM, LocalDate.now());
+    List<Integer> ids = stored.stream().map(UserDTO::getId).toList();
+
+    var lookup = userRowCache.findAllById(ids, this::readNothing);
+
+    assertEquals(stored, lookup.users());
+    assertEquals(List.of(), lookup.missingIds());
+  }
+
+  @Test
+  @DisplayName("when users change then they are read again and cached")
+  void whenUsersChangeThenTheyAreReadAgainAndCached() {
+    userService.update(4, new UserDTO(null, "Moved", null, LocalDate.of(1960, 6, 6), null, null));
+    userService.delete(5);
+
+    var lookup = userRowCache.findAllById(List.of(4, 5, 6), userRepository::findAllByIdIn);
+    var cached = userRowCache.findAllById(List.of(4, 6), this::readNothing);
+
+    assertEquals(List.of(4, 6), lookup.users().stream().map(UserDTO::getId).toList());
+    assertEquals(List.of(5), lookup.missingIds());
+    assertEquals("Moved", cached.users().get(0).getFirstName());
+    assertEquals(lookup.users(), cached.users());
+  }
+
+  @Test
+  @DisplayName("when every looked up user is cached then take no connection")
+  void whenEveryLookedUpUserIsCachedThenTakeNoConnection() {
+    List<Integer> ids = List.of(1, 2, 3);
+    userService.getAllById(ids);
+    long acquired = connectionsAcquired();
+
+    var lookup = userService.getAllById(ids);
+
+    assertEquals(ids, lookup.users().stream().map(UserDTO::getId).toList());
+    assertEquals(acquired, connectionsAcquired());
+  }
+
+  @Test
+  @DisplayName("when looked up users are not cached then read them on one connection")
+  void whenLookedUpUsersAreNotCachedThenReadThemOnOneConnection() {
+    long acquired = connectionsAcquired();
+
+    var lookup = userService.getAllById(List.of(1_000_000));
+
+    assertEquals(List.of(1_000_000), lookup.missingIds());
+    assertEquals(acquired + 1, connectionsAcquired());
+  }
+
+  private long connectionsAcquired() {
+    return meterRegistry.get("hikaricp.connections.acquire").timer().count();
+  }
+
+  private List<UserDTO> readNothing(List<Integer> ids) {
+    throw new AssertionError("Expected every user to be cached, missed " + ids);
+  }
+}
@@ -6,8 +6,11 @@ import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -24,15 +27,49 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
 
 @ExtendWith(MockitoExtension.class)
 class UserServiceTest {
 
   private static final int AGE_CONSTRAINT = 18;
 
+  private static final int LOOKUP_CHUNK_SIZE = 2;
+
   private final UserRepository userRepository = mock(UserRepository.class);
 
-  private final UserService userService = new UserService(userRepository, AGE_CONSTRAINT);
+  private final UserChangeLog userChangeLog = mock(UserChangeLog.class);
+
+  private final PlatformTransactionManager transactionManager =
+      mock(PlatformTransactionManager.class);
+
+  private final UserService userService =
+      new UserService(
+          userRepository,
+          userChangeLog,
+          new BirthDateBounds(),
+          new RangeQueryPlanner(
+              mock(BirthDateStatistics.class),
+              Optional.empty(),
+              Optional.empty(),
+              Optional.empty(),
+              Optional.empty(),
+              50_000,
+              0),
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty(),
+          Optional.empty(),
+          transactionManager,
+          LOOKUP_CHUNK_SIZE,
+          -1,
+          -1,
+          -1,
+          AGE_CONSTRAINT);
 
   @Test
   @DisplayName(
@@ -63,6 +100,67 @@ class UserServiceTest {
     verify(userRepository, times(1)).save(any(User.class));
   }
 
+  @Test
+  @DisplayName("when create user then append created change to log")
+  void whenCreateUserThenAppendCreatedChangeToLog() {
+    final LocalDate birthDate = LocalDate.of(2005, 4, 20);
+    var userData = new UserDTO("test.12@gmail.com", "Mark", "Jovar", birthDate, null, null);
+    User newUser = User.builder().id(1).birthDate(birthDate).build();
+
+    when(userRepository.save(any(User.class))).thenReturn(newUser);
+
+    assertDoesNotThrow(() -> userService.create(userData));
+
+    verify(userChangeLog, times(1)).append(eq(UserChange.Type.CREATED), eq(1), isNull(), eq(birthDate));
+  }
+
+  @Test
+  @DisplayName("when update user birth date then append change with previous birth date")
+  void whenUpdateUserBirthDateThenAppendChangeWithPreviousBirthDate() {
+    final int userId = 1;
+    final LocalDate previousBirthDate = LocalDate.of(1950, 4, 10);
+    final LocalDate birthDate = LocalDate.of(1960, 5, 15);
+    User user = User.builder().id(userId).birthDate(previousBirthDate).build();
+    var details = new UserDTO(null, null, null, birthDate, null, null);
+
+    when(userRepository.findById(eq(userId))).thenReturn(Optional.of(user));
+
+    assertDoesNotThrow(() -> userService.update(userId, details));
+
+    verify(userChangeLog, times(1))
+        .append(eq(UserChange.Type.UPDATED), eq(userId), eq(previousBirthDate), eq(birthDate));
+  }
+
+  @Test
+  @DisplayName("when delete non-existing user then no change is appended")
+  void whenDeleteNonExistingUserThenNoChangeIsAppended() {
+    final int userId = 1;
+
+    when(userRepository.findById(eq(userId))).thenReturn(Optional.empty());
+
+    assertThrows(UserNotFoundException.class, () -> userService.delete(userId));
+
+    verify(userChangeLog, never()).append(any(), any(), any(), any());
+  }
+
+  @Test
+  @DisplayName("when create users in batch then save all and append a change per user")
+  void whenCreateUsersInBatchThenSaveAllAndAppendChangePerUser() {
+    var first =
+        new UserDTO("first@gmail.com", "First", "User", LocalDate.of(1990, 1, 1), null, null);
+    var second =
+        new UserDTO("second@gmail.com", "Second", "User", LocalDate.of(1991, 1, 1), null, null);
+
+    when(userRepository.saveAll(anyList()))
+        .thenReturn(List.of(User.builder().id(1).build(), User.builder().id(2).build()));
+
+    var ids = assertDoesNotThrow(() -> userService.createAll(List.of(first, second)));
+    assertEquals(List.of(1, 2), ids);
+
+    verify(userRepository, times(1)).saveAll(anyList());
+    verify(userChangeLog, times(2)).append(eq(UserChange.Type.CREATED), any(), isNull(), any());
+  }
+
   @Test
   @DisplayName("when delete non-existing user then throw UserNotFoundException")
   void whenDeleteNonExistingUserThenThrowUserNotFoundException() {
@@ -274,4 +372,233 @@ class UserServiceTest {
 
     verify(userRepository, never()).findAllByBirthDateBetween(eq(from), eq(to));
   }
+
+  @Test
+  @DisplayName("when find all users by ages then query exact birth-date bounds")
+  void whenFindAllUsersByAgesThenQueryExactBirthDateBounds() {
+    final LocalDate today = LocalDate.now();
+    final LocalDate from = today.minusYears(35).plusDays(1);
+    final LocalDate to = today.minusYears(25);
+
+    when(userRepository.findAllByBirthDateBetween(eq(from), eq(to))).thenReturn(List.of());
+
+    assertDoesNotThrow(() -> userService.getAllByAgeBetween(25, 34));
+
+    verify(userRepository, times(1)).findAllByBirthDateBetween(eq(from), eq(to));
+  }
+
+  @Test
+  @DisplayName(
+      "when find all users with minAge greater than maxAge then throw InvalidDateRangeException")
+  void whenFindAllUsersWithInvalidAgeRangeThenThrowInvalidDateRangeException() {
+    var errorMessage =
+        assertThrows(
+            InvalidDateRangeException.class, () -> userService.getAllByAgeBetween(40, 30));
+
+    assertEquals("MinAge can't be greater than maxAge", errorMessage.getMessage());
+  }
+
+  @Test
+  @DisplayName("when create user turning adult tomorrow then throw InvalidUserAgeException")
+  void whenCreateUserTurningAdultTomorrowThenThrowInvalidUserAgeException() {
+    var userData =
+        new UserDTO(
+            "test.12@gmail.com",
+            "Mark",
+            "Jovar",
+            LocalDate.now().minusYears(AGE_CONSTRAINT).plusDays(1),
+            null,
+            null);
+
+    assertThrows(InvalidUserAgeException.class, () -> userService.create(userData));
+
+    verify(userRepository, never()).save(any(User.class));
+  }
+
+  @Test
+  @DisplayName("when find all users by windows then query merged windows once and group results")
+  void whenFindAllUsersByWindowsThenQueryMergedWindowsOnceAndGroupResults() {
+    var first = new DateRange(LocalDate.of(1990, 1, 1), LocalDate.of(1995, 12, 31));
+    var overlapping = new DateRange(LocalDate.of(1995, 1, 1), LocalDate.of(2000, 12, 31));
+    var disjoint = new DateRange(LocalDate.of(1970, 1, 1), LocalDate.of(1970, 12, 31));
+    var merged =
+        List.of(disjoint, new DateRange(LocalDate.of(1990, 1, 1), LocalDate.of(2000, 12, 31)));
+    var bornIn1970 = userBornOn(1, LocalDate.of(1970, 1, 1));
+    var bornIn1993 = userBornOn(2, LocalDate.of(1993, 6, 1));
+    var bornIn1995 = userBornOn(3, LocalDate.of(1995, 6, 1));
+    var bornIn1999 = userBornOn(4, LocalDate.of(1999, 6, 1));
+
+    when(userRepository.findAllByBirthDateInRangesOrdered(eq(merged)))
+        .thenReturn(List.of(bornIn1970, bornIn1993, bornIn1995, bornIn1999));
+
+    var windows = userService.getAllByDateWindows(List.of(first, overlapping, disjoint));
+
+    assertEquals(3, windows.size());
+    assertEquals(List.of(bornIn1993, bornIn1995), windows.get(0).users());
+    assertEquals(List.of(bornIn1995, bornIn1999), windows.get(1).users());
+    assertEquals(List.of(bornIn1970), windows.get(2).users());
+    assertEquals(disjoint.from(), windows.get(2).from());
+    verify(userRepository, times(1)).findAllByBirthDateInRangesOrdered(anyList());
+  }
+
+  @Test
+  @DisplayName("when windows are too small to split then read each segment in birth date order")
+  void whenWindowsAreTooSmallToSplitThenReadEachSegmentInBirthDateOrder() {
+    var parallelRangeQuery = mock(ParallelRangeQuery.class);
+    var parallelUserService =
+        new UserService(
+            userRepository,
+            userChangeLog,
+            new BirthDateBounds(),
+            new RangeQueryPlanner(
+                mock(BirthDateStatistics.class),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.of(parallelRangeQuery),
+                Optional.empty(),
+                50_000,
+                0),
+            Optional.empty(),
+            Optional.of(parallelRangeQuery),
+            Optional.empty(),
+            Optional.empty(),
+            Optional.empty(),
+            Optional.empty(),
+            transactionManager,
+            LOOKUP_CHUNK_SIZE,
+            -1,
+            -1,
+            -1,
+            AGE_CONSTRAINT);
+    var first = new DateRange(LocalDate.of(1990, 1, 1), LocalDate.of(1995, 12, 31));
+    var second = new DateRange(LocalDate.of(1996, 1, 1), LocalDate.of(2000, 12, 31));
+    var merged = new DateRange(LocalDate.of(1990, 1, 1), LocalDate.of(2000, 12, 31));
+    var bornIn1993 = userBornOn(2, LocalDate.of(1993, 6, 1));
+    var bornIn1995 = userBornOn(3, LocalDate.of(1995, 6, 1));
+    var bornIn1999 = userBornOn(1, LocalDate.of(1999, 6, 1));
+
+    lenient()
+        .when(userRepository.findAllByBirthDateBetween(merged.from(), merged.to()))
+        .thenReturn(List.of(bornIn1999, bornIn1993, bornIn1995));
+    when(userRepository.findAllByBirthDateBetweenOrdered(merged.from(), merged.to()))
+        .thenReturn(List.of(bornIn1993, bornIn1995, bornIn1999));
+
+    var windows = parallelUserService.getAllByDateWindows(List.of(first, second));
+
+    assertEquals(List.of(bornIn1993, bornIn1995), windows.get(0).users());
+    assertEquals(List.of(bornIn1999), windows.get(1).users());
+    verify(parallelRangeQuery, never()).findAllByBirthDateBetween(any(), any());
+  }
+
+  @Test
+  @DisplayName(
+      "when find all users by windows with dateFrom after dateTo then throw InvalidDateRangeException")
+  void whenFindAllUsersByInvalidWindowThenThrowInvalidDateRangeException() {
+    var valid = new DateRange(LocalDate.of(1990, 1, 1), LocalDate.of(1995, 12, 31));
+    var invalid = new DateRange(LocalDate.of(2005, 1, 1), LocalDate.of(2003, 1, 1));
+
+    var errorMessage =
+        assertThrows(
+            InvalidDateRangeException.class,
+            () -> userService.getAllByDateWindows(List.of(valid, invalid)));
+
+    assertEquals("DateFrom can't be after to dateTo", errorMessage.getMessage());
+    verify(userRepository, never()).findAllByBirthDateInRangesOrdered(anyList());
+  }
+
+  private static UserDTO userBornOn(int id, LocalDate birthDate) {
+    var user = new UserDTO("user." + id + "@gmail.com", "Mark", "Jovar", birthDate, null, null);
+    user.setId(id);
+    return user;
+  }
+
+  @Test
+  @DisplayName("when find youngest users in range then push order and limit into the query")
+  void whenFindYoungestUsersInRangeThenPushOrderAndLimitIntoTheQuery() {
+    final LocalDate from = LocalDate.of(2000, 1, 1);
+    final LocalDate to = LocalDate.of(2003, 1, 1);
+    var pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "birthDate", "id"));
+
+    when(userRepository.findAllByBirthDateBetween(eq(from), eq(to), eq(pageable)))
+        .thenReturn(List.of());
+
+    assertDoesNotThrow(() -> userService.getAllByDateBetween(from, to, Sort.Direction.DESC, 10));
+
+    verify(userRepository, times(1)).findAllByBirthDateBetween(eq(from), eq(to), eq(pageable));
+    verify(userRepository, never()).findAllByBirthDateBetween(eq(from), eq(to));
+  }
+
+  @Test
+  @DisplayName("when looking up users by id then query in chunks and keep request order")
+  void whenLookingUpUsersByIdThenQueryInChunksAndKeepRequestOrder() {
+    var first = userBornOn(1, LocalDate.of(1990, 1, 1));
+    var second = userBornOn(2, LocalDate.of(1991, 1, 1));
+    var third = userBornOn(3, LocalDate.of(1992, 1, 1));
+
+    when(userRepository.findAllByIdIn(List.of(3, 1))).thenReturn(List.of(first, third));
+    when(userRepository.findAllByIdIn(List.of(9, 2))).thenReturn(List.of(second));
+
+    var lookup = userService.getAllById(List.of(3, 1, 3, 9, 2));
+
+    assertEquals(List.of(third, first, second), lookup.users());
+    assertEquals(List.of(9), lookup.missingIds());
+    verify(userRepository, times(2)).findAllByIdIn(anyList());
+    verify(transactionManager, times(1)).getTransaction(any());
+  }
+
+  @Test
+  @DisplayName("when every looked up user is cached then open no transaction")
+  void whenEveryLookedUpUserIsCachedThenOpenNoTransaction() {
+    var userRowCache = mock(UserRowCache.class);
+    var cachedUserService =
+        new UserService(
+            userRepository,
+            userChangeLog,
+            new BirthDateBounds(),
+            new RangeQueryPlanner(
+                mock(BirthDateStatistics.class),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                50_000,
+                0),
+            Optional.empty(),
+            Optional.empty(),
+            Optional.empty(),
+            Optional.empty(),
+            Optional.empty(),
+            Optional.of(userRowCache),
+            transactionManager,
+            LOOKUP_CHUNK_SIZE,
+            -1,
+            -1,
+            -1,
+            AGE_CONSTRAINT);
+    var cached = new UserLookupDTO(List.of(userBornOn(1, LocalDate.of(1990, 1, 1))), List.of());
+    when(userRowCache.findAllById(eq(List.of(1)), any())).thenReturn(cached);
+
+    assertEquals(cached, cachedUserService.getAllById(List.of(1)));
+
+    verify(transactionManager, never()).getTransaction(any());
+  }
+
+  @Test
+  @DisplayName("when taking first users of a sorted list then copy only those users")
+  void whenTakingFirstUsersOfSortedListThenReturnThemInRequestedDirection() {
+    var first = userBornOn(1, LocalDate.of(1990, 1, 1));
+    var second = userBornOn(2, LocalDate.of(1991, 1, 1));
+    var third = userBornOn(3, LocalDate.of(1992, 1, 1));
+    var ascending = List.of(first, second, third);
+
+    assertEquals(List.of(first, second), UserOrdering.first(ascending, false, 2));
+    assertEquals(List.of(third, second), UserOrdering.first(ascending, true, 2));
+    assertEquals(List.of(third, second, first), UserOrdering.first(ascending, true, 10));
+    assertEquals(
+        List.of(third, second),
+        UserOrdering.mergeSorted(
+            List.of(List.of(third, first), List.of(second)),
+            UserOrdering.BIRTH_DATE_ORDER.reversed(),
+            2));
+  }
 }
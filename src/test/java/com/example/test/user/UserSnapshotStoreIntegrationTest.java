@@ -0,0 +1,74 @@
+package com.example.test.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+@SpringBootTest(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:snapshot;DB_CLOSE_DELAY=-1",
+      "application.snapshot.enabled=true"
+    })
+class UserSnapshotStoreIntegrationTest {
+
+  private static final LocalDate FROM = LocalDate.of(1900, 1, 1);
+
+  @TempDir private static Path snapshotDir;
+
+  @Autowired private UserSnapshotStore userSnapshotStore;
+
+  @Autowired private UserService userService;
+
+  @Autowired private UserRepository userRepository;
+
+  @DynamicPropertySource
+  static void snapshotPath(DynamicPropertyRegistry registry) {
+    registry.add(
+        "application.snapshot.path", () -> snapshotDir.resolve("users.snapshot").toString());
+  }
+
+  @BeforeEach
+  void awaitSnapshot() throws InterruptedException {
+    for (int i = 0; i < 100 && !userSnapshotStore.isReady(); i++) {
+      Thread.sleep(100);
+    }
+    assertTrue(userSnapshotStore.isReady());
+  }
+
+  @Test
+  @DisplayName("when snapshot is ready then range scan matches database")
+  void whenSnapshotIsReadyThenRangeScanMatchesDatabase() {
+    assertEquals(
+        userRepository.findAllByBirthDateBetweenOrdered(FROM, LocalDate.now()),
+        userSnapshotStore.findAllByBirthDateBetween(FROM, LocalDate.now()));
+  }
+
+  @Test
+  @DisplayName("when users change after snapshot then range scan reflects the changes")
+  void whenUsersChangeAfterSnapshotThenRangeScanReflectsTheChanges() {
+    Integer created =
+        userService.create(
+            new UserDTO("snap.1@gmail.com", "Snap", "Shot", LocalDate.of(1985, 8, 8), null, null));
+    userService.update(
+        2, new UserDTO(null, "Moved", null, LocalDate.of(1960, 6, 6), null, null));
+    userService.delete(3);
+
+    var users = userService.getAllByDateBetween(FROM, LocalDate.now());
+
+    assertEquals(userRepository.findAllByBirthDateBetweenOrdered(FROM, LocalDate.now()), users);
+    assertTrue(users.stream().anyMatch(user -> user.getId().equals(created)));
+    assertTrue(users.stream().anyMatch(user -> "Moved".equals(user.getFirstName())));
+    assertFalse(users.stream().anyMatch(user -> user.getId() == 3));
+  }
+}
@@ -0,0 +1,78 @@
+package com.example.test.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class UserSnapshotTest {
+
+  @TempDir private Path tempDir;
+
+  @Test
+  @DisplayName("when snapshot is written then range scan returns rows in birth date order")
+  void whenSnapshotIsWrittenThenRangeScanReturnsRowsInBirthDateOrder() throws Exception {
+    Path path = tempDir.resolve("users.snapshot");
+    try (var writer = new UserSnapshotWriter(path)) {
+      writer.add(3, LocalDate.of(1970, 1, 1), "a@gmail.com", "Dummy", "Bot", null, "phone");
+      writer.add(1, LocalDate.of(2000, 1, 1), "b@gmail.com", "Dummy", "Bot", "address", null);
+      writer.add(2, LocalDate.of(2000, 1, 1), "c@gmail.com", "Mark", "Bot", "address", "phone");
+      writer.add(4, LocalDate.of(2003, 5, 26), "d@gmail.com", "Dummy", "Jovar", "address", null);
+      writer.commit(42);
+    }
+
+    var snapshot = UserSnapshot.open(path);
+    var users =
+        snapshot.findAllByBirthDateBetween(
+            LocalDate.of(2000, 1, 1), LocalDate.of(2003, 5, 26), Set.of());
+
+    assertEquals(42, snapshot.lastSeq());
+    assertEquals(4, snapshot.rowCount());
+    assertEquals(List.of(1, 2, 4), users.stream().map(UserDTO::getId).toList());
+    assertEquals(
+        new UserDTO(1, "b@gmail.com", "Dummy", "Bot", LocalDate.of(2000, 1, 1), "address", null),
+        users.get(0));
+    assertEquals("Mark", users.get(1).getFirstName());
+    assertNull(users.get(2).getPhoneNumber());
+  }
+
+  @Test
+  @DisplayName("when ids are excluded then range scan skips them")
+  void whenIdsAreExcludedThenRangeScanSkipsThem() throws Exception {
+    Path path = tempDir.resolve("users.snapshot");
+    try (var writer = new UserSnapshotWriter(path)) {
+      writer.add(1, LocalDate.of(1990, 1, 1), "a@gmail.com", "Dummy", "Bot", null, null);
+      writer.add(2, LocalDate.of(1990, 1, 2), "b@gmail.com", "Dummy", "Bot", null, null);
+      writer.commit(0);
+    }
+
+    var users =
+        UserSnapshot.open(path)
+            .findAllByBirthDateBetween(LocalDate.of(1900, 1, 1), LocalDate.now(), Set.of(1));
+
+    assertEquals(List.of(2), users.stream().map(UserDTO::getId).toList());
+  }
+
+  @Test
+  @DisplayName("when range is outside snapshot then return no rows")
+  void whenRangeIsOutsideSnapshotThenReturnNoRows() throws Exception {
+    Path path = tempDir.resolve("users.snapshot");
+    try (var writer = new UserSnapshotWriter(path)) {
+      writer.add(1, LocalDate.of(1990, 1, 1), "a@gmail.com", "Dummy", "Bot", null, null);
+      writer.commit(0);
+    }
+
+    var users =
+        UserSnapshot.open(path)
+            .findAllByBirthDateBetween(
+                LocalDate.of(2000, 1, 1), LocalDate.of(2001, 1, 1), Set.of());
+
+    assertEquals(List.of(), users);
+  }
+}